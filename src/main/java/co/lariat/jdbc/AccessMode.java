@@ -0,0 +1,45 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+/**
+ * Determines how query results are injected into entities
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 4:20 PM - Created with IntelliJ IDEA.
+ */
+public enum AccessMode {
+    /**
+     * Columns are passed to the setter of the matching property
+     */
+    PROPERTY,
+
+    /**
+     * Columns are written directly to the matching field, without going through a setter
+     */
+    FIELD
+}
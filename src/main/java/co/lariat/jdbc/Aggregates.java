@@ -0,0 +1,586 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aggregates the columns of a {@link ColumnarResult} without boxing. The kernels read the primitive arrays of the
+ * columns directly, with simple counted loops which the JIT compiler can unroll and, on platforms which support it,
+ * vectorise. Columns without nulls, which are the common case, are aggregated without consulting a null bitmap.
+ * Sums, which treat nulls as zero, never consult it. Sums of longs overflow silently, as Java arithmetic does.
+ * <p>
+ * Rows can be grouped by a text, integral or boolean column with {@link #groupBy(ColumnarResult, int)}, which assigns
+ * each row the index of its group so that every aggregate of the groups is a single pass over arrays.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/17/26 6:05 AM - Created with IntelliJ IDEA.
+ */
+public class Aggregates {
+    private Aggregates() {
+    }
+
+    /**
+     * Returns the number of rows in which the specified column is not null
+     * @param result the rows which should be counted
+     * @param column the index of the column
+     * @return the number of values
+     */
+    public static long count(final ColumnarResult result, final int column) {
+        return result.getRowCount() - countNulls(result.getNulls(column), result.getOffset(), result.getOffset() + result.getRowCount());
+    }
+
+    /**
+     * Returns the sum of an integral column
+     * @param result the rows which should be summed
+     * @param column the index of the column
+     * @return the sum, which is zero if there are no values
+     */
+    public static long sumLong(final ColumnarResult result, final int column) {
+        long[] values = getLongs(result, column);
+        int to = result.getOffset() + result.getRowCount();
+        long sum = 0;
+
+        for (int index = result.getOffset(); index < to; index++) {
+            sum += values[index];
+        }
+
+        return sum;
+    }
+
+    /**
+     * Returns the sum of a numeric column. Doubles are added in four independent lanes, so the result may differ in its
+     * last bits from a sum which is added in order.
+     * @param result the rows which should be summed
+     * @param column the index of the column
+     * @return the sum, which is zero if there are no values
+     */
+    public static double sumDouble(final ColumnarResult result, final int column) {
+        if (result.getType(column) == ColumnarResult.Type.LONG) {
+            return sumLong(result, column);
+        }
+
+        double[] values = getDoubles(result, column);
+        int index = result.getOffset();
+        int to = index + result.getRowCount();
+        double sum0 = 0;
+        double sum1 = 0;
+        double sum2 = 0;
+        double sum3 = 0;
+
+        // Independent sums do not wait for each other, so the additions overlap
+        for (; index + 3 < to; index += 4) {
+            sum0 += values[index];
+            sum1 += values[index + 1];
+            sum2 += values[index + 2];
+            sum3 += values[index + 3];
+        }
+
+        for (; index < to; index++) {
+            sum0 += values[index];
+        }
+
+        return (sum0 + sum1) + (sum2 + sum3);
+    }
+
+    /**
+     * Returns the smallest value of an integral column
+     * @param result the rows which should be searched
+     * @param column the index of the column
+     * @return the smallest value, or null if the column does not have any values
+     */
+    public static Long minLong(final ColumnarResult result, final int column) {
+        return extremeLong(result, column, true);
+    }
+
+    /**
+     * Returns the largest value of an integral column
+     * @param result the rows which should be searched
+     * @param column the index of the column
+     * @return the largest value, or null if the column does not have any values
+     */
+    public static Long maxLong(final ColumnarResult result, final int column) {
+        return extremeLong(result, column, false);
+    }
+
+    /**
+     * Returns the smallest value of a numeric column as a double
+     * @param result the rows which should be searched
+     * @param column the index of the column
+     * @return the smallest value, or null if the column does not have any values
+     */
+    public static Double minDouble(final ColumnarResult result, final int column) {
+        return extremeDouble(result, column, true);
+    }
+
+    /**
+     * Returns the largest value of a numeric column as a double
+     * @param result the rows which should be searched
+     * @param column the index of the column
+     * @return the largest value, or null if the column does not have any values
+     */
+    public static Double maxDouble(final ColumnarResult result, final int column) {
+        return extremeDouble(result, column, false);
+    }
+
+    /**
+     * Groups the rows of the provided result by the value of the specified column, which must be a text, integral or
+     * boolean column. Rows in which the column is null form a group of their own. Groups are numbered in the order in
+     * which their first rows appear.
+     * @param result the rows which should be grouped
+     * @param keyColumn the index of the column by which the rows should be grouped
+     * @return the groups
+     */
+    public static Groups groupBy(final ColumnarResult result, final int keyColumn) {
+        int offset = result.getOffset();
+        int rowCount = result.getRowCount();
+        int[] rowGroups = new int[rowCount];
+        List<Object> keys = new ArrayList<>();
+
+        switch (result.getType(keyColumn)) {
+            case STRING: {
+                int[] codes = (int[]) result.getValues(keyColumn);
+                String[] dictionary = result.getDictionary(keyColumn);
+
+                // The codes are dense, so the group of each code is found by position, with null, which is -1, first
+                int[] groupOfCode = new int[dictionary.length + 1];
+                Arrays.fill(groupOfCode, -1);
+
+                for (int row = 0; row < rowCount; row++) {
+                    int code = codes[offset + row];
+                    int group = groupOfCode[code + 1];
+
+                    if (group == -1) {
+                        group = keys.size();
+                        groupOfCode[code + 1] = group;
+                        keys.add(code == -1 ? null : dictionary[code]);
+                    }
+
+                    rowGroups[row] = group;
+                }
+
+                break;
+            }
+            case BOOLEAN: {
+                boolean[] values = (boolean[]) result.getValues(keyColumn);
+                int[] groupOfValue = {-1, -1, -1};
+
+                for (int row = 0; row < rowCount; row++) {
+                    int index = offset + row;
+                    int value = result.isNullAt(keyColumn, index) ? 0 : values[index] ? 2 : 1;
+                    int group = groupOfValue[value];
+
+                    if (group == -1) {
+                        group = keys.size();
+                        groupOfValue[value] = group;
+                        keys.add(value == 0 ? null : value == 2);
+                    }
+
+                    rowGroups[row] = group;
+                }
+
+                break;
+            }
+            case LONG: {
+                long[] values = (long[]) result.getValues(keyColumn);
+                boolean nullable = result.getNulls(keyColumn) != null;
+                LongGroupTable table = new LongGroupTable();
+                int nullGroup = -1;
+
+                for (int row = 0; row < rowCount; row++) {
+                    int index = offset + row;
+
+                    if (nullable && result.isNullAt(keyColumn, index)) {
+                        if (nullGroup == -1) {
+                            nullGroup = keys.size();
+                            keys.add(null);
+                        }
+
+                        rowGroups[row] = nullGroup;
+                    } else {
+                        int group = table.find(values[index], keys.size());
+
+                        if (group == keys.size()) {
+                            keys.add(values[index]);
+                        }
+
+                        rowGroups[row] = group;
+                    }
+                }
+
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("The column " + result.getColumnName(keyColumn) + " is stored as " + result.getType(keyColumn) + " and cannot be grouped");
+        }
+
+        return new Groups(result, rowGroups, keys.toArray());
+    }
+
+    /**
+     * The rows of a result, grouped by the value of a column. Each aggregate returns an array which is indexed by
+     * group.
+     */
+    public static class Groups {
+        private final ColumnarResult result;
+        private final int[] rowGroups;
+        private final Object[] keys;
+
+        private Groups(final ColumnarResult result, final int[] rowGroups, final Object[] keys) {
+            this.result = result;
+            this.rowGroups = rowGroups;
+            this.keys = keys;
+        }
+
+        public int getGroupCount() {
+            return keys.length;
+        }
+
+        /**
+         * Returns the value of the key column which is shared by the rows of the specified group
+         * @param group the index of the group
+         * @return the key of the group, which is null for the group of nulls
+         */
+        public Object getKey(final int group) {
+            return keys[group];
+        }
+
+        /**
+         * Returns the group of the specified row of the result
+         * @param row the index of the row
+         * @return the index of the group
+         */
+        public int getGroup(final int row) {
+            return rowGroups[row];
+        }
+
+        /**
+         * Returns the number of rows in each group
+         * @return the number of rows in each group
+         */
+        public long[] count() {
+            long[] counts = new long[keys.length];
+
+            for (int group : rowGroups) {
+                counts[group]++;
+            }
+
+            return counts;
+        }
+
+        /**
+         * Returns the number of rows in each group in which the specified column is not null
+         * @param column the index of the column
+         * @return the number of values in each group
+         */
+        public long[] count(final int column) {
+            if (result.getNulls(column) == null) {
+                return count();
+            }
+
+            long[] counts = new long[keys.length];
+            int offset = result.getOffset();
+
+            for (int row = 0; row < rowGroups.length; row++) {
+                if (!result.isNullAt(column, offset + row)) {
+                    counts[rowGroups[row]]++;
+                }
+            }
+
+            return counts;
+        }
+
+        /**
+         * Returns the sum of an integral column for each group
+         * @param column the index of the column
+         * @return the sum of each group
+         */
+        public long[] sumLong(final int column) {
+            long[] values = getLongs(result, column);
+            long[] sums = new long[keys.length];
+            int offset = result.getOffset();
+
+            for (int row = 0; row < rowGroups.length; row++) {
+                sums[rowGroups[row]] += values[offset + row];
+            }
+
+            return sums;
+        }
+
+        /**
+         * Returns the sum of a numeric column for each group
+         * @param column the index of the column
+         * @return the sum of each group
+         */
+        public double[] sumDouble(final int column) {
+            double[] sums = new double[keys.length];
+            int offset = result.getOffset();
+
+            if (result.getType(column) == ColumnarResult.Type.LONG) {
+                long[] values = (long[]) result.getValues(column);
+
+                for (int row = 0; row < rowGroups.length; row++) {
+                    sums[rowGroups[row]] += values[offset + row];
+                }
+            } else {
+                double[] values = getDoubles(result, column);
+
+                for (int row = 0; row < rowGroups.length; row++) {
+                    sums[rowGroups[row]] += values[offset + row];
+                }
+            }
+
+            return sums;
+        }
+
+        /**
+         * Returns the smallest value of a numeric column for each group
+         * @param column the index of the column
+         * @return the smallest value of each group, which is NaN for a group without any values
+         */
+        public double[] min(final int column) {
+            return extremes(column, true);
+        }
+
+        /**
+         * Returns the largest value of a numeric column for each group
+         * @param column the index of the column
+         * @return the largest value of each group, which is NaN for a group without any values
+         */
+        public double[] max(final int column) {
+            return extremes(column, false);
+        }
+
+        private double[] extremes(final int column, final boolean min) {
+            boolean isLong = result.getType(column) == ColumnarResult.Type.LONG;
+            long[] longs = isLong ? (long[]) result.getValues(column) : null;
+            double[] doubles = isLong ? null : getDoubles(result, column);
+            boolean nullable = result.getNulls(column) != null;
+            double[] extremes = new double[keys.length];
+            boolean[] found = new boolean[keys.length];
+            int offset = result.getOffset();
+
+            Arrays.fill(extremes, Double.NaN);
+
+            for (int row = 0; row < rowGroups.length; row++) {
+                int index = offset + row;
+
+                if (nullable && result.isNullAt(column, index)) {
+                    continue;
+                }
+
+                int group = rowGroups[row];
+                double value = isLong ? longs[index] : doubles[index];
+
+                if (!found[group] || (min ? value < extremes[group] : value > extremes[group])) {
+                    extremes[group] = value;
+                    found[group] = true;
+                }
+            }
+
+            return extremes;
+        }
+    }
+
+    private static Long extremeLong(final ColumnarResult result, final int column, final boolean min) {
+        long[] values = getLongs(result, column);
+        long[] nulls = result.getNulls(column);
+        int from = result.getOffset();
+        int to = from + result.getRowCount();
+        long extreme = min ? Long.MAX_VALUE : Long.MIN_VALUE;
+        boolean found = false;
+
+        if (nulls == null) {
+            found = from < to;
+
+            // Separate loops keep the comparison out of the loop body so that it can be vectorised
+            if (min) {
+                for (int index = from; index < to; index++) {
+                    extreme = Math.min(extreme, values[index]);
+                }
+            } else {
+                for (int index = from; index < to; index++) {
+                    extreme = Math.max(extreme, values[index]);
+                }
+            }
+        } else {
+            for (int index = from; index < to; index++) {
+                if ((nulls[index >>> 6] & (1L << index)) == 0) {
+                    extreme = min ? Math.min(extreme, values[index]) : Math.max(extreme, values[index]);
+                    found = true;
+                }
+            }
+        }
+
+        return found ? extreme : null;
+    }
+
+    private static Double extremeDouble(final ColumnarResult result, final int column, final boolean min) {
+        if (result.getType(column) == ColumnarResult.Type.LONG) {
+            Long extreme = extremeLong(result, column, min);
+            return extreme == null ? null : (double) extreme;
+        }
+
+        double[] values = getDoubles(result, column);
+        long[] nulls = result.getNulls(column);
+        int from = result.getOffset();
+        int to = from + result.getRowCount();
+        double extreme = min ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        boolean found = false;
+
+        if (nulls == null) {
+            found = from < to;
+
+            if (min) {
+                for (int index = from; index < to; index++) {
+                    extreme = Math.min(extreme, values[index]);
+                }
+            } else {
+                for (int index = from; index < to; index++) {
+                    extreme = Math.max(extreme, values[index]);
+                }
+            }
+        } else {
+            for (int index = from; index < to; index++) {
+                if ((nulls[index >>> 6] & (1L << index)) == 0) {
+                    extreme = min ? Math.min(extreme, values[index]) : Math.max(extreme, values[index]);
+                    found = true;
+                }
+            }
+        }
+
+        return found ? extreme : null;
+    }
+
+    /**
+     * Returns the number of bits which are set in the specified range of the provided bitmap
+     * @param nulls the bitmap, or null if nothing is set
+     * @param from the first bit, inclusive
+     * @param to the last bit, exclusive
+     * @return the number of bits which are set
+     */
+    private static int countNulls(final long[] nulls, final int from, final int to) {
+        if (nulls == null || from >= to) {
+            return 0;
+        }
+
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (63 - ((to - 1) & 63));
+
+        if (first == last) {
+            return Long.bitCount(nulls[first] & firstMask & lastMask);
+        }
+
+        int count = Long.bitCount(nulls[first] & firstMask) + Long.bitCount(nulls[last] & lastMask);
+
+        for (int word = first + 1; word < last; word++) {
+            count += Long.bitCount(nulls[word]);
+        }
+
+        return count;
+    }
+
+    private static long[] getLongs(final ColumnarResult result, final int column) {
+        if (result.getType(column) != ColumnarResult.Type.LONG) {
+            throw new IllegalArgumentException("The column " + result.getColumnName(column) + " is stored as " + result.getType(column) + " rather than LONG");
+        }
+
+        return (long[]) result.getValues(column);
+    }
+
+    private static double[] getDoubles(final ColumnarResult result, final int column) {
+        if (result.getType(column) != ColumnarResult.Type.DOUBLE) {
+            throw new IllegalArgumentException("The column " + result.getColumnName(column) + " is stored as " + result.getType(column) + " rather than DOUBLE");
+        }
+
+        return (double[]) result.getValues(column);
+    }
+
+    /**
+     * Maps longs to the indexes of their groups with open addressing and linear probing
+     */
+    private static class LongGroupTable {
+        private long[] keys = new long[16];
+        private int[] groups = new int[16];
+        private int size = 0;
+
+        private LongGroupTable() {
+            Arrays.fill(groups, -1);
+        }
+
+        /**
+         * Returns the group of the specified key, which is assigned the specified group if it does not have one
+         * @param key the key whose group should be found
+         * @param newGroup the group which is assigned to a key which does not have one
+         * @return the group of the key
+         */
+        int find(final long key, final int newGroup) {
+            int slot = slotOf(keys, groups, key);
+
+            if (groups[slot] != -1) {
+                return groups[slot];
+            }
+
+            keys[slot] = key;
+            groups[slot] = newGroup;
+
+            // Keep the table at most half full so that probes stay short
+            if (++size > keys.length >>> 1) {
+                long[] previousKeys = keys;
+                int[] previousGroups = groups;
+                keys = new long[previousKeys.length << 1];
+                groups = new int[previousKeys.length << 1];
+                Arrays.fill(groups, -1);
+
+                for (int index = 0; index < previousKeys.length; index++) {
+                    if (previousGroups[index] != -1) {
+                        int moved = slotOf(keys, groups, previousKeys[index]);
+                        keys[moved] = previousKeys[index];
+                        groups[moved] = previousGroups[index];
+                    }
+                }
+            }
+
+            return newGroup;
+        }
+
+        private static int slotOf(final long[] keys, final int[] groups, final long key) {
+            int mask = keys.length - 1;
+            int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - Integer.numberOfTrailingZeros(keys.length)));
+
+            while (groups[slot] != -1 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+
+            return slot;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Binds arguments of a particular type to prepared statements. Binders are registered with {@link Binders} and are
+ * resolved once per argument class, rather than by testing each argument against every supported type.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 9:30 PM - Created with IntelliJ IDEA.
+ */
+public interface Binder<T> {
+    /**
+     * Binds the provided value, which is never null, to the specified position of the statement
+     * @param connection the connection which is binding the value
+     * @param statement the statement to which the value should be bound
+     * @param position the position in which the value should be bound
+     * @param value the value which should be bound
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public void bind(SimpleConnection connection, PreparedStatement statement, int position, T value) throws SQLException;
+}
@@ -0,0 +1,347 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps track of the {@link Binder} which should be used for each type of argument. The binder of an argument class
+ * is the one which is registered for the class itself, for its nearest superclass, or for the nearest of the
+ * interfaces which it implements, in that order. The outcome is cached per argument class so that binding an argument
+ * costs a single lookup. Arguments which do not have a more specific binder are bound with setObject().
+ * <p>
+ * The built in binders delegate to the bind methods of {@link SimpleConnection}, so subclasses which override those
+ * methods keep working. java.time values are converted to their java.sql equivalents when they are supported by the
+ * running JVM.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 9:30 PM - Created with IntelliJ IDEA.
+ */
+public class Binders {
+    private static final ConcurrentMap<Class<?>, Binder<?>> REGISTERED = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented whenever a binder is registered, so that binders which were resolved beforehand are resolved again
+     */
+    private static volatile int generation;
+
+    private static final ClassValue<Resolved> RESOLVED = new ClassValue<Resolved>() {
+        @Override
+        protected Resolved computeValue(final Class<?> type) {
+            return new Resolved(generation, resolve(type));
+        }
+    };
+
+    static {
+        registerDefaults();
+    }
+
+    /**
+     * Registers the binder which should be used for arguments of the specified type and its subtypes, replacing any
+     * binder which was previously registered for the same type
+     * @param type the type of the arguments
+     * @param binder the binder which should be used for the arguments
+     * @param <T> the type of the arguments
+     */
+    public static <T> void register(final Class<T> type, final Binder<? super T> binder) {
+        REGISTERED.put(type, binder);
+        generation++;
+    }
+
+    /**
+     * Returns the binder which should be used for arguments of the specified class
+     * @param type the class of the arguments
+     * @return the binder which should be used for the arguments
+     */
+    public static Binder<Object> find(final Class<?> type) {
+        Resolved resolved = RESOLVED.get(type);
+
+        // The binder was resolved before another binder was registered, so it may no longer be the right one
+        if (resolved.generation != generation) {
+            RESOLVED.remove(type);
+            resolved = RESOLVED.get(type);
+        }
+
+        return resolved.binder;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Binder<Object> resolve(final Class<?> type) {
+        // Superclasses are more specific than interfaces, so that Timestamp is preferred over Comparable, for example
+        for (Class<?> superclass = type; superclass != null && superclass != Object.class; superclass = superclass.getSuperclass()) {
+            Binder<?> binder = REGISTERED.get(superclass);
+
+            if (binder != null) {
+                return (Binder<Object>) binder;
+            }
+        }
+
+        // Search the interfaces breadth first, so that NClob is found before Clob, for example
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+
+        for (Class<?> superclass = type; superclass != null; superclass = superclass.getSuperclass()) {
+            for (Class<?> anInterface : superclass.getInterfaces()) {
+                queue.add(anInterface);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            Class<?> anInterface = queue.poll();
+
+            if (visited.add(anInterface)) {
+                Binder<?> binder = REGISTERED.get(anInterface);
+
+                if (binder != null) {
+                    return (Binder<Object>) binder;
+                }
+
+                for (Class<?> superInterface : anInterface.getInterfaces()) {
+                    queue.add(superInterface);
+                }
+            }
+        }
+
+        return (Binder<Object>) REGISTERED.get(Object.class);
+    }
+
+    private static void registerDefaults() {
+        register(Object.class, new Binder<Object>() {
+            @Override
+            public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final Object value) throws SQLException {
+                // Try this as a last resort, if we don't have an explicit way of handling the type
+                statement.setObject(position, value);
+            }
+        });
+
+        register(String.class, new Binder<String>() {
+            @Override
+            public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final String value) throws SQLException {
+                connection.bindString(statement, position, value);
+            }
+        });
+
+        register(Integer.class, new Binder<Integer>() {
+            @Override
+            public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final Integer value) throws SQLException {
+                connection.bindInteger(statement, position, value);
+            }
+        });
+
+        register(Long.class, new Binder<Long>() {
+            @Override
+            public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final Long value) throws SQLException {
+                connection.bindLong(statement, position, value);
+            }
+        });
+
+        register(Float.class, new Binder<Float>() {
+            @Override
+            public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final Float value) throws SQLException {
+                connection.bindFloat(statement, position, value);
+            }
+        });
+
+        register(Double.class, new Binder<Double>() {
+            @Override
+            public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final Double value) throws SQLException {
+                connection.bindDouble(statement, position, value);
+            }
+        });
+
+        register(Boolean.class, new Binder<Boolean>() {
+            @Override
+            public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final Boolean value) throws SQLException {
+                connection.bindBoolean(statement, position, value);
+            }
+        });
+
+        register(Time.class, new Binder<Time>() {
+            @Override
+            public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final Time value) throws SQLException {
+                connection.bindTime(statement, position, value);
+            }
+        });
+
+        register(Timestamp.class, new Binder<Timestamp>() {
+            @Override
+            public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final Timestamp value) throws SQLException {
+                connection.bindTimestamp(statement, position, value);
+            }
+        });
+
+        register(Date.class, new Binder<Date>() {
+            @Override
+            public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final Date value) throws SQLException {
+                connection.bindDate(statement, position, value);
+            }
+        });
+
+        register(BigDecimal.class, new Binder<BigDecimal>() {
+            @Override
+            public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final BigDecimal value) throws SQLException {
+                connection.bindBigDecimal(statement, position, value);
+            }
+        });
+
+        register(Short.class, new Binder<Short>() {
+            @Override
+            public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final Short value) throws SQLException {
+                connection.bindShort(statement, position, value);
+            }
+        });
+
+        register(Byte.class, new Binder<Byte>() {
+            @Override
+            public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final Byte value) throws SQLException {
+                connection.bindByte(statement, position, value);
+            }
+        });
+
+        register(Array.class, new Binder<Array>() {
+            @Override
+            public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final Array value) throws SQLException {
+                connection.bindArray(statement, position, value);
+            }
+        });
+
+        register(Blob.class, new Binder<Blob>() {
+            @Override
+            public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final Blob value) throws SQLException {
+                connection.bindBlob(statement, position, value);
+            }
+        });
+
+        register(NClob.class, new Binder<NClob>() {
+            @Override
+            public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final NClob value) throws SQLException {
+                connection.bindNClob(statement, position, value);
+            }
+        });
+
+        register(Clob.class, new Binder<Clob>() {
+            @Override
+            public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final Clob value) throws SQLException {
+                connection.bindClob(statement, position, value);
+            }
+        });
+
+        register(InputStream.class, new Binder<InputStream>() {
+            @Override
+            public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final InputStream value) throws SQLException {
+                connection.bindBinaryStream(statement, position, value);
+            }
+        });
+
+        register(SQLXML.class, new Binder<SQLXML>() {
+            @Override
+            public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final SQLXML value) throws SQLException {
+                connection.bindSQLXML(statement, position, value);
+            }
+        });
+
+        register(Ref.class, new Binder<Ref>() {
+            @Override
+            public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final Ref value) throws SQLException {
+                connection.bindRef(statement, position, value);
+            }
+        });
+
+        register(byte[].class, new Binder<byte[]>() {
+            @Override
+            public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final byte[] value) throws SQLException {
+                connection.bindBytes(statement, position, value);
+            }
+        });
+
+        // The java.time API does not exist before Java 8, so these binders are only registered when it does
+        registerConverting("java.time.LocalDateTime", Timestamp.class);
+        registerConverting("java.time.Instant", Timestamp.class);
+        registerConverting("java.time.LocalDate", java.sql.Date.class);
+        registerConverting("java.time.LocalTime", Time.class);
+    }
+
+    /**
+     * The binder which was resolved for a class and the generation in which it was resolved
+     */
+    private static final class Resolved {
+        private final int generation;
+        private final Binder<Object> binder;
+
+        Resolved(final int generation, final Binder<Object> binder) {
+            this.generation = generation;
+            this.binder = binder;
+        }
+    }
+
+    /**
+     * Registers a binder which converts arguments of the specified type to a type which has a binder of its own, if
+     * the type exists and {@link TypeConverters} is able to convert it
+     * @param typeName the name of the type of the arguments
+     * @param targetType the type which the arguments should be converted to
+     */
+    @SuppressWarnings("unchecked")
+    private static void registerConverting(final String typeName, final Class<?> targetType) {
+        Class<Object> type;
+
+        try {
+            type = (Class<Object>) Class.forName(typeName);
+        } catch (ClassNotFoundException e) {
+            return;
+        }
+
+        final TypeConverter<Object, Object> converter = (TypeConverter<Object, Object>) TypeConverters.find(type, targetType);
+
+        if (converter != null) {
+            register(type, new Binder<Object>() {
+                @Override
+                public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final Object value) throws SQLException {
+                    Object converted = converter.convert(value);
+                    find(converted.getClass()).bind(connection, statement, position, converted);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * A binding plan describes how the properties of an entity are read into the positional arguments of a statement. It
+ * is the reverse of a {@link MappingPlan}. Each argument is read through a method handle which invokes the getter of
+ * the matching property or, in {@link AccessMode#FIELD}, which reads the matching field. The handles are resolved
+ * once, when the plan is compiled, so binding an entity does not involve any reflection.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 11:05 PM - Created with IntelliJ IDEA.
+ */
+public class BindingPlan {
+    /**
+     * The generic type of the handles which read the arguments from the entity
+     */
+    private static final MethodType READER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final Class<?> entityClass;
+    private final EntityMetadata.Property[] properties;
+    private final MethodHandle[] readers;
+
+    /**
+     * Construct a binding plan
+     * @param entityClass the class of the entities which are bound by the plan
+     * @param properties the property which supplies each positional argument
+     * @param accessMode whether the properties are read through their getters or their fields
+     * @throws SQLException thrown when one of the properties cannot be read
+     */
+    public BindingPlan(final Class<?> entityClass, final EntityMetadata.Property[] properties, final AccessMode accessMode) throws SQLException {
+        this.entityClass = entityClass;
+        this.properties = properties;
+        this.readers = new MethodHandle[properties.length];
+
+        for (int index = 0; index < properties.length; index++) {
+            readers[index] = createReader(properties[index], accessMode).asType(READER_TYPE);
+        }
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * Returns the property which supplies each positional argument
+     * @return the property which supplies each positional argument
+     */
+    public EntityMetadata.Property[] getProperties() {
+        return properties.clone();
+    }
+
+    /**
+     * Reads the positional arguments of a statement from the specified entity
+     * @param entity the entity whose properties should be read
+     * @return the value of each positional argument
+     * @throws SQLException thrown when one of the properties cannot be read
+     */
+    public Object[] getArguments(final Object entity) throws SQLException {
+        Object[] arguments = new Object[readers.length];
+
+        for (int index = 0; index < readers.length; index++) {
+            try {
+                arguments[index] = readers[index].invokeExact(entity);
+            } catch (Throwable e) {
+                throw new SQLException("Cannot read property " + properties[index].getName() + " of " + entityClass.getCanonicalName(), e);
+            }
+        }
+
+        return arguments;
+    }
+
+    /**
+     * Creates the handle which reads the specified property. Fields are preferred in {@link AccessMode#FIELD} and
+     * getters are preferred otherwise, but either falls back to the other when it is missing.
+     * @param property the property which should be read
+     * @param accessMode whether the property should be read through its getter or its field
+     * @return the handle which reads the property
+     * @throws SQLException thrown when the property has neither a getter nor a field, or they cannot be accessed
+     */
+    private static MethodHandle createReader(final EntityMetadata.Property property, final AccessMode accessMode) throws SQLException {
+        Method getter = property.getGetter();
+        Field field = property.getField();
+
+        try {
+            if (field != null && (accessMode == AccessMode.FIELD || getter == null)) {
+                field.setAccessible(true);
+                return MethodHandles.lookup().unreflectGetter(field);
+            }
+
+            if (getter != null) {
+                getter.setAccessible(true);
+                return MethodHandles.lookup().unreflect(getter);
+            }
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new SQLException("Cannot access property: " + property.getName(), e);
+        }
+
+        throw new SQLException("Property " + property.getName() + " has neither a getter nor a field");
+    }
+
+    @Override
+    public String toString() {
+        return "BindingPlan{" +
+            "entityClass=" + entityClass +
+            ", properties=" + Arrays.toString(properties) +
+            '}';
+    }
+}
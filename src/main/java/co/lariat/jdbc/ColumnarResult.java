@@ -0,0 +1,584 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The rows of a result, stored column by column rather than row by row. Each column is read with the typed getter
+ * which suits it and is stored in a single primitive array: integral columns as longs, floating point and decimal
+ * columns as doubles, and boolean columns as booleans. Text columns are dictionary encoded, so each row holds the
+ * int code of its value and each distinct value is stored once. Anything else is stored as an object. Nulls are
+ * recorded in a bitmap per column, which is only allocated if the column contains a null.
+ * <p>
+ * A slice of a result shares the arrays of the result, so slicing does not copy anything. The bulk accessors, such as
+ * {@link #toLongArray(int)}, copy the rows of the slice into a new array.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/17/26 5:20 AM - Created with IntelliJ IDEA.
+ */
+public class ColumnarResult {
+    /**
+     * The way in which the values of a column are stored
+     */
+    public enum Type {
+        LONG,
+        DOUBLE,
+        BOOLEAN,
+        STRING,
+        OBJECT
+    }
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final String[] columnNames;
+    private final Type[] types;
+
+    /**
+     * The values of each column, which is a long[], double[], boolean[], int[] of dictionary codes, or Object[]
+     */
+    private final Object[] values;
+
+    /**
+     * The null bitmap of each column, or null for a column which does not contain any nulls
+     */
+    private final long[][] nulls;
+
+    /**
+     * The distinct values of each text column, indexed by their codes, or null for other columns
+     */
+    private final String[][] dictionaries;
+    private final int offset;
+    private final int rowCount;
+
+    private ColumnarResult(final String[] columnNames, final Type[] types, final Object[] values, final long[][] nulls, final String[][] dictionaries, final int offset, final int rowCount) {
+        this.columnNames = columnNames;
+        this.types = types;
+        this.values = values;
+        this.nulls = nulls;
+        this.dictionaries = dictionaries;
+        this.offset = offset;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Reads every remaining row of the provided result set. The result set is not closed.
+     * @param simpleResultSet the result set whose rows should be read
+     * @return the rows, stored column by column
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public static ColumnarResult read(final SimpleResultSet simpleResultSet) throws SQLException {
+        ResultSetMetaData metaData = simpleResultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        String[] columnNames = new String[columnCount];
+        Type[] types = new Type[columnCount];
+        Object[] values = new Object[columnCount];
+        long[][] nulls = new long[columnCount][];
+        List<Map<String, Integer>> codes = new ArrayList<>(columnCount);
+        int capacity = INITIAL_CAPACITY;
+        int rowCount = 0;
+
+        for (int index = 0; index < columnCount; index++) {
+            columnNames[index] = metaData.getColumnLabel(index + 1).toLowerCase();
+            types[index] = getType(metaData, index + 1);
+            values[index] = allocate(types[index], capacity);
+            codes.add(types[index] == Type.STRING ? new HashMap<String, Integer>() : null);
+        }
+
+        while (simpleResultSet.next()) {
+            if (rowCount == capacity) {
+                capacity = grow(capacity);
+
+                for (int index = 0; index < columnCount; index++) {
+                    values[index] = resize(values[index], capacity);
+
+                    if (nulls[index] != null) {
+                        nulls[index] = Arrays.copyOf(nulls[index], getWordCount(capacity));
+                    }
+                }
+            }
+
+            for (int index = 0; index < columnCount; index++) {
+                int column = index + 1;
+
+                switch (types[index]) {
+                    case LONG:
+                        ((long[]) values[index])[rowCount] = simpleResultSet.getLong(column);
+                        break;
+                    case DOUBLE:
+                        ((double[]) values[index])[rowCount] = simpleResultSet.getDouble(column);
+                        break;
+                    case BOOLEAN:
+                        ((boolean[]) values[index])[rowCount] = simpleResultSet.getBoolean(column);
+                        break;
+                    case STRING:
+                        String value = simpleResultSet.getString(column);
+                        int code = -1;
+
+                        if (value != null) {
+                            Map<String, Integer> dictionary = codes.get(index);
+                            Integer existing = dictionary.get(value);
+
+                            if (existing == null) {
+                                existing = dictionary.size();
+                                dictionary.put(value, existing);
+                            }
+
+                            code = existing;
+                        }
+
+                        ((int[]) values[index])[rowCount] = code;
+                        break;
+                    default:
+                        ((Object[]) values[index])[rowCount] = simpleResultSet.getObject(column);
+                }
+
+                if (simpleResultSet.wasNull()) {
+                    if (nulls[index] == null) {
+                        nulls[index] = new long[getWordCount(capacity)];
+                    }
+
+                    nulls[index][rowCount >>> 6] |= 1L << rowCount;
+                }
+            }
+
+            rowCount++;
+        }
+
+        String[][] dictionaries = new String[columnCount][];
+
+        for (int index = 0; index < columnCount; index++) {
+            // Release the capacity which was not needed
+            if (rowCount < capacity) {
+                values[index] = resize(values[index], rowCount);
+            }
+
+            if (codes.get(index) != null) {
+                dictionaries[index] = new String[codes.get(index).size()];
+
+                for (Map.Entry<String, Integer> entry : codes.get(index).entrySet()) {
+                    dictionaries[index][entry.getValue()] = entry.getKey();
+                }
+            }
+        }
+
+        return new ColumnarResult(columnNames, types, values, nulls, dictionaries, 0, rowCount);
+    }
+
+    /**
+     * Returns the specified range of rows, which shares the arrays of this result rather than copying them
+     * @param fromRow the first row of the slice, inclusive
+     * @param toRow the last row of the slice, exclusive
+     * @return the rows of the range
+     */
+    public ColumnarResult slice(final int fromRow, final int toRow) {
+        if (fromRow < 0 || toRow > rowCount || fromRow > toRow) {
+            throw new IndexOutOfBoundsException("Cannot slice rows " + fromRow + " to " + toRow + " of " + rowCount);
+        }
+
+        return new ColumnarResult(columnNames, types, values, nulls, dictionaries, offset + fromRow, toRow - fromRow);
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    /**
+     * Returns the lower case label of the specified column
+     * @param column the index of the column, starting at zero
+     * @return the label of the column
+     */
+    public String getColumnName(final int column) {
+        return columnNames[column];
+    }
+
+    /**
+     * Returns the index of the column with the specified label, which is not case sensitive
+     * @param columnName the label of the column
+     * @return the index of the column, starting at zero, or -1 if there isn't one
+     */
+    public int getColumnIndex(final String columnName) {
+        for (int index = 0; index < columnNames.length; index++) {
+            if (columnNames[index].equalsIgnoreCase(columnName)) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    public Type getType(final int column) {
+        return types[column];
+    }
+
+    public boolean isNull(final int column, final int row) {
+        return isNullAt(column, checkRow(row));
+    }
+
+    /**
+     * Returns the number of nulls which the specified column contains within this result
+     * @param column the index of the column
+     * @return the number of nulls
+     */
+    public int getNullCount(final int column) {
+        return nulls[column] == null ? 0 : getNullMask(column).cardinality();
+    }
+
+    /**
+     * Returns a bitmap in which the bit of each row of this result is set if the specified column is null
+     * @param column the index of the column
+     * @return a new bitmap of the nulls of the column
+     */
+    public BitSet getNullMask(final int column) {
+        if (nulls[column] == null) {
+            return new BitSet();
+        }
+
+        return BitSet.valueOf(nulls[column]).get(offset, offset + rowCount);
+    }
+
+    /**
+     * Returns the value of a numeric or boolean column as a long, or zero if it is null
+     * @param column the index of the column
+     * @param row the index of the row
+     * @return the value as a long
+     */
+    public long getLong(final int column, final int row) {
+        int index = checkRow(row);
+
+        switch (types[column]) {
+            case LONG:
+                return ((long[]) values[column])[index];
+            case DOUBLE:
+                return (long) ((double[]) values[column])[index];
+            case BOOLEAN:
+                return ((boolean[]) values[column])[index] ? 1 : 0;
+            default:
+                throw notA("numeric", column);
+        }
+    }
+
+    /**
+     * Returns the value of a numeric or boolean column as a double, or zero if it is null
+     * @param column the index of the column
+     * @param row the index of the row
+     * @return the value as a double
+     */
+    public double getDouble(final int column, final int row) {
+        int index = checkRow(row);
+
+        switch (types[column]) {
+            case DOUBLE:
+                return ((double[]) values[column])[index];
+            case LONG:
+                return ((long[]) values[column])[index];
+            case BOOLEAN:
+                return ((boolean[]) values[column])[index] ? 1 : 0;
+            default:
+                throw notA("numeric", column);
+        }
+    }
+
+    public boolean getBoolean(final int column, final int row) {
+        if (types[column] != Type.BOOLEAN) {
+            return getLong(column, row) != 0;
+        }
+
+        return ((boolean[]) values[column])[checkRow(row)];
+    }
+
+    /**
+     * Returns the value of the specified column as a string, or null if it is null
+     * @param column the index of the column
+     * @param row the index of the row
+     * @return the value as a string
+     */
+    public String getString(final int column, final int row) {
+        if (types[column] == Type.STRING) {
+            int code = ((int[]) values[column])[checkRow(row)];
+            return code == -1 ? null : dictionaries[column][code];
+        }
+
+        Object value = getObject(column, row);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Returns the dictionary code of the value of a text column, which is its index in
+     * {@link #getDictionary(int)}, or -1 if it is null
+     * @param column the index of the column
+     * @param row the index of the row
+     * @return the code of the value
+     */
+    public int getStringCode(final int column, final int row) {
+        if (types[column] != Type.STRING) {
+            throw notA("text", column);
+        }
+
+        return ((int[]) values[column])[checkRow(row)];
+    }
+
+    /**
+     * Returns the value of the specified column as an object, which is boxed for primitive columns, or null if it is
+     * null
+     * @param column the index of the column
+     * @param row the index of the row
+     * @return the value
+     */
+    public Object getObject(final int column, final int row) {
+        int index = checkRow(row);
+
+        if (isNullAt(column, index)) {
+            return null;
+        }
+
+        switch (types[column]) {
+            case LONG:
+                return ((long[]) values[column])[index];
+            case DOUBLE:
+                return ((double[]) values[column])[index];
+            case BOOLEAN:
+                return ((boolean[]) values[column])[index];
+            case STRING:
+                return dictionaries[column][((int[]) values[column])[index]];
+            default:
+                return ((Object[]) values[column])[index];
+        }
+    }
+
+    /**
+     * Returns the values of an integral column, with zero for each null
+     * @param column the index of the column
+     * @return a new array of the values of the rows of this result
+     */
+    public long[] toLongArray(final int column) {
+        if (types[column] != Type.LONG) {
+            throw notA("integral", column);
+        }
+
+        return Arrays.copyOfRange((long[]) values[column], offset, offset + rowCount);
+    }
+
+    /**
+     * Returns the values of a numeric column as doubles, with zero for each null
+     * @param column the index of the column
+     * @return a new array of the values of the rows of this result
+     */
+    public double[] toDoubleArray(final int column) {
+        if (types[column] == Type.DOUBLE) {
+            return Arrays.copyOfRange((double[]) values[column], offset, offset + rowCount);
+        }
+
+        if (types[column] != Type.LONG) {
+            throw notA("numeric", column);
+        }
+
+        long[] longs = (long[]) values[column];
+        double[] doubles = new double[rowCount];
+
+        for (int index = 0; index < rowCount; index++) {
+            doubles[index] = longs[offset + index];
+        }
+
+        return doubles;
+    }
+
+    public boolean[] toBooleanArray(final int column) {
+        if (types[column] != Type.BOOLEAN) {
+            throw notA("boolean", column);
+        }
+
+        return Arrays.copyOfRange((boolean[]) values[column], offset, offset + rowCount);
+    }
+
+    /**
+     * Returns the dictionary codes of a text column, with -1 for each null
+     * @param column the index of the column
+     * @return a new array of the codes of the rows of this result
+     */
+    public int[] toStringCodeArray(final int column) {
+        if (types[column] != Type.STRING) {
+            throw notA("text", column);
+        }
+
+        return Arrays.copyOfRange((int[]) values[column], offset, offset + rowCount);
+    }
+
+    /**
+     * Returns the distinct values of a text column, indexed by their codes. The dictionary is shared by every slice of
+     * a result, so it may contain values which do not occur within a slice.
+     * @param column the index of the column
+     * @return a new array of the distinct values of the column
+     */
+    public String[] getDictionary(final int column) {
+        if (types[column] != Type.STRING) {
+            throw notA("text", column);
+        }
+
+        return dictionaries[column].clone();
+    }
+
+    /**
+     * Returns the index in the arrays of the first row of this result, which is not zero for a slice
+     * @return the offset of this result
+     */
+    int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns the array which holds the values of the specified column, which is shared by every slice and must not
+     * be modified
+     * @param column the index of the column
+     * @return the values of the column
+     */
+    Object getValues(final int column) {
+        return values[column];
+    }
+
+    /**
+     * Returns the null bitmap of the specified column, which is shared by every slice and must not be modified
+     * @param column the index of the column
+     * @return the null bitmap, or null if the column does not contain any nulls
+     */
+    long[] getNulls(final int column) {
+        return nulls[column];
+    }
+
+    boolean isNullAt(final int column, final int index) {
+        return nulls[column] != null && (nulls[column][index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Returns the index in the arrays of the specified row of this result
+     * @param row the index of the row within this result
+     * @return the index of the row within the arrays
+     */
+    private int checkRow(final int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " is not one of the " + rowCount + " rows");
+        }
+
+        return offset + row;
+    }
+
+    private IllegalArgumentException notA(final String kind, final int column) {
+        return new IllegalArgumentException("The column " + columnNames[column] + " is not " + kind + ", it is stored as " + types[column]);
+    }
+
+    private static Type getType(final ResultSetMetaData metaData, final int column) throws SQLException {
+        switch (metaData.getColumnType(column)) {
+            case Types.BIGINT:
+            case Types.INTEGER:
+            case Types.SMALLINT:
+            case Types.TINYINT:
+                return Type.LONG;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                // Decimals without a fractional part which fit within a long, such as Oracle ids, are integral
+                int precision = metaData.getPrecision(column);
+                return metaData.getScale(column) == 0 && precision > 0 && precision < 19 ? Type.LONG : Type.DOUBLE;
+            case Types.DOUBLE:
+            case Types.FLOAT:
+            case Types.REAL:
+                return Type.DOUBLE;
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return Type.BOOLEAN;
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return Type.STRING;
+            default:
+                return Type.OBJECT;
+        }
+    }
+
+    private static Object allocate(final Type type, final int capacity) {
+        switch (type) {
+            case LONG:
+                return new long[capacity];
+            case DOUBLE:
+                return new double[capacity];
+            case BOOLEAN:
+                return new boolean[capacity];
+            case STRING:
+                return new int[capacity];
+            default:
+                return new Object[capacity];
+        }
+    }
+
+    private static Object resize(final Object array, final int capacity) {
+        if (array instanceof long[]) {
+            return Arrays.copyOf((long[]) array, capacity);
+        } else if (array instanceof double[]) {
+            return Arrays.copyOf((double[]) array, capacity);
+        } else if (array instanceof boolean[]) {
+            return Arrays.copyOf((boolean[]) array, capacity);
+        } else if (array instanceof int[]) {
+            return Arrays.copyOf((int[]) array, capacity);
+        }
+
+        return Arrays.copyOf((Object[]) array, capacity);
+    }
+
+    private static int grow(final int capacity) {
+        if (capacity >= Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("The result has more rows than an array can hold");
+        }
+
+        return (int) Math.min((long) capacity << 1, Integer.MAX_VALUE - 8);
+    }
+
+    private static int getWordCount(final int capacity) {
+        return (capacity + 63) >>> 6;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarResult{" +
+            "columnNames=" + Arrays.toString(columnNames) +
+            ", rowCount=" + rowCount +
+            '}';
+    }
+}
@@ -0,0 +1,248 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+
+/**
+ * Describes the constructor which creates an entity from the values of its properties. This is used for entities
+ * which cannot be populated after they have been created, such as records and classes whose fields are final. The
+ * constructor is either the canonical constructor of a record, a constructor which is annotated with
+ * {@link JdbcSimpleConstructor}, or a constructor which is annotated with java.beans.ConstructorProperties. The
+ * latter is only used by classes without a default constructor, since those cannot be populated through their
+ * setters or fields, so that beans which merely carry the annotation keep being mapped as they always were.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 5:30 PM - Created with IntelliJ IDEA.
+ */
+public class EntityConstructor {
+    /**
+     * Class.isRecord(), which only exists on Java 16 and later, or null
+     */
+    private static final Method IS_RECORD = findMethod(Class.class, "isRecord");
+
+    /**
+     * Class.getRecordComponents(), which only exists on Java 16 and later, or null
+     */
+    private static final Method GET_RECORD_COMPONENTS = findMethod(Class.class, "getRecordComponents");
+
+    private final Constructor<?> constructor;
+    private final String[] propertyNames;
+    private final Class<?>[] parameterTypes;
+    private final MethodHandle handle;
+
+    public EntityConstructor(final Constructor<?> constructor, final String[] propertyNames) throws SQLException {
+        this.constructor = constructor;
+        this.propertyNames = propertyNames;
+        this.parameterTypes = constructor.getParameterTypes();
+
+        if (propertyNames.length != parameterTypes.length) {
+            throw new SQLException("Constructor " + constructor + " has " + parameterTypes.length
+                + " arguments but " + propertyNames.length + " property names");
+        }
+
+        MethodHandle constructorHandle;
+
+        try {
+            constructor.setAccessible(true);
+            constructorHandle = MethodHandles.lookup().unreflectConstructor(constructor);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new SQLException("Cannot access constructor: " + constructor, e);
+        }
+
+        // Accept the arguments as a single array so that each row only costs a single invocation
+        this.handle = constructorHandle
+            .asType(MethodType.genericMethodType(parameterTypes.length))
+            .asSpreader(Object[].class, parameterTypes.length);
+    }
+
+    /**
+     * Returns the constructor which should be used to create instances of the specified entity class or null if the
+     * entity should be created with its default constructor and then populated
+     * @param entityClass the class of the entity
+     * @return the constructor which should be used to create the entity or null
+     * @throws SQLException thrown when the constructor cannot be used
+     */
+    public static EntityConstructor find(final Class<?> entityClass) throws SQLException {
+        for (Constructor<?> constructor : entityClass.getDeclaredConstructors()) {
+            JdbcSimpleConstructor annotation = constructor.getAnnotation(JdbcSimpleConstructor.class);
+
+            if (annotation != null) {
+                return new EntityConstructor(constructor, annotation.value());
+            }
+        }
+
+        if (isRecord(entityClass)) {
+            return findCanonicalConstructor(entityClass);
+        }
+
+        // Entities with a default constructor are populated through their setters or fields instead
+        if (hasDefaultConstructor(entityClass)) {
+            return null;
+        }
+
+        for (Constructor<?> constructor : entityClass.getDeclaredConstructors()) {
+            String[] constructorProperties = getConstructorProperties(constructor);
+
+            if (constructorProperties != null) {
+                return new EntityConstructor(constructor, constructorProperties);
+            }
+        }
+
+        return null;
+    }
+
+    public Constructor<?> getConstructor() {
+        return constructor;
+    }
+
+    public String[] getPropertyNames() {
+        return propertyNames.clone();
+    }
+
+    public Class<?>[] getParameterTypes() {
+        return parameterTypes.clone();
+    }
+
+    /**
+     * Creates a new instance of the entity
+     * @param arguments the arguments which should be passed to the constructor
+     * @return the new instance of the entity
+     * @throws SQLException thrown when the constructor fails
+     */
+    public Object newInstance(final Object[] arguments) throws SQLException {
+        try {
+            return handle.invokeExact(arguments);
+        } catch (Throwable e) {
+            throw new SQLException("Cannot invoke constructor: " + constructor, e);
+        }
+    }
+
+    /**
+     * Returns true if the specified class is a record and false otherwise, including on versions of Java which do not
+     * support records
+     * @param entityClass the class which may or may not be a record
+     * @return true if the specified class is a record and false otherwise
+     */
+    private static boolean isRecord(final Class<?> entityClass) {
+        if (IS_RECORD == null) {
+            return false;
+        }
+
+        try {
+            return (Boolean) IS_RECORD.invoke(entityClass);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns true if the specified class declares a constructor without arguments and false otherwise
+     * @param entityClass the class of the entity
+     * @return true if the class declares a constructor without arguments and false otherwise
+     */
+    private static boolean hasDefaultConstructor(final Class<?> entityClass) {
+        for (Constructor<?> constructor : entityClass.getDeclaredConstructors()) {
+            if (constructor.getParameterTypes().length == 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the canonical constructor of the specified record, whose arguments are the components of the record
+     * @param recordClass the class of the record
+     * @return the canonical constructor of the record
+     * @throws SQLException thrown when the components of the record cannot be read
+     */
+    private static EntityConstructor findCanonicalConstructor(final Class<?> recordClass) throws SQLException {
+        try {
+            Object[] components = (Object[]) GET_RECORD_COMPONENTS.invoke(recordClass);
+            String[] names = new String[components.length];
+            Class<?>[] types = new Class<?>[components.length];
+
+            for (int index = 0; index < components.length; index++) {
+                Class<?> componentClass = components[index].getClass();
+                names[index] = (String) componentClass.getMethod("getName").invoke(components[index]);
+                types[index] = (Class<?>) componentClass.getMethod("getType").invoke(components[index]);
+            }
+
+            return new EntityConstructor(recordClass.getDeclaredConstructor(types), names);
+        } catch (ReflectiveOperationException e) {
+            throw new SQLException("Cannot find the canonical constructor of record: " + recordClass.getName(), e);
+        }
+    }
+
+    /**
+     * Returns the value of the java.beans.ConstructorProperties annotation of the specified constructor or null if
+     * it is not annotated, or if the annotation does not exist on the classpath
+     * @param constructor the constructor which may or may not be annotated
+     * @return the property names of the constructor arguments or null
+     */
+    private static String[] getConstructorProperties(final Constructor<?> constructor) {
+        for (Annotation annotation : constructor.getDeclaredAnnotations()) {
+            if (annotation.annotationType().getName().equals("java.beans.ConstructorProperties")) {
+                try {
+                    return (String[]) annotation.annotationType().getMethod("value").invoke(annotation);
+                } catch (ReflectiveOperationException e) {
+                    return null;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the specified public method or null if it does not exist
+     * @param type the class which declares the method
+     * @param name the name of the method
+     * @return the method or null if it does not exist
+     */
+    private static Method findMethod(final Class<?> type, final String name) {
+        try {
+            return type.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "EntityConstructor{" +
+            "constructor=" + constructor +
+            '}';
+    }
+}
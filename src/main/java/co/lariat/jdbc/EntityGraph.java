@@ -0,0 +1,182 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes how the rows of a joined query are split into a graph of entities. Each entity class in the graph is
+ * populated from the columns whose names start with its prefix, with the prefix removed. For example, the columns
+ * a_id and a_name populate the properties id and name of the entity whose prefix is a_. Columns which match several
+ * prefixes belong to the longest of them, so the root entity may use an empty prefix.
+ * <p>
+ * Entities are identified by their primary key, which is the column mapped to a property annotated with
+ * javax.persistence.Id or, failing that, the column named id. Each entity is created once per query, no matter how
+ * many rows it appears in, and is linked to its parent once. Entities whose primary key is null, such as those on
+ * the optional side of an outer join, are skipped.
+ * <pre>
+ * List&lt;Author&gt; authors = connection.fetchGraph(
+ *     EntityGraph.of(Author.class, "a_").join(Book.class, "b_", new EntityGraph.Linker&lt;Author, Book&gt;() {
+ *         public void link(Author author, Book book) {
+ *             author.getBooks().add(book);
+ *         }
+ *     }),
+ *     "select a.id as a_id, a.name as a_name, b.id as b_id, b.title as b_title from authors a left join books b on b.author_id = a.id"
+ * );
+ * </pre>
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 7:55 PM - Created with IntelliJ IDEA.
+ */
+public class EntityGraph<T> {
+    private final Class<T> rootClass;
+    private final List<Node> nodes = new ArrayList<>();
+
+    private EntityGraph(final Class<T> rootClass, final String prefix) {
+        this.rootClass = rootClass;
+        this.nodes.add(new Node(rootClass, prefix, -1, null));
+    }
+
+    /**
+     * Creates a graph whose root entities are populated from the columns which start with the specified prefix
+     * @param rootClass the class of the root entities, which are returned by the query
+     * @param prefix the prefix of the columns which populate the root entities
+     * @param <T> the type of the root entities
+     * @return the graph
+     */
+    public static <T> EntityGraph<T> of(final Class<T> rootClass, final String prefix) {
+        return new EntityGraph<>(rootClass, prefix);
+    }
+
+    /**
+     * Adds child entities, which are linked to the root entities
+     * @param childClass the class of the child entities
+     * @param prefix the prefix of the columns which populate the child entities
+     * @param linker links each child entity to its root entity
+     * @param <C> the type of the child entities
+     * @return this graph
+     */
+    public <C> EntityGraph<T> join(final Class<C> childClass, final String prefix, final Linker<? super T, ? super C> linker) {
+        return join(nodes.get(0).getPrefix(), childClass, prefix, linker);
+    }
+
+    /**
+     * Adds child entities, which are linked to the entities with the specified prefix
+     * @param parentPrefix the prefix of the parent entities, which must already be part of the graph
+     * @param childClass the class of the child entities
+     * @param prefix the prefix of the columns which populate the child entities
+     * @param linker links each child entity to its parent entity
+     * @param <P> the type of the parent entities
+     * @param <C> the type of the child entities
+     * @return this graph
+     */
+    public <P, C> EntityGraph<T> join(final String parentPrefix, final Class<C> childClass, final String prefix, final Linker<? super P, ? super C> linker) {
+        int parentIndex = -1;
+
+        for (int index = 0; index < nodes.size(); index++) {
+            if (nodes.get(index).getPrefix().equalsIgnoreCase(prefix)) {
+                throw new IllegalArgumentException("The prefix " + prefix + " is already part of the graph");
+            } else if (nodes.get(index).getPrefix().equalsIgnoreCase(parentPrefix)) {
+                parentIndex = index;
+            }
+        }
+
+        if (parentIndex == -1) {
+            throw new IllegalArgumentException("The parent prefix " + parentPrefix + " is not part of the graph");
+        }
+
+        nodes.add(new Node(childClass, prefix, parentIndex, linker));
+        return this;
+    }
+
+    public Class<T> getRootClass() {
+        return rootClass;
+    }
+
+    /**
+     * Returns the entities of the graph, with the root first and every parent before its children
+     * @return the entities of the graph
+     */
+    List<Node> getNodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    /**
+     * Links a child entity to its parent entity, normally by adding it to a collection of the parent or by setting
+     * a property of the parent. This is called once for each distinct pair of entities.
+     * @param <P> the type of the parent entities
+     * @param <C> the type of the child entities
+     */
+    public interface Linker<P, C> {
+        /**
+         * Links the child entity to its parent entity
+         * @param parent the parent entity
+         * @param child the child entity
+         */
+        public void link(P parent, C child);
+    }
+
+    /**
+     * A single entity class within the graph
+     */
+    static class Node {
+        private final Class<?> entityClass;
+        private final String prefix;
+        private final int parentIndex;
+        private final Linker<Object, Object> linker;
+
+        @SuppressWarnings("unchecked")
+        Node(final Class<?> entityClass, final String prefix, final int parentIndex, final Linker<?, ?> linker) {
+            this.entityClass = entityClass;
+            this.prefix = prefix;
+            this.parentIndex = parentIndex;
+            this.linker = (Linker<Object, Object>) linker;
+        }
+
+        Class<?> getEntityClass() {
+            return entityClass;
+        }
+
+        String getPrefix() {
+            return prefix;
+        }
+
+        /**
+         * Returns the index of the parent of this entity or -1 if this is the root
+         * @return the index of the parent of this entity or -1
+         */
+        int getParentIndex() {
+            return parentIndex;
+        }
+
+        Linker<Object, Object> getLinker() {
+            return linker;
+        }
+    }
+}
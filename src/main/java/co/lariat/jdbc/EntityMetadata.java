@@ -0,0 +1,550 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Describes how an entity class maps to a table. The metadata is read from the fields, getters and setters of the
+ * class, from javax.persistence annotations when JPA is on the classpath, and from {@link JdbcSimpleEntity}. It is
+ * built once per class, the first time that it is requested, and cached for the lifetime of the class.
+ * <p>
+ * Each property is mapped to the column which is named by its javax.persistence.Column annotation or, failing that,
+ * to the underscore delimited equivalent of its name. For example, the property lastActive maps to the column
+ * last_active. The table name is taken from javax.persistence.Table, then from the name of javax.persistence.Entity,
+ * and otherwise it is the underscore delimited equivalent of the simple name of the class.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 7:10 PM - Created with IntelliJ IDEA.
+ */
+public class EntityMetadata {
+    /**
+     * JPA is an optional dependency, so its annotations are only read when it is on the classpath
+     */
+    private static final boolean JPA_AVAILABLE = isClassPresent("javax.persistence.Entity");
+
+    private static final ClassValue<EntityMetadata> METADATA = new ClassValue<EntityMetadata>() {
+        @Override
+        protected EntityMetadata computeValue(final Class<?> type) {
+            return new EntityMetadata(type);
+        }
+    };
+
+    private final Class<?> entityClass;
+    private final boolean jpaEntity;
+    private final String tableName;
+    private final AccessMode accessMode;
+    private final List<Property> properties;
+    private final List<Property> idProperties;
+    private final Map<String, Property> propertiesByName;
+    private final Map<String, Property> propertiesByColumn;
+    private final String insertSql;
+    private final String updateSql;
+
+    private EntityMetadata(final Class<?> entityClass) {
+        this.entityClass = entityClass;
+        this.jpaEntity = JPA_AVAILABLE && JpaAnnotations.isEntity(entityClass);
+
+        JdbcSimpleEntity jdbcSimpleEntity = entityClass.getAnnotation(JdbcSimpleEntity.class);
+        this.accessMode = jdbcSimpleEntity != null ? jdbcSimpleEntity.access() : null;
+
+        String name = jpaEntity ? JpaAnnotations.getTableName(entityClass) : null;
+        this.tableName = name != null ? name : toUnderscore(entityClass.getSimpleName());
+
+        List<Property> properties = new ArrayList<>();
+        List<Property> idProperties = new ArrayList<>();
+        Map<String, Property> propertiesByName = new HashMap<>();
+        Map<String, Property> propertiesByColumn = new HashMap<>();
+
+        for (Property property : discoverProperties(entityClass, jpaEntity)) {
+            properties.add(property);
+
+            if (property.isTransient()) {
+                continue;
+            }
+
+            propertiesByName.put(property.getName(), property);
+
+            if (!propertiesByColumn.containsKey(property.getColumnName().toLowerCase())) {
+                propertiesByColumn.put(property.getColumnName().toLowerCase(), property);
+            }
+
+            if (property.isId()) {
+                idProperties.add(property);
+            }
+        }
+
+        this.properties = Collections.unmodifiableList(properties);
+        this.idProperties = Collections.unmodifiableList(idProperties);
+        this.propertiesByName = propertiesByName;
+        this.propertiesByColumn = propertiesByColumn;
+        this.insertSql = getInsertSql(tableName, true);
+        this.updateSql = buildUpdateSql();
+    }
+
+    /**
+     * Returns the metadata of the specified entity class
+     * @param entityClass the class of the entity
+     * @return the metadata of the entity class
+     */
+    public static EntityMetadata of(final Class<?> entityClass) {
+        return METADATA.get(entityClass);
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * Returns true if the entity is annotated with javax.persistence.Entity and false otherwise
+     * @return true if the entity is annotated with javax.persistence.Entity and false otherwise
+     */
+    public boolean isJpaEntity() {
+        return jpaEntity;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Returns the access mode which is declared by the entity with {@link JdbcSimpleEntity#access()}, or null if the
+     * entity does not declare one
+     * @return the access mode which is declared by the entity or null
+     */
+    public AccessMode getAccessMode() {
+        return accessMode;
+    }
+
+    /**
+     * Returns every property of the entity, including transient properties, with the properties of superclasses
+     * first
+     * @return every property of the entity
+     */
+    public List<Property> getProperties() {
+        return properties;
+    }
+
+    /**
+     * Returns the properties which are annotated with javax.persistence.Id
+     * @return the properties which are annotated with javax.persistence.Id
+     */
+    public List<Property> getIdProperties() {
+        return idProperties;
+    }
+
+    /**
+     * Returns the persistent property with the specified name or null if there isn't one
+     * @param propertyName the name of the property
+     * @return the property or null
+     */
+    public Property getProperty(final String propertyName) {
+        return propertiesByName.get(propertyName);
+    }
+
+    /**
+     * Returns the persistent property which maps to the specified column, ignoring case, or null if there isn't one
+     * @param columnName the name of the column
+     * @return the property or null
+     */
+    public Property getPropertyByColumn(final String columnName) {
+        return propertiesByColumn.get(columnName.toLowerCase());
+    }
+
+    /**
+     * Returns an insert statement which writes every readable, persistent property of the entity to its column. The
+     * statement uses a named parameter, such as :lastActive, for the value of each property.
+     * @return the insert statement for the entity
+     */
+    public String getInsertSql() {
+        return insertSql;
+    }
+
+    /**
+     * Returns an update statement which writes every readable, persistent property of the entity, other than its id
+     * properties, to the row which is identified by its id properties. The statement uses a named parameter, such as
+     * :lastActive, for the value of each property. Entities without id properties cannot be updated, so null is
+     * returned for them.
+     * @return the update statement for the entity or null
+     */
+    public String getUpdateSql() {
+        return updateSql;
+    }
+
+    /**
+     * Returns true if the javax.persistence annotations are on the classpath and false otherwise
+     * @return true if the javax.persistence annotations are on the classpath and false otherwise
+     */
+    public static boolean isJpaAvailable() {
+        return JPA_AVAILABLE;
+    }
+
+    /**
+     * Returns an insert statement, like {@link #getInsertSql()}, for the specified table, which may omit the id
+     * properties so that their values can be generated by the database
+     * @param tableName the table into which the entity should be inserted
+     * @param includeIdProperties true if the id properties should be inserted and false otherwise
+     * @return the insert statement for the entity
+     */
+    public String getInsertSql(final String tableName, final boolean includeIdProperties) {
+        StringBuilder columns = new StringBuilder();
+        StringBuilder values = new StringBuilder();
+
+        for (Property property : properties) {
+            if (!property.isTransient() && property.isReadable() && (includeIdProperties || !property.isId())) {
+                columns.append(columns.length() > 0 ? ", " : "").append(property.getColumnName());
+                values.append(values.length() > 0 ? ", :" : ":").append(property.getName());
+            }
+        }
+
+        return "insert into " + tableName + "(" + columns + ") values(" + values + ")";
+    }
+
+    private String buildUpdateSql() {
+        if (idProperties.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder assignments = new StringBuilder();
+        StringBuilder conditions = new StringBuilder();
+
+        for (Property property : properties) {
+            if (!property.isTransient() && property.isReadable() && !property.isId()) {
+                assignments.append(assignments.length() > 0 ? ", " : "")
+                    .append(property.getColumnName()).append(" = :").append(property.getName());
+            }
+        }
+
+        for (Property property : idProperties) {
+            conditions.append(conditions.length() > 0 ? " and " : "")
+                .append(property.getColumnName()).append(" = :").append(property.getName());
+        }
+
+        return "update " + tableName + " set " + assignments + " where " + conditions;
+    }
+
+    private static List<Property> discoverProperties(final Class<?> entityClass, final boolean jpaEntity) {
+        Map<String, Field> fields = new LinkedHashMap<>();
+        Map<String, Method> getters = new LinkedHashMap<>();
+        Map<String, List<Method>> setters = new HashMap<>();
+        List<Class<?>> hierarchy = new ArrayList<>();
+
+        for (Class<?> type = entityClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            hierarchy.add(0, type);
+        }
+
+        // Fields of subclasses hide the fields of their superclasses, but keep the position of the hidden field
+        for (Class<?> type : hierarchy) {
+            for (Field field : type.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    fields.put(field.getName(), field);
+                }
+            }
+        }
+
+        for (Method method : entityClass.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || method.isBridge() || method.getDeclaringClass() == Object.class) {
+                continue;
+            }
+
+            String name = method.getName();
+            Class<?>[] parameterTypes = method.getParameterTypes();
+
+            if (parameterTypes.length == 0 && name.length() > 3 && name.startsWith("get") && method.getReturnType() != void.class) {
+                getters.put(decapitalize(name.substring(3)), method);
+            } else if (parameterTypes.length == 0 && name.length() > 2 && name.startsWith("is")
+                && (method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class)) {
+                String propertyName = decapitalize(name.substring(2));
+
+                if (!getters.containsKey(propertyName)) {
+                    getters.put(propertyName, method);
+                }
+            } else if (parameterTypes.length == 1 && name.length() > 3 && name.startsWith("set")) {
+                String propertyName = decapitalize(name.substring(3));
+
+                if (!setters.containsKey(propertyName)) {
+                    setters.put(propertyName, new ArrayList<Method>());
+                }
+
+                setters.get(propertyName).add(method);
+            }
+        }
+
+        List<String> names = new ArrayList<>(fields.keySet());
+
+        for (String name : getters.keySet()) {
+            if (!fields.containsKey(name)) {
+                names.add(name);
+            }
+        }
+
+        List<Property> properties = new ArrayList<>();
+
+        for (String name : names) {
+            Field field = fields.get(name);
+            Method getter = getters.get(name);
+            Class<?> type = field != null ? field.getType() : getter.getReturnType();
+            Method setter = selectSetter(setters.get(name), type);
+            boolean isTransient = field != null && Modifier.isTransient(field.getModifiers());
+            boolean isId = false;
+            String columnName = null;
+
+            if (jpaEntity) {
+                AnnotatedElement[] elements = field != null && getter != null
+                    ? new AnnotatedElement[] {field, getter}
+                    : new AnnotatedElement[] {field != null ? field : getter};
+
+                for (AnnotatedElement element : elements) {
+                    isTransient = isTransient || JpaAnnotations.isTransient(element);
+                    isId = isId || JpaAnnotations.isId(element);
+
+                    if (columnName == null) {
+                        columnName = JpaAnnotations.getColumnName(element);
+                    }
+                }
+            }
+
+            properties.add(new Property(
+                name,
+                type,
+                columnName != null ? columnName : toUnderscore(name),
+                isId,
+                isTransient,
+                field,
+                getter,
+                setter
+            ));
+        }
+
+        return properties;
+    }
+
+    private static Method selectSetter(final List<Method> candidates, final Class<?> type) {
+        if (candidates == null) {
+            return null;
+        }
+
+        for (Method candidate : candidates) {
+            if (candidate.getParameterTypes()[0].equals(type)) {
+                return candidate;
+            }
+        }
+
+        return candidates.get(0);
+    }
+
+    private static String decapitalize(final String name) {
+        // Follow the java beans convention, where getURL() is the getter of the property URL
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(0)) && Character.isUpperCase(name.charAt(1))) {
+            return name;
+        }
+
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * Converts camel case names to underscore delimited names. For example, lastActive becomes last_active.
+     * @param name the camel case name
+     * @return the underscore delimited equivalent of the name
+     */
+    static String toUnderscore(final String name) {
+        StringBuilder result = new StringBuilder(name.length() + 4);
+
+        for (int index = 0; index < name.length(); index++) {
+            char c = name.charAt(index);
+
+            if (Character.isUpperCase(c)) {
+                if (index > 0) {
+                    result.append('_');
+                }
+
+                result.append(Character.toLowerCase(c));
+            } else {
+                result.append(c);
+            }
+        }
+
+        return result.toString();
+    }
+
+    private static boolean isClassPresent(final String className) {
+        try {
+            Class.forName(className);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "EntityMetadata{" +
+            "entityClass=" + entityClass.getName() +
+            ", tableName='" + tableName + '\'' +
+            ", properties=" + properties +
+            '}';
+    }
+
+    /**
+     * Describes a single property of an entity
+     */
+    public static class Property {
+        private final String name;
+        private final Class<?> type;
+        private final String columnName;
+        private final boolean id;
+        private final boolean isTransient;
+        private final Field field;
+        private final Method getter;
+        private final Method setter;
+
+        Property(final String name, final Class<?> type, final String columnName, final boolean id, final boolean isTransient, final Field field, final Method getter, final Method setter) {
+            this.name = name;
+            this.type = type;
+            this.columnName = columnName;
+            this.id = id;
+            this.isTransient = isTransient;
+            this.field = field;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        public String getColumnName() {
+            return columnName;
+        }
+
+        /**
+         * Returns true if the property is annotated with javax.persistence.Id and false otherwise
+         * @return true if the property is annotated with javax.persistence.Id and false otherwise
+         */
+        public boolean isId() {
+            return id;
+        }
+
+        /**
+         * Returns true if the property is not persistent, because it is transient or is annotated with
+         * javax.persistence.Transient, and false otherwise
+         * @return true if the property is not persistent and false otherwise
+         */
+        public boolean isTransient() {
+            return isTransient;
+        }
+
+        /**
+         * Returns the field which backs the property or null if it does not have one
+         * @return the field which backs the property or null
+         */
+        public Field getField() {
+            return field;
+        }
+
+        /**
+         * Returns the public getter of the property or null if it does not have one
+         * @return the public getter of the property or null
+         */
+        public Method getGetter() {
+            return getter;
+        }
+
+        /**
+         * Returns true if the value of the property can be read through its getter or its field
+         * @return true if the value of the property can be read and false otherwise
+         */
+        public boolean isReadable() {
+            return getter != null || field != null;
+        }
+
+        /**
+         * Returns the public setter of the property or null if it does not have one
+         * @return the public setter of the property or null
+         */
+        public Method getSetter() {
+            return setter;
+        }
+
+        @Override
+        public String toString() {
+            return name + "(" + columnName + ")";
+        }
+    }
+
+    /**
+     * Reads the javax.persistence annotations. This is kept apart so that the annotations are only loaded when JPA
+     * is on the classpath.
+     */
+    private static class JpaAnnotations {
+        static boolean isEntity(final Class<?> entityClass) {
+            return entityClass.isAnnotationPresent(Entity.class);
+        }
+
+        static String getTableName(final Class<?> entityClass) {
+            Table table = entityClass.getAnnotation(Table.class);
+
+            if (table != null && table.name().length() > 0) {
+                return table.name();
+            }
+
+            Entity entity = entityClass.getAnnotation(Entity.class);
+            return entity.name().length() > 0 ? entity.name() : null;
+        }
+
+        static String getColumnName(final AnnotatedElement element) {
+            Column column = element.getAnnotation(Column.class);
+            return column != null && column.name().length() > 0 ? column.name() : null;
+        }
+
+        static boolean isId(final AnnotatedElement element) {
+            return element.isAnnotationPresent(Id.class);
+        }
+
+        static boolean isTransient(final AnnotatedElement element) {
+            return element.isAnnotationPresent(Transient.class);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+
+/**
+ * Supplies the values of named parameters from the getters of an entity. Parameters are matched against the names of
+ * the properties of the entity and then against the names of the columns which they map to, so both :lastActive and
+ * :last_active refer to the property lastActive, for example.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 10:20 PM - Created with IntelliJ IDEA.
+ */
+public class EntityParameterSource implements ParameterSource {
+    private final Object entity;
+    private final EntityMetadata metadata;
+
+    public EntityParameterSource(final Object entity) {
+        this.entity = entity;
+        this.metadata = EntityMetadata.of(entity.getClass());
+    }
+
+    @Override
+    public boolean hasValue(final String name) {
+        return findGetter(name) != null;
+    }
+
+    @Override
+    public Object getValue(final String name) throws SQLException {
+        Method getter = findGetter(name);
+
+        if (getter == null) {
+            throw new SQLException("Cannot find a getter for parameter " + name + " in " + entity.getClass().getCanonicalName());
+        }
+
+        try {
+            return getter.invoke(entity);
+        } catch (IllegalAccessException e) {
+            throw new SQLException("Cannot invoke getter: " + getter, e);
+        } catch (InvocationTargetException e) {
+            throw new SQLException("Cannot invoke getter: " + getter, e);
+        }
+    }
+
+    private Method findGetter(final String name) {
+        EntityMetadata.Property property = metadata.getProperty(name);
+
+        if (property == null) {
+            property = metadata.getPropertyByColumn(name);
+        }
+
+        return property != null ? property.getGetter() : null;
+    }
+
+    @Override
+    public String toString() {
+        return "EntityParameterSource{" +
+            "entity=" + entity +
+            '}';
+    }
+}
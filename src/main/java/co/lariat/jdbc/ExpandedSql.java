@@ -0,0 +1,309 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL whose collection arguments have been expanded into lists of positional parameters, so that a query such as
+ * <i>select * from users where id in (?)</i> can be passed a collection of ids. Each list is padded to a power of two
+ * by repeating its last value, which does not change the meaning of an IN list, so a query produces only a handful of
+ * distinct SQL texts no matter how many values it is passed. This allows the plans which are cached by the database,
+ * and any statements which are cached by the driver, to be reused.
+ * <p>
+ * Collections which are larger than the chunk size are split into chunks, each of which is expanded into a separate
+ * statement. Only one argument of a statement may be split. An empty collection is expanded into a single null, which
+ * an IN list never matches. Since a NOT IN list which contains a null never matches either, and since each chunk of a
+ * NOT IN list would match the rows which the other chunks exclude, collections in a NOT IN list are neither split nor
+ * allowed to be empty.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 11:40 PM - Created with IntelliJ IDEA.
+ */
+public class ExpandedSql {
+    /**
+     * The default maximum number of values in a single IN list. Some databases, such as Oracle, reject lists which are
+     * longer than this.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    /**
+     * The maximum number of statements whose placeholder positions are cached
+     */
+    public static final int CACHE_SIZE = 512;
+
+    private static final Map<String, int[]> PLACEHOLDERS = Collections.synchronizedMap(
+        new LinkedHashMap<String, int[]>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, int[]> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        }
+    );
+
+    private final String sql;
+    private final Object[] arguments;
+
+    public ExpandedSql(final String sql, final Object[] arguments) {
+        this.sql = sql;
+        this.arguments = arguments;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public Object[] getArguments() {
+        return arguments;
+    }
+
+    /**
+     * Returns true if any of the specified arguments is a collection which needs to be expanded
+     * @param arguments the arguments of a statement
+     * @return true if any of the arguments is a collection and false otherwise
+     */
+    public static boolean isExpandable(final Object[] arguments) {
+        if (arguments == null) {
+            return false;
+        }
+
+        for (Object argument : arguments) {
+            if (argument instanceof Collection) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Expands the collection arguments of the specified sql into lists of positional parameters
+     * @param sql the sql which should be expanded
+     * @param arguments the arguments of the sql, some of which are collections
+     * @param chunkSize the maximum number of values in a single list
+     * @return one expanded statement for each chunk of the largest collection
+     * @throws SQLException thrown when the number of arguments does not match the sql, when more than one collection
+     * would need to be split, or when a collection in a NOT IN list is empty or would need to be split
+     */
+    public static List<ExpandedSql> expand(final String sql, final Object[] arguments, final int chunkSize) throws SQLException {
+        if (chunkSize < 1) {
+            throw new SQLException("The chunk size must be positive: " + chunkSize);
+        }
+
+        int[] placeholders = getPlaceholders(sql);
+
+        if (placeholders.length != arguments.length) {
+            throw new SQLException("The sql has " + placeholders.length + " parameters but " + arguments.length + " arguments were provided: " + sql);
+        }
+
+        List<List<?>> values = new ArrayList<>(arguments.length);
+        int split = -1;
+
+        for (int index = 0; index < arguments.length; index++) {
+            List<?> list = arguments[index] instanceof Collection ? new ArrayList<>((Collection<?>) arguments[index]) : null;
+            values.add(list);
+
+            if (list != null && (list.isEmpty() || list.size() > chunkSize) && isNotIn(sql, placeholders[index])) {
+                throw new SQLException("A collection in a NOT IN list must have between 1 and " + chunkSize + " values: " + sql);
+            }
+
+            if (list != null && list.size() > chunkSize) {
+                if (split != -1) {
+                    throw new SQLException("Only one collection argument may have more than " + chunkSize + " values: " + sql);
+                }
+
+                split = index;
+            }
+        }
+
+        int chunkCount = split == -1 ? 1 : (values.get(split).size() + chunkSize - 1) / chunkSize;
+        List<ExpandedSql> chunks = new ArrayList<>(chunkCount);
+
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            StringBuilder builder = new StringBuilder(sql.length() + 16);
+            List<Object> expandedArguments = new ArrayList<>(arguments.length);
+            int position = 0;
+
+            for (int index = 0; index < arguments.length; index++) {
+                builder.append(sql, position, placeholders[index]);
+                position = placeholders[index] + 1;
+
+                List<?> list = values.get(index);
+
+                if (list == null) {
+                    builder.append('?');
+                    expandedArguments.add(arguments[index]);
+                    continue;
+                }
+
+                if (index == split) {
+                    list = list.subList(chunk * chunkSize, Math.min(list.size(), (chunk + 1) * chunkSize));
+                }
+
+                int bucket = getBucketSize(list.size(), chunkSize);
+                Object padding = list.isEmpty() ? null : list.get(list.size() - 1);
+
+                for (int value = 0; value < bucket; value++) {
+                    builder.append(value == 0 ? "?" : ", ?");
+                    expandedArguments.add(value < list.size() ? list.get(value) : padding);
+                }
+            }
+
+            builder.append(sql, position, sql.length());
+            chunks.add(new ExpandedSql(builder.toString(), expandedArguments.toArray()));
+        }
+
+        return chunks;
+    }
+
+    /**
+     * Returns the number of parameters which a list of the specified size is padded to. This is the next power of two,
+     * unless that exceeds the chunk size.
+     * @param size the number of values in the list
+     * @param chunkSize the maximum number of values in a single list
+     * @return the number of parameters which the list is padded to
+     */
+    static int getBucketSize(final int size, final int chunkSize) {
+        if (size <= 1) {
+            return 1;
+        }
+
+        return Math.min(Integer.highestOneBit(size - 1) << 1, chunkSize);
+    }
+
+    /**
+     * Returns true if the parameter at the specified position is the content of a NOT IN list
+     * @param sql the sql which contains the parameter
+     * @param placeholder the position of the parameter
+     * @return true if the parameter is preceded by NOT IN ( and false otherwise
+     */
+    static boolean isNotIn(final String sql, final int placeholder) {
+        int index = skipWhitespaceBackwards(sql, placeholder - 1);
+
+        if (index < 0 || sql.charAt(index) != '(') {
+            return false;
+        }
+
+        index = skipWhitespaceBackwards(sql, index - 1);
+
+        if (!endsWithKeyword(sql, index, "in")) {
+            return false;
+        }
+
+        index = skipWhitespaceBackwards(sql, index - 2);
+        return endsWithKeyword(sql, index, "not");
+    }
+
+    /**
+     * Returns the position of the last character at or before the specified position which is not whitespace
+     * @param sql the sql which should be scanned
+     * @param from the position from which the sql should be scanned backwards
+     * @return the position of the character or -1 if there is only whitespace
+     */
+    private static int skipWhitespaceBackwards(final String sql, final int from) {
+        int index = from;
+
+        while (index >= 0 && Character.isWhitespace(sql.charAt(index))) {
+            index--;
+        }
+
+        return index;
+    }
+
+    /**
+     * Returns true if the specified keyword ends at the specified position and is not part of a longer identifier
+     * @param sql the sql which should be checked
+     * @param end the position of the last character of the keyword
+     * @param keyword the lower case keyword
+     * @return true if the keyword ends at the specified position and false otherwise
+     */
+    private static boolean endsWithKeyword(final String sql, final int end, final String keyword) {
+        int start = end - keyword.length() + 1;
+
+        if (start < 0 || !sql.regionMatches(true, start, keyword, 0, keyword.length())) {
+            return false;
+        }
+
+        return start == 0 || !Character.isJavaIdentifierPart(sql.charAt(start - 1));
+    }
+
+    /**
+     * Returns the position of each positional parameter in the specified sql, ignoring question marks within quotes
+     * and comments
+     * @param sql the sql which should be scanned
+     * @return the position of each positional parameter
+     */
+    private static int[] getPlaceholders(final String sql) {
+        int[] placeholders = PLACEHOLDERS.get(sql);
+
+        if (placeholders == null) {
+            int[] positions = new int[8];
+            int count = 0;
+            int index = 0;
+
+            while (index < sql.length()) {
+                int end = NamedParameterSql.skipLiteral(sql, index);
+
+                if (end > index) {
+                    index = end;
+                    continue;
+                }
+
+                if (sql.charAt(index) == '?') {
+                    if (count == positions.length) {
+                        int[] grown = new int[count * 2];
+                        System.arraycopy(positions, 0, grown, 0, count);
+                        positions = grown;
+                    }
+
+                    positions[count++] = index;
+                }
+
+                index++;
+            }
+
+            placeholders = new int[count];
+            System.arraycopy(positions, 0, placeholders, 0, count);
+            PLACEHOLDERS.put(sql, placeholders);
+        }
+
+        return placeholders;
+    }
+
+    @Override
+    public String toString() {
+        return "ExpandedSql{" +
+            "sql='" + sql + '\'' +
+            '}';
+    }
+}
@@ -0,0 +1,190 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+
+/**
+ * Writes values directly to a field of an entity through a cached {@link java.lang.invoke.MethodHandle}, which is
+ * the cheapest way to populate entities which are plain data holders. Fields which hold a primitive are written
+ * through a handle which accepts the primitive so that values do not need to be boxed.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 4:20 PM - Created with IntelliJ IDEA.
+ */
+public class FieldWriter implements PropertyWriter {
+    private final Field field;
+    private final Class<?> argumentType;
+
+    /**
+     * Writes the field with the entity and the value as objects
+     */
+    private final MethodHandle handle;
+
+    /**
+     * Writes the field with the entity as an object and the value as the primitive type of the field, if the field
+     * holds a primitive, and null otherwise
+     */
+    private final MethodHandle primitiveHandle;
+
+    public FieldWriter(final Field field) {
+        if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+            throw new UnsupportedOperationException("Cannot write to static or final field: " + field);
+        }
+
+        this.field = field;
+        this.argumentType = field.getType();
+
+        MethodHandle directHandle;
+
+        try {
+            field.setAccessible(true);
+            directHandle = MethodHandles.lookup().unreflectSetter(field);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new UnsupportedOperationException("Cannot access field: " + field, e);
+        }
+
+        this.handle = directHandle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        this.primitiveHandle = argumentType.isPrimitive()
+            ? directHandle.asType(MethodType.methodType(void.class, Object.class, argumentType))
+            : null;
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    @Override
+    public Class<?> getArgumentType() {
+        return argumentType;
+    }
+
+    @Override
+    public void invoke(Object instance, Object value) throws InvocationTargetException, IllegalAccessException {
+        // The handle would otherwise fail to unbox null without saying which field it was written to
+        if (value == null && argumentType.isPrimitive()) {
+            throw new IllegalArgumentException("Cannot write null to " + field + ", which holds a primitive " + argumentType.getName());
+        }
+
+        try {
+            handle.invokeExact(instance, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    @Override
+    public void invokeLong(Object instance, long value) throws InvocationTargetException {
+        try {
+            primitiveHandle.invokeExact(instance, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    @Override
+    public void invokeInt(Object instance, int value) throws InvocationTargetException {
+        try {
+            primitiveHandle.invokeExact(instance, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    @Override
+    public void invokeShort(Object instance, short value) throws InvocationTargetException {
+        try {
+            primitiveHandle.invokeExact(instance, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    @Override
+    public void invokeByte(Object instance, byte value) throws InvocationTargetException {
+        try {
+            primitiveHandle.invokeExact(instance, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    @Override
+    public void invokeDouble(Object instance, double value) throws InvocationTargetException {
+        try {
+            primitiveHandle.invokeExact(instance, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    @Override
+    public void invokeFloat(Object instance, float value) throws InvocationTargetException {
+        try {
+            primitiveHandle.invokeExact(instance, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    @Override
+    public void invokeBoolean(Object instance, boolean value) throws InvocationTargetException {
+        try {
+            primitiveHandle.invokeExact(instance, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FieldWriter{" +
+            "field=" + field +
+            '}';
+    }
+}
@@ -0,0 +1,185 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+/**
+ * A set of primitive longs which stores its values in a single array rather than boxing each of them, so that large
+ * sets of keys, such as ids, take a fraction of the memory of a {@link java.util.HashSet} of {@link Long}. Values are
+ * placed with open addressing and linear probing, and the array is doubled whenever it becomes three quarters full.
+ * Zero, which marks an empty slot in the array, is tracked separately. This class is not thread safe.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/17/26 4:50 AM - Created with IntelliJ IDEA.
+ */
+public class LongHashSet {
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private long[] values;
+    private int mask;
+    private int shift;
+    private int size = 0;
+    private int threshold;
+    private boolean containsZero = false;
+
+    public LongHashSet() {
+        this(MINIMUM_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize the number of values which the set should be able to hold without growing
+     */
+    public LongHashSet(final int expectedSize) {
+        int capacity = MINIMUM_CAPACITY;
+
+        while (capacity * 3L / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+
+        allocate(capacity);
+    }
+
+    /**
+     * Adds the specified value to the set
+     * @param value the value which should be added
+     * @return true if the set did not already contain the value
+     */
+    public boolean add(final long value) {
+        if (value == 0) {
+            if (containsZero) {
+                return false;
+            }
+
+            containsZero = true;
+            size++;
+            return true;
+        }
+
+        int index = indexOf(value);
+
+        if (values[index] == value) {
+            return false;
+        }
+
+        values[index] = value;
+
+        if (++size > threshold) {
+            grow();
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns true if the set contains the specified value
+     * @param value the value which should be found
+     * @return true if the set contains the value
+     */
+    public boolean contains(final long value) {
+        if (value == 0) {
+            return containsZero;
+        }
+
+        return values[indexOf(value)] == value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the values of the set in no particular order
+     * @return a new array which contains every value of the set
+     */
+    public long[] toArray() {
+        long[] array = new long[size];
+        int position = 0;
+
+        if (containsZero) {
+            array[position++] = 0;
+        }
+
+        for (long value : values) {
+            if (value != 0) {
+                array[position++] = value;
+            }
+        }
+
+        return array;
+    }
+
+    /**
+     * Returns the slot which contains the specified value or, if the set does not contain it, the empty slot at which
+     * it should be placed
+     * @param value a value other than zero
+     * @return the slot of the value
+     */
+    private int indexOf(final long value) {
+        // Multiplying by the golden ratio spreads sequential ids, which are common, across the high bits
+        int index = (int) ((value * 0x9E3779B97F4A7C15L) >>> shift);
+
+        while (values[index] != 0 && values[index] != value) {
+            index = (index + 1) & mask;
+        }
+
+        return index;
+    }
+
+    private void allocate(final int capacity) {
+        values = new long[capacity];
+        mask = capacity - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        threshold = capacity / 4 * 3;
+    }
+
+    private void grow() {
+        if (values.length == 1 << 30) {
+            throw new IllegalStateException("The set cannot hold more than " + threshold + " values");
+        }
+
+        long[] previous = values;
+        allocate(previous.length << 1);
+
+        for (long value : previous) {
+            if (value != 0) {
+                values[indexOf(value)] = value;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        long[] array = toArray();
+        Arrays.sort(array);
+        return Arrays.toString(array);
+    }
+}
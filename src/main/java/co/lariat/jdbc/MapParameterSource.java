@@ -0,0 +1,80 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Supplies the values of named parameters from a map, for example:
+ * <pre>
+ * connection.fetchAllEntity(User.class, "select * from users where username = :username",
+ *     new MapParameterSource().addValue("username", "admin"));
+ * </pre>
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 10:20 PM - Created with IntelliJ IDEA.
+ */
+public class MapParameterSource implements ParameterSource {
+    private final Map<String, Object> values;
+
+    public MapParameterSource() {
+        this.values = new HashMap<>();
+    }
+
+    public MapParameterSource(final Map<String, ?> values) {
+        this.values = new HashMap<>(values);
+    }
+
+    /**
+     * Adds the value of a parameter, replacing any value which was previously added for the same parameter
+     * @param name the name of the parameter, without the leading colon
+     * @param value the value of the parameter
+     * @return this source
+     */
+    public MapParameterSource addValue(final String name, final Object value) {
+        values.put(name, value);
+        return this;
+    }
+
+    @Override
+    public boolean hasValue(final String name) {
+        return values.containsKey(name);
+    }
+
+    @Override
+    public Object getValue(final String name) {
+        return values.get(name);
+    }
+
+    @Override
+    public String toString() {
+        return "MapParameterSource{" +
+            "values=" + values +
+            '}';
+    }
+}
@@ -0,0 +1,523 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * A mapping plan describes how the columns of a result set, with a particular shape, are injected into an entity of
+ * a particular class. Plans are resolved once per entity class and result set shape so that hydrating each row only
+ * requires reading the column values and invoking the setters which have already been located.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 9:12 AM - Created with IntelliJ IDEA.
+ */
+public class MappingPlan {
+    /**
+     * The value is read as an object and passed to the converter of the column, if it has one, and then to the setter
+     */
+    private static final int READ_OBJECT = 0;
+
+    /**
+     * The following strategies read the value with a primitive getter and pass it to a setter, or field, which accepts
+     * the same primitive, so that the value is never boxed. Null values leave the property untouched.
+     */
+    private static final int READ_LONG = 1;
+    private static final int READ_INT = 2;
+    private static final int READ_SHORT = 3;
+    private static final int READ_BYTE = 4;
+    private static final int READ_DOUBLE = 5;
+    private static final int READ_FLOAT = 6;
+    private static final int READ_BOOLEAN = 7;
+
+    private final Class<?> entityClass;
+    private final int columnCount;
+    private final PropertyWriter[] writers;
+    private final int[] strategies;
+    private final TypeConverter<Object, Object>[] converters;
+    private final RowMapper<Object> rowMapper;
+    private final int[] positions;
+    private final int[] columns;
+    private final EntityConstructor constructor;
+    private final int[] arguments;
+    private final Object[] defaultArguments;
+
+    /**
+     * Construct a mapping plan from the setters, or fields, which were resolved for each column of the result set
+     * @param entityClass the class of the entities which this plan populates
+     * @param writers the writer for each column, in column order
+     * @param converters the converter for each column, in column order, or null where no conversion is needed
+     */
+    public MappingPlan(final Class<?> entityClass, final PropertyWriter[] writers, final TypeConverter<?, ?>[] converters) {
+        this.entityClass = entityClass;
+        this.columnCount = writers.length;
+        this.writers = writers;
+        this.strategies = new int[writers.length];
+        this.converters = asObjectConverters(converters);
+        this.rowMapper = null;
+        this.positions = null;
+        this.columns = sequence(writers.length);
+        this.constructor = null;
+        this.arguments = null;
+        this.defaultArguments = null;
+
+        // Decide how each column is read up front so that we don't need to do so for every row
+        for (int index = 0; index < writers.length; index++) {
+            strategies[index] = getStrategy(writers[index].getArgumentType());
+        }
+    }
+
+    /**
+     * Construct a mapping plan which delegates to a {@link RowMapper}, such as one which was generated at compile time
+     * @param rowMapper the mapper which populates the entities
+     * @param positions the position of the column which populates each property of the mapper, or zero if the
+     * property is not present in the result set
+     * @param columnCount the number of columns in the result set
+     */
+    @SuppressWarnings("unchecked")
+    public MappingPlan(final RowMapper<?> rowMapper, final int[] positions, final int columnCount) {
+        this.entityClass = rowMapper.getEntityClass();
+        this.columnCount = columnCount;
+        this.writers = null;
+        this.strategies = null;
+        this.converters = null;
+        this.rowMapper = (RowMapper<Object>) rowMapper;
+        this.positions = positions;
+        this.columns = null;
+        this.constructor = null;
+        this.arguments = null;
+        this.defaultArguments = null;
+    }
+
+    /**
+     * Construct a mapping plan which creates each entity by passing the columns of the row to a constructor
+     * @param entityClass the class of the entities which this plan creates
+     * @param constructor the constructor which creates the entities
+     * @param arguments the index of the constructor argument which receives each column, in column order
+     * @param converters the converter for each column, in column order, or null where no conversion is needed
+     */
+    public MappingPlan(final Class<?> entityClass, final EntityConstructor constructor, final int[] arguments, final TypeConverter<?, ?>[] converters) {
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+
+        this.entityClass = entityClass;
+        this.columnCount = arguments.length;
+        this.writers = null;
+        this.strategies = new int[arguments.length];
+        this.converters = asObjectConverters(converters);
+        this.rowMapper = null;
+        this.positions = null;
+        this.columns = sequence(arguments.length);
+        this.constructor = constructor;
+        this.arguments = arguments;
+        this.defaultArguments = new Object[parameterTypes.length];
+
+        for (int index = 0; index < arguments.length; index++) {
+            strategies[index] = getStrategy(parameterTypes[arguments[index]]);
+        }
+
+        // Primitive arguments which are absent from the result set, or null, receive zero
+        for (int index = 0; index < parameterTypes.length; index++) {
+            if (parameterTypes[index].isPrimitive()) {
+                defaultArguments[index] = getDefaultValue(parameterTypes[index]);
+            }
+        }
+    }
+
+    /**
+     * Construct a copy of the provided mapping plan which reads its columns from different positions
+     * @param plan the plan which should be copied
+     * @param columns the position in the result set of each column of the plan
+     */
+    private MappingPlan(final MappingPlan plan, final int[] columns) {
+        this.entityClass = plan.entityClass;
+        this.columnCount = plan.columnCount;
+        this.writers = plan.writers;
+        this.strategies = plan.strategies;
+        this.converters = plan.converters;
+        this.rowMapper = plan.rowMapper;
+        this.constructor = plan.constructor;
+        this.arguments = plan.arguments;
+        this.defaultArguments = plan.defaultArguments;
+
+        if (plan.rowMapper != null) {
+            this.positions = new int[plan.positions.length];
+            this.columns = null;
+
+            for (int index = 0; index < positions.length; index++) {
+                positions[index] = plan.positions[index] == 0 ? 0 : columns[plan.positions[index] - 1];
+            }
+        } else {
+            this.positions = null;
+            this.columns = columns;
+        }
+    }
+
+    /**
+     * Returns a copy of this plan which reads its columns from the specified positions, rather than from the first
+     * columns of the result set. This allows a plan which was compiled for some of the columns of a wider result
+     * set, such as those of a joined query, to be reused.
+     * @param columns the position in the result set of each column of this plan
+     * @return a copy of this plan which reads its columns from the specified positions
+     */
+    public MappingPlan remap(final int[] columns) {
+        if (columns.length != columnCount) {
+            throw new IllegalArgumentException("Expected " + columnCount + " column positions but found " + columns.length);
+        }
+
+        return new MappingPlan(this, columns);
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * Returns the mapper which this plan delegates to or null if the plan writes the properties itself
+     * @return the mapper which this plan delegates to or null if the plan writes the properties itself
+     */
+    public RowMapper<?> getRowMapper() {
+        return rowMapper;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Returns true if this plan creates entities through a constructor, in which case they cannot be populated after
+     * they have been created
+     * @return true if this plan creates entities through a constructor and false otherwise
+     */
+    public boolean isConstructorBased() {
+        return constructor != null;
+    }
+
+    /**
+     * Creates a new entity from the current row of the provided result set, by invoking the constructor of the entity
+     * @param simpleResultSet the result set which is positioned on the row which should be injected
+     * @return the new entity
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public Object construct(final SimpleResultSet simpleResultSet) throws SQLException {
+        if (constructor == null) {
+            throw new SQLException("Entities of " + entityClass.getName() + " are not created through a constructor");
+        }
+
+        Object[] values = defaultArguments.clone();
+
+        for (int index = 0; index < arguments.length; index++) {
+            Object value = readValue(strategies[index], converters[index], simpleResultSet, columns[index]);
+
+            if (value != null) {
+                values[arguments[index]] = value;
+            }
+        }
+
+        return constructor.newInstance(values);
+    }
+
+    /**
+     * Injects the current row of the provided result set into the provided entity
+     * @param entity the entity which should be populated
+     * @param simpleResultSet the result set which is positioned on the row which should be injected
+     * @param <T> the type of the entity
+     * @return the populated entity
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public <T> T populate(final T entity, final SimpleResultSet simpleResultSet) throws SQLException {
+        if (rowMapper != null) {
+            rowMapper.map(entity, simpleResultSet, positions);
+            return entity;
+        } else if (constructor != null) {
+            throw new SQLException("Entities of " + entityClass.getName() + " are created through a constructor and cannot be populated");
+        }
+
+        try {
+            for (int index = 0; index < writers.length; index++) {
+                int position = columns[index];
+                PropertyWriter writer = writers[index];
+
+                switch (strategies[index]) {
+                    case READ_LONG: {
+                        long value = simpleResultSet.getLong(position);
+
+                        if (!simpleResultSet.wasNull()) {
+                            writer.invokeLong(entity, value);
+                        }
+                        break;
+                    }
+                    case READ_INT: {
+                        int value = simpleResultSet.getInt(position);
+
+                        if (!simpleResultSet.wasNull()) {
+                            writer.invokeInt(entity, value);
+                        }
+                        break;
+                    }
+                    case READ_SHORT: {
+                        short value = simpleResultSet.getShort(position);
+
+                        if (!simpleResultSet.wasNull()) {
+                            writer.invokeShort(entity, value);
+                        }
+                        break;
+                    }
+                    case READ_BYTE: {
+                        byte value = simpleResultSet.getByte(position);
+
+                        if (!simpleResultSet.wasNull()) {
+                            writer.invokeByte(entity, value);
+                        }
+                        break;
+                    }
+                    case READ_DOUBLE: {
+                        double value = simpleResultSet.getDouble(position);
+
+                        if (!simpleResultSet.wasNull()) {
+                            writer.invokeDouble(entity, value);
+                        }
+                        break;
+                    }
+                    case READ_FLOAT: {
+                        float value = simpleResultSet.getFloat(position);
+
+                        if (!simpleResultSet.wasNull()) {
+                            writer.invokeFloat(entity, value);
+                        }
+                        break;
+                    }
+                    case READ_BOOLEAN: {
+                        boolean value = simpleResultSet.getBoolean(position);
+
+                        if (!simpleResultSet.wasNull()) {
+                            writer.invokeBoolean(entity, value);
+                        }
+                        break;
+                    }
+                    default: {
+                        // Invoke the setter, or write the field
+                        writer.invoke(entity, readValue(strategies[index], converters[index], simpleResultSet, position));
+                        break;
+                    }
+                }
+            }
+
+            return entity;
+        } catch (IllegalAccessException e) {
+            throw new SQLException("Cannot invoke setter: ", e);
+        } catch (InvocationTargetException e) {
+            throw new SQLException("Cannot invoke setter: ", e);
+        }
+    }
+
+    /**
+     * Reads the value of the specified column with the specified strategy. Primitive values are boxed and null is
+     * returned when the column is null.
+     * @param strategy the strategy which should be used to read the value
+     * @param converter the converter which should be applied to values which are read as objects, or null
+     * @param simpleResultSet the result set which is positioned on the row which should be read
+     * @param position the position of the column
+     * @return the value of the column
+     * @throws SQLException thrown when something exceptional happens
+     */
+    static Object readValue(final int strategy, final TypeConverter<Object, Object> converter, final SimpleResultSet simpleResultSet, final int position) throws SQLException {
+        Object value;
+
+        switch (strategy) {
+            case READ_LONG:
+                value = simpleResultSet.getLong(position);
+                break;
+            case READ_INT:
+                value = simpleResultSet.getInt(position);
+                break;
+            case READ_SHORT:
+                value = simpleResultSet.getShort(position);
+                break;
+            case READ_BYTE:
+                value = simpleResultSet.getByte(position);
+                break;
+            case READ_DOUBLE:
+                value = simpleResultSet.getDouble(position);
+                break;
+            case READ_FLOAT:
+                value = simpleResultSet.getFloat(position);
+                break;
+            case READ_BOOLEAN:
+                value = simpleResultSet.getBoolean(position);
+                break;
+            default:
+                value = simpleResultSet.getValue(position);
+
+                // Drivers occasionally return a different type than the metadata promised, which is passed on as is
+                if (converter != null && value != null && converter.getSourceType().isInstance(value)) {
+                    value = converter.convert(value);
+                }
+
+                return value;
+        }
+
+        return simpleResultSet.wasNull() ? null : value;
+    }
+
+    /**
+     * Returns the zero value of the specified primitive type
+     * @param primitiveType the primitive type
+     * @return the boxed zero value of the primitive type
+     */
+    static Object getDefaultValue(final Class<?> primitiveType) {
+        if (primitiveType == long.class) {
+            return 0L;
+        } else if (primitiveType == int.class) {
+            return 0;
+        } else if (primitiveType == short.class) {
+            return (short) 0;
+        } else if (primitiveType == byte.class) {
+            return (byte) 0;
+        } else if (primitiveType == double.class) {
+            return 0d;
+        } else if (primitiveType == float.class) {
+            return 0f;
+        } else if (primitiveType == boolean.class) {
+            return false;
+        }
+
+        return (char) 0;
+    }
+
+    /**
+     * Returns the strategy which should be used to read values which are passed to a setter of the specified type
+     * @param argumentType the argument type of the setter
+     * @return the strategy which should be used to read the values
+     */
+    static int getStrategy(final Class<?> argumentType) {
+        if (argumentType == long.class) {
+            return READ_LONG;
+        } else if (argumentType == int.class) {
+            return READ_INT;
+        } else if (argumentType == short.class) {
+            return READ_SHORT;
+        } else if (argumentType == byte.class) {
+            return READ_BYTE;
+        } else if (argumentType == double.class) {
+            return READ_DOUBLE;
+        } else if (argumentType == float.class) {
+            return READ_FLOAT;
+        } else if (argumentType == boolean.class) {
+            return READ_BOOLEAN;
+        }
+
+        return READ_OBJECT;
+    }
+
+    private static int[] sequence(final int length) {
+        int[] sequence = new int[length];
+
+        for (int index = 0; index < length; index++) {
+            sequence[index] = index + 1;
+        }
+
+        return sequence;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TypeConverter<Object, Object>[] asObjectConverters(final TypeConverter<?, ?>[] converters) {
+        return (TypeConverter<Object, Object>[]) converters;
+    }
+
+    @Override
+    public String toString() {
+        return "MappingPlan{" +
+            "entityClass=" + entityClass +
+            (rowMapper != null ? ", rowMapper=" + rowMapper.getClass().getName()
+                : constructor != null ? ", constructor=" + constructor.getConstructor()
+                : ", writers=" + Arrays.toString(writers)) +
+            '}';
+    }
+
+    /**
+     * Identifies a mapping plan by the class which resolved it, the entity class, the access mode, and the labels and
+     * types of the columns in the result set
+     */
+    public static class Key {
+        private final Class<?> ownerClass;
+        private final Class<?> entityClass;
+        private final AccessMode accessMode;
+        private final String[] columnNames;
+        private final String[] columnClassNames;
+        private final int hashCode;
+
+        public Key(final Class<?> ownerClass, final Class<?> entityClass, final AccessMode accessMode, final String[] columnNames, final String[] columnClassNames) {
+            this.ownerClass = ownerClass;
+            this.entityClass = entityClass;
+            this.accessMode = accessMode;
+            this.columnNames = columnNames;
+            this.columnClassNames = columnClassNames;
+
+            int result = ownerClass.hashCode();
+            result = 31 * result + entityClass.hashCode();
+            result = 31 * result + accessMode.hashCode();
+            result = 31 * result + Arrays.hashCode(columnNames);
+            result = 31 * result + Arrays.hashCode(columnClassNames);
+            this.hashCode = result;
+        }
+
+        public String[] getColumnNames() {
+            return columnNames;
+        }
+
+        public String[] getColumnClassNames() {
+            return columnClassNames;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) o;
+
+            return hashCode == key.hashCode
+                && ownerClass.equals(key.ownerClass)
+                && entityClass.equals(key.entityClass)
+                && accessMode == key.accessMode
+                && Arrays.equals(columnNames, key.columnNames)
+                && Arrays.equals(columnClassNames, key.columnClassNames);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An insert of a single row, such as <i>insert into users(id, username) values(?, ?)</i>, which can be rewritten to
+ * insert several rows at once, such as <i>insert into users(id, username) values(?, ?), (?, ?)</i>. Sending one
+ * statement which inserts many rows is much faster than a batch on drivers which send the statements of a batch to
+ * the database one at a time.
+ * <p>
+ * The row of values may contain expressions as well as parameters, and the insert may be followed by a clause such as
+ * <i>on conflict do nothing</i>, but every parameter must be within the row of values. Parsed inserts are kept in a
+ * bounded cache, which discards the least recently used entries, and the rewritten sql is cached per row count.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/17/26 1:50 AM - Created with IntelliJ IDEA.
+ */
+public class MultiRowInsert {
+    /**
+     * The maximum number of inserts which are cached
+     */
+    public static final int CACHE_SIZE = 512;
+
+    /**
+     * Cached for sql which cannot be rewritten
+     */
+    private static final MultiRowInsert UNSUPPORTED = new MultiRowInsert(null, null, null, 0);
+
+    private static final Map<String, MultiRowInsert> CACHE = Collections.synchronizedMap(
+        new LinkedHashMap<String, MultiRowInsert>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, MultiRowInsert> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        }
+    );
+
+    private final String prefix;
+    private final String row;
+    private final String suffix;
+    private final int parameterCount;
+    private final ConcurrentMap<Integer, String> sqlByRowCount = new ConcurrentHashMap<>();
+
+    private MultiRowInsert(final String prefix, final String row, final String suffix, final int parameterCount) {
+        this.prefix = prefix;
+        this.row = row;
+        this.suffix = suffix;
+        this.parameterCount = parameterCount;
+    }
+
+    /**
+     * Parses the specified insert, or returns null if it cannot be rewritten to insert several rows at once
+     * @param sql the insert of a single row
+     * @return the parsed insert or null
+     */
+    public static MultiRowInsert parse(final String sql) {
+        MultiRowInsert insert = CACHE.get(sql);
+
+        if (insert == null) {
+            insert = doParse(sql);
+            CACHE.put(sql, insert);
+        }
+
+        return insert == UNSUPPORTED ? null : insert;
+    }
+
+    /**
+     * Returns the number of parameters in a single row
+     * @return the number of parameters in a single row
+     */
+    public int getParameterCount() {
+        return parameterCount;
+    }
+
+    /**
+     * Returns the sql which inserts the specified number of rows
+     * @param rowCount the number of rows which should be inserted
+     * @return the sql which inserts the rows
+     */
+    public String getSql(final int rowCount) {
+        String sql = sqlByRowCount.get(rowCount);
+
+        if (sql == null) {
+            StringBuilder builder = new StringBuilder(prefix.length() + suffix.length() + rowCount * (row.length() + 2));
+            builder.append(prefix);
+
+            for (int index = 0; index < rowCount; index++) {
+                builder.append(index == 0 ? "" : ", ").append(row);
+            }
+
+            sql = builder.append(suffix).toString();
+            sqlByRowCount.putIfAbsent(rowCount, sql);
+        }
+
+        return sql;
+    }
+
+    private static MultiRowInsert doParse(final String sql) {
+        String lowerCase = sql.toLowerCase();
+
+        if (!lowerCase.trim().startsWith("insert")) {
+            return UNSUPPORTED;
+        }
+
+        int length = sql.length();
+        int rowStart = -1;
+        int rowEnd = -1;
+        int parameterCount = 0;
+        int depth = 0;
+        int index = 0;
+
+        while (index < length) {
+            int end = NamedParameterSql.skipLiteral(sql, index);
+
+            if (end > index) {
+                index = end;
+                continue;
+            }
+
+            char c = sql.charAt(index);
+
+            if (rowStart == -1 && depth == 0 && lowerCase.startsWith("values", index) && isWordBoundary(sql, index, index + 6)) {
+                // The row of values starts at the first parenthesis after the values keyword
+                int open = index + 6;
+
+                while (open < length && Character.isWhitespace(sql.charAt(open))) {
+                    open++;
+                }
+
+                if (open == length || sql.charAt(open) != '(') {
+                    return UNSUPPORTED;
+                }
+
+                rowStart = open;
+                index = open;
+                continue;
+            }
+
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+
+                if (depth == 0 && rowStart != -1 && rowEnd == -1) {
+                    rowEnd = index + 1;
+                }
+            } else if (c == '?') {
+                if (rowStart == -1 || rowEnd != -1) {
+                    // Parameters outside of the row of values cannot be repeated along with it
+                    return UNSUPPORTED;
+                }
+
+                parameterCount++;
+            }
+
+            index++;
+        }
+
+        if (rowEnd == -1 || parameterCount == 0) {
+            return UNSUPPORTED;
+        }
+
+        return new MultiRowInsert(sql.substring(0, rowStart), sql.substring(rowStart, rowEnd), sql.substring(rowEnd), parameterCount);
+    }
+
+    private static boolean isWordBoundary(final String sql, final int start, final int end) {
+        return (start == 0 || !Character.isJavaIdentifierPart(sql.charAt(start - 1)))
+            && (end == sql.length() || !Character.isJavaIdentifierPart(sql.charAt(end)));
+    }
+
+    @Override
+    public String toString() {
+        return "MultiRowInsert{" +
+            "prefix='" + prefix + '\'' +
+            ", row='" + row + '\'' +
+            ", suffix='" + suffix + '\'' +
+            '}';
+    }
+}
@@ -0,0 +1,221 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL whose named parameters, such as :username, have been rewritten into positional parameters. The name of the
+ * parameter at each position is remembered so that the positional arguments can be taken from a
+ * {@link ParameterSource}. A parameter may be used more than once. Text within quotes and comments is left alone, as
+ * are PostgreSQL style casts such as ::text.
+ * <p>
+ * Parsed SQL is kept in a bounded cache, which discards the least recently used entries, so that queries which are
+ * executed repeatedly are only parsed once.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 10:20 PM - Created with IntelliJ IDEA.
+ */
+public class NamedParameterSql {
+    /**
+     * The maximum number of parsed statements which are cached
+     */
+    public static final int CACHE_SIZE = 512;
+
+    private static final Map<String, NamedParameterSql> CACHE = Collections.synchronizedMap(
+        new LinkedHashMap<String, NamedParameterSql>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, NamedParameterSql> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        }
+    );
+
+    private final String originalSql;
+    private final String sql;
+    private final String[] parameterNames;
+
+    private NamedParameterSql(final String originalSql, final String sql, final String[] parameterNames) {
+        this.originalSql = originalSql;
+        this.sql = sql;
+        this.parameterNames = parameterNames;
+    }
+
+    /**
+     * Returns the parsed form of the specified sql, parsing it if it has not been parsed recently
+     * @param sql the sql which contains named parameters
+     * @return the parsed sql
+     * @throws SQLException thrown when the sql mixes named and positional parameters
+     */
+    public static NamedParameterSql parse(final String sql) throws SQLException {
+        NamedParameterSql parsed = CACHE.get(sql);
+
+        if (parsed == null) {
+            parsed = doParse(sql);
+            CACHE.put(sql, parsed);
+        }
+
+        return parsed;
+    }
+
+    public String getOriginalSql() {
+        return originalSql;
+    }
+
+    /**
+     * Returns the sql with each named parameter replaced by a question mark
+     * @return the sql with positional parameters
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Returns the name of the parameter at each position
+     * @return the name of the parameter at each position
+     */
+    public String[] getParameterNames() {
+        return parameterNames.clone();
+    }
+
+    /**
+     * Returns the positional arguments of the sql, which are taken from the provided source
+     * @param parameters the source of the values of the named parameters
+     * @return the value of each positional parameter
+     * @throws SQLException thrown when the source does not have a value for one of the parameters
+     */
+    public Object[] getArguments(final ParameterSource parameters) throws SQLException {
+        Object[] arguments = new Object[parameterNames.length];
+
+        for (int index = 0; index < parameterNames.length; index++) {
+            if (!parameters.hasValue(parameterNames[index])) {
+                throw new SQLException("No value was supplied for the named parameter :" + parameterNames[index]);
+            }
+
+            arguments[index] = parameters.getValue(parameterNames[index]);
+        }
+
+        return arguments;
+    }
+
+    private static NamedParameterSql doParse(final String sql) throws SQLException {
+        StringBuilder builder = new StringBuilder(sql.length());
+        List<String> names = new ArrayList<>();
+        boolean positional = false;
+        int length = sql.length();
+        int index = 0;
+
+        while (index < length) {
+            char c = sql.charAt(index);
+            int end = skipLiteral(sql, index);
+
+            if (end > index) {
+                // Quoted text and comments are copied as is
+                builder.append(sql, index, end);
+                index = end;
+            } else if (c == ':' && index + 1 < length && sql.charAt(index + 1) == ':') {
+                builder.append("::");
+                index += 2;
+            } else if (c == ':' && index + 1 < length && Character.isJavaIdentifierStart(sql.charAt(index + 1))) {
+                end = index + 1;
+
+                while (end < length && Character.isJavaIdentifierPart(sql.charAt(end))) {
+                    end++;
+                }
+
+                names.add(sql.substring(index + 1, end));
+                builder.append('?');
+                index = end;
+            } else {
+                positional = positional || c == '?';
+                builder.append(c);
+                index++;
+            }
+        }
+
+        if (positional && !names.isEmpty()) {
+            throw new SQLException("Named and positional parameters cannot be mixed: " + sql);
+        }
+
+        return new NamedParameterSql(sql, builder.toString(), names.toArray(new String[names.size()]));
+    }
+
+    /**
+     * Returns the position which follows the quoted text or comment which starts at the specified position, or the
+     * specified position if there isn't one. Within quoted text, a doubled quote is an escaped quote.
+     * @param sql the sql which is being scanned
+     * @param index the position at which the quoted text or comment may start
+     * @return the position which follows the quoted text or comment, or the specified position
+     */
+    static int skipLiteral(final String sql, final int index) {
+        int length = sql.length();
+        char c = sql.charAt(index);
+
+        if (c == '\'' || c == '"') {
+            int end = index + 1;
+
+            while (end < length) {
+                if (sql.charAt(end) == c) {
+                    if (end + 1 < length && sql.charAt(end + 1) == c) {
+                        end += 2;
+                        continue;
+                    }
+
+                    return end + 1;
+                }
+
+                end++;
+            }
+
+            return length;
+        }
+
+        if (c == '-' && index + 1 < length && sql.charAt(index + 1) == '-') {
+            int end = sql.indexOf('\n', index);
+            return end == -1 ? length : end;
+        }
+
+        if (c == '/' && index + 1 < length && sql.charAt(index + 1) == '*') {
+            int end = sql.indexOf("*/", index + 2);
+            return end == -1 ? length : end + 2;
+        }
+
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return "NamedParameterSql{" +
+            "sql='" + sql + '\'' +
+            '}';
+    }
+}
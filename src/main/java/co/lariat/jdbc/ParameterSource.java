@@ -0,0 +1,53 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.sql.SQLException;
+
+/**
+ * Supplies the values of the named parameters, such as :username, of a query. Named parameters are rewritten into
+ * positional parameters by {@link NamedParameterSql} and their values are then looked up by name.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 10:20 PM - Created with IntelliJ IDEA.
+ */
+public interface ParameterSource {
+    /**
+     * Returns true if this source has a value, possibly null, for the specified parameter and false otherwise
+     * @param name the name of the parameter, without the leading colon
+     * @return true if this source has a value for the parameter and false otherwise
+     */
+    public boolean hasValue(String name);
+
+    /**
+     * Returns the value of the specified parameter
+     * @param name the name of the parameter, without the leading colon
+     * @return the value of the parameter
+     * @throws SQLException thrown when the value cannot be obtained
+     */
+    public Object getValue(String name) throws SQLException;
+}
@@ -0,0 +1,106 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps track of the SQL type of each parameter of a statement, as reported by its {@link ParameterMetaData}. The
+ * types allow nulls, and values whose type the driver would otherwise have to infer, to be bound with the type which
+ * the database expects. That spares drivers which re-plan or round trip to the server when they are given
+ * {@link java.sql.Types#NULL}. Asking for parameter metadata can be expensive in itself, so the types are cached per
+ * database and SQL text, in a bounded cache which discards the least recently used entries.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/17/26 12:10 AM - Created with IntelliJ IDEA.
+ */
+public class ParameterTypes {
+    /**
+     * The maximum number of statements whose parameter types are cached
+     */
+    public static final int CACHE_SIZE = 512;
+
+    /**
+     * Returned for statements whose parameters the driver is unable to describe
+     */
+    private static final int[] UNKNOWN = new int[0];
+
+    private static final Map<String, int[]> CACHE = Collections.synchronizedMap(
+        new LinkedHashMap<String, int[]>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, int[]> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        }
+    );
+
+    /**
+     * Returns the SQL type of each parameter of the specified statement, describing the statement if its SQL has not
+     * been described recently. An empty array is returned when the driver is unable to describe the parameters.
+     * @param database identifies the database, such as its url, since the same sql may have different types elsewhere
+     * @param sql the sql of the statement
+     * @param statement the statement, which is described if the types are not already cached
+     * @return the SQL type of each parameter, as defined by {@link java.sql.Types}, or an empty array
+     */
+    public static int[] resolve(final String database, final String sql, final PreparedStatement statement) {
+        String key = database + '\n' + sql;
+        int[] types = CACHE.get(key);
+
+        if (types == null) {
+            types = describe(statement);
+            CACHE.put(key, types);
+        }
+
+        return types;
+    }
+
+    private static int[] describe(final PreparedStatement statement) {
+        try {
+            ParameterMetaData metaData = statement.getParameterMetaData();
+
+            if (metaData == null) {
+                return UNKNOWN;
+            }
+
+            int[] types = new int[metaData.getParameterCount()];
+
+            for (int index = 0; index < types.length; index++) {
+                types[index] = metaData.getParameterType(index + 1);
+            }
+
+            return types;
+        } catch (SQLException | RuntimeException e) {
+            // Not every driver is able to describe the parameters of a statement
+            return UNKNOWN;
+        }
+    }
+}
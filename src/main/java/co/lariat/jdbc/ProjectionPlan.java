@@ -0,0 +1,318 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A projection plan describes how the columns of a result set, with a particular shape, are exposed through the
+ * methods of an interface. Each row is represented by a proxy which implements the interface and which is backed by
+ * an array of the values which its methods return. The mapping between methods and columns is shared by every row,
+ * so a row costs a single array and a proxy rather than a map or an entity and its setter calls. The constructor of
+ * the proxy class is resolved once per plan, and the methods which are passed to the proxy are matched to their
+ * values by identity, so answering a method call does not require a map lookup.
+ * <p>
+ * Default methods of the interface are not mapped to columns. They are invoked, on Java 9 onwards, and may call the
+ * other methods of the projection. The equals(), hashCode() and toString() methods compare, hash and print the values
+ * of the row, whether or not the interface redeclares them.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 8:50 PM - Created with IntelliJ IDEA.
+ */
+public class ProjectionPlan {
+    private final Class<?> projectionClass;
+    private final Constructor<?> proxyConstructor;
+    private final Method[] methods;
+
+    /**
+     * The instances of the column methods which the proxy passes to its handler, which are recorded the first time
+     * that each method is called so that later calls can be matched by identity
+     */
+    private final Method[] proxyMethods;
+    private final int[] columns;
+    private final int[] strategies;
+    private final TypeConverter<Object, Object>[] converters;
+    private final Object[] defaultValues;
+    private final Method[] defaultMethods;
+    private final MethodHandle[] defaultHandles;
+
+    /**
+     * Construct a projection plan
+     * @param projectionClass the interface which is implemented by each row
+     * @param methods the methods of the interface which return column values
+     * @param columns the position of the column which is returned by each method
+     * @param converters the converter for each method, or null where no conversion is needed
+     * @throws SQLException thrown when the proxy class cannot be created or a default method cannot be invoked
+     */
+    @SuppressWarnings("unchecked")
+    public ProjectionPlan(final Class<?> projectionClass, final Method[] methods, final int[] columns, final TypeConverter<?, ?>[] converters) throws SQLException {
+        this.projectionClass = projectionClass;
+        this.proxyConstructor = getProxyConstructor(projectionClass);
+        this.methods = methods;
+        this.proxyMethods = new Method[methods.length];
+        this.columns = columns;
+        this.strategies = new int[methods.length];
+        this.converters = (TypeConverter<Object, Object>[]) converters;
+        this.defaultValues = new Object[methods.length];
+
+        for (int index = 0; index < methods.length; index++) {
+            Class<?> returnType = methods[index].getReturnType();
+            strategies[index] = MappingPlan.getStrategy(returnType);
+
+            // Methods which return primitives return zero, rather than failing, when the column is null
+            if (returnType.isPrimitive()) {
+                defaultValues[index] = MappingPlan.getDefaultValue(returnType);
+            }
+        }
+
+        List<Method> found = new ArrayList<>();
+
+        for (Method method : projectionClass.getMethods()) {
+            if (isDefaultMethod(method)) {
+                found.add(method);
+            }
+        }
+
+        this.defaultMethods = found.toArray(new Method[found.size()]);
+        this.defaultHandles = new MethodHandle[defaultMethods.length];
+
+        for (int index = 0; index < defaultMethods.length; index++) {
+            defaultHandles[index] = findDefaultMethodHandle(projectionClass, defaultMethods[index]);
+        }
+    }
+
+    public Class<?> getProjectionClass() {
+        return projectionClass;
+    }
+
+    /**
+     * Creates a projection of the current row of the provided result set
+     * @param simpleResultSet the result set which is positioned on the row which should be projected
+     * @return the projection of the row, which implements the projection interface
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public Object project(final SimpleResultSet simpleResultSet) throws SQLException {
+        Object[] values = new Object[methods.length];
+
+        for (int index = 0; index < methods.length; index++) {
+            values[index] = MappingPlan.readValue(strategies[index], converters[index], simpleResultSet, columns[index]);
+        }
+
+        try {
+            return proxyConstructor.newInstance(new Row(this, values));
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new SQLException("Cannot create a projection of " + projectionClass.getCanonicalName(), e);
+        }
+    }
+
+    /**
+     * Returns true if the specified method of a projection interface is a default method, which is invoked rather
+     * than being mapped to a column
+     * @param method a method of a projection interface
+     * @return true if the method is a default method and false otherwise
+     */
+    static boolean isDefaultMethod(final Method method) {
+        int modifiers = method.getModifiers();
+        return method.getDeclaringClass().isInterface() && !Modifier.isAbstract(modifiers) && !Modifier.isStatic(modifiers);
+    }
+
+    /**
+     * Returns true if the specified method of a projection interface redeclares equals(), hashCode() or toString(),
+     * which are answered by the projection itself rather than by a column
+     * @param method a method of a projection interface
+     * @return true if the method redeclares a method of {@link Object} and false otherwise
+     */
+    static boolean isObjectMethod(final Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        String name = method.getName();
+
+        return (name.equals("equals") && parameterTypes.length == 1 && parameterTypes[0] == Object.class)
+            || (name.equals("hashCode") && parameterTypes.length == 0)
+            || (name.equals("toString") && parameterTypes.length == 0);
+    }
+
+    /**
+     * Returns the constructor of the proxy class which implements the specified interface
+     * @param projectionClass the interface which is implemented by each row
+     * @return the constructor of the proxy class, which accepts an invocation handler
+     * @throws SQLException thrown when the proxy class cannot be created
+     */
+    @SuppressWarnings("deprecation")
+    private static Constructor<?> getProxyConstructor(final Class<?> projectionClass) throws SQLException {
+        try {
+            return Proxy.getProxyClass(projectionClass.getClassLoader(), projectionClass).getConstructor(InvocationHandler.class);
+        } catch (NoSuchMethodException | RuntimeException e) {
+            throw new SQLException("Cannot create a proxy class for " + projectionClass.getCanonicalName(), e);
+        }
+    }
+
+    /**
+     * Returns a handle which invokes the implementation of the specified default method, rather than the proxy. This
+     * requires MethodHandles.privateLookupIn(), which only exists from Java 9 onwards, so it is called reflectively.
+     * @param projectionClass the interface which is implemented by each row
+     * @param method the default method
+     * @return the handle which invokes the default method
+     * @throws SQLException thrown when the default method cannot be invoked
+     */
+    private static MethodHandle findDefaultMethodHandle(final Class<?> projectionClass, final Method method) throws SQLException {
+        try {
+            Method privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+            MethodHandles.Lookup lookup = (MethodHandles.Lookup) privateLookupIn.invoke(null, method.getDeclaringClass(), MethodHandles.lookup());
+            return lookup.unreflectSpecial(method, method.getDeclaringClass());
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new SQLException("Cannot invoke the default method " + method + " of the projection " + projectionClass.getCanonicalName(), e);
+        }
+    }
+
+    /**
+     * Returns the position of the value which is returned by the specified method
+     * @param method the method which was called on a proxy
+     * @return the position of the value or -1 if the method does not return a column
+     */
+    private int findSlot(final Method method) {
+        for (int index = 0; index < proxyMethods.length; index++) {
+            if (proxyMethods[index] == method) {
+                return index;
+            }
+        }
+
+        for (int index = 0; index < methods.length; index++) {
+            if (methods[index].equals(method)) {
+                // Racing threads record the same method, so this does not need to be synchronized
+                proxyMethods[index] = method;
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the handle which invokes the specified default method
+     * @param method the method which was called on a proxy
+     * @return the handle of the default method or null if the method is not a default method
+     */
+    private MethodHandle findDefaultHandle(final Method method) {
+        for (int index = 0; index < defaultMethods.length; index++) {
+            if (defaultMethods[index] == method || defaultMethods[index].equals(method)) {
+                return defaultHandles[index];
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "ProjectionPlan{" +
+            "projectionClass=" + projectionClass +
+            ", methods=" + Arrays.toString(methods) +
+            '}';
+    }
+
+    /**
+     * Answers the method calls of a single projected row
+     */
+    private static final class Row implements InvocationHandler {
+        private final ProjectionPlan plan;
+        private final Object[] values;
+
+        Row(final ProjectionPlan plan, final Object[] values) {
+            this.plan = plan;
+            this.values = values;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            int slot = plan.findSlot(method);
+
+            if (slot != -1) {
+                Object value = values[slot];
+                return value != null ? value : plan.defaultValues[slot];
+            }
+
+            if (isObjectMethod(method)) {
+                String name = method.getName();
+
+                if (name.equals("equals")) {
+                    return proxy == args[0] || isEqual(args[0]);
+                } else if (name.equals("hashCode")) {
+                    return 31 * plan.projectionClass.hashCode() + Arrays.hashCode(values);
+                } else {
+                    return toString();
+                }
+            }
+
+            MethodHandle handle = plan.findDefaultHandle(method);
+
+            if (handle != null) {
+                return handle.bindTo(proxy).invokeWithArguments(args != null ? args : new Object[0]);
+            }
+
+            throw new UnsupportedOperationException("Projections do not support " + method);
+        }
+
+        private boolean isEqual(final Object other) {
+            if (other == null || !Proxy.isProxyClass(other.getClass())) {
+                return false;
+            }
+
+            InvocationHandler handler = Proxy.getInvocationHandler(other);
+
+            return handler instanceof Row
+                && ((Row) handler).plan.projectionClass == plan.projectionClass
+                && Arrays.equals(((Row) handler).plan.methods, plan.methods)
+                && Arrays.equals(((Row) handler).values, values);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(plan.projectionClass.getSimpleName()).append('{');
+
+            for (int index = 0; index < values.length; index++) {
+                if (index > 0) {
+                    builder.append(", ");
+                }
+
+                builder.append(plan.methods[index].getName()).append('=').append(values[index]);
+            }
+
+            return builder.append('}').toString();
+        }
+    }
+}
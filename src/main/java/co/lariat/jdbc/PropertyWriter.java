@@ -0,0 +1,56 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Writes values to a single property of an entity. The primitive specific methods must only be called when
+ * {@link #getArgumentType()} returns the matching primitive type, and allow values to be written without boxing them.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 4:20 PM - Created with IntelliJ IDEA.
+ */
+public interface PropertyWriter {
+    public Class<?> getArgumentType();
+
+    public void invoke(Object instance, Object value) throws InvocationTargetException, IllegalAccessException;
+
+    public void invokeLong(Object instance, long value) throws InvocationTargetException;
+
+    public void invokeInt(Object instance, int value) throws InvocationTargetException;
+
+    public void invokeShort(Object instance, short value) throws InvocationTargetException;
+
+    public void invokeByte(Object instance, byte value) throws InvocationTargetException;
+
+    public void invokeDouble(Object instance, double value) throws InvocationTargetException;
+
+    public void invokeFloat(Object instance, float value) throws InvocationTargetException;
+
+    public void invokeBoolean(Object instance, boolean value) throws InvocationTargetException;
+}
@@ -0,0 +1,140 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the rows of a result set, which are mapped one at a time, as they are requested, so that results
+ * which are too large to be held in memory can be processed. The result set, and the statement which produced it,
+ * are closed when the last row has been read or when the iterator is closed, whichever happens first. Iterators
+ * which are abandoned before their last row must be closed, which is most easily done with try-with-resources:
+ * <pre>
+ * try (ResultSetIterator&lt;User&gt; users = connection.streamEntity(User.class, "select * from users")) {
+ *     for (User user : users) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ * The iterator may only be iterated once. Since {@link Iterator} cannot throw checked exceptions, any
+ * {@link SQLException} which is thrown while a row is read is wrapped in an {@link IllegalStateException}.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/17/26 3:40 AM - Created with IntelliJ IDEA.
+ */
+public class ResultSetIterator<T> implements Iterator<T>, Iterable<T>, AutoCloseable {
+    private final PreparedStatement statement;
+    private final SimpleResultSet resultSet;
+    private final ResultSetHandler<T> handler;
+    private boolean advanced = false;
+    private boolean hasNext = false;
+    private boolean closed = false;
+
+    /**
+     * @param statement the statement which produced the result set, which is closed along with it, or null
+     * @param resultSet the result set whose rows should be iterated
+     * @param handler maps the current row of the result set
+     */
+    public ResultSetIterator(final PreparedStatement statement, final SimpleResultSet resultSet, final ResultSetHandler<T> handler) {
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.handler = handler;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!advanced) {
+            if (closed) {
+                return false;
+            }
+
+            try {
+                hasNext = resultSet.next();
+            } catch (SQLException e) {
+                close();
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+
+            advanced = true;
+
+            // Release the result set as soon as it has been exhausted rather than waiting for it to be closed
+            if (!hasNext) {
+                close();
+            }
+        }
+
+        return hasNext;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        advanced = false;
+
+        try {
+            return handler.handle(resultSet);
+        } catch (SQLException e) {
+            close();
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes the result set and the statement which produced it. Closing an iterator which has already been closed
+     * has no effect.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            hasNext = false;
+            advanced = true;
+            DB.closeResultSet(resultSet);
+            DB.closeStatement(statement);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.sql.SQLException;
+
+/**
+ * Injects rows of a result set into entities of a particular class without using reflection. Implementations are
+ * normally generated at compile time by {@link co.lariat.jdbc.processor.RowMapperProcessor} and located at runtime by
+ * {@link RowMapperRegistry}.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 1:15 PM - Created with IntelliJ IDEA.
+ */
+public interface RowMapper<T> {
+    /**
+     * Returns the class of the entities which this mapper populates
+     * @return the class of the entities which this mapper populates
+     */
+    public Class<T> getEntityClass();
+
+    /**
+     * Returns the names of the properties which this mapper is able to populate. Column names are converted to
+     * camel case and matched against these names to determine which column populates which property.
+     * @return the names of the properties which this mapper is able to populate
+     */
+    public String[] getPropertyNames();
+
+    /**
+     * Creates a new, empty, instance of the entity
+     * @return a new instance of the entity
+     */
+    public T newInstance();
+
+    /**
+     * Injects the current row of the result set into the provided entity
+     * @param entity the entity which should be populated
+     * @param simpleResultSet the result set which is positioned on the row which should be injected
+     * @param positions the position of the column which populates each property, in the same order as
+     * {@link #getPropertyNames()}, or zero if the property is not present in the result set
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public void map(final T entity, final SimpleResultSet simpleResultSet, final int[] positions) throws SQLException;
+}
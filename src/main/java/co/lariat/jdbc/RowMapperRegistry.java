@@ -0,0 +1,145 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps track of the {@link RowMapper} which should be used for each entity class. Mappers can be registered
+ * explicitly. Otherwise, the registry looks for the class which {@link co.lariat.jdbc.processor.RowMapperProcessor}
+ * generates for the entity, the first time that the entity is encountered, and remembers the outcome.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 1:15 PM - Created with IntelliJ IDEA.
+ */
+public class RowMapperRegistry {
+    /**
+     * The suffix which is appended to the name of the entity to obtain the name of the generated mapper
+     */
+    public static final String GENERATED_SUFFIX = "_RowMapper";
+
+    /**
+     * Placeholder which records that an entity does not have a mapper
+     */
+    private static final RowMapper<Object> NONE = new RowMapper<Object>() {
+        @Override
+        public Class<Object> getEntityClass() {
+            return Object.class;
+        }
+
+        @Override
+        public String[] getPropertyNames() {
+            return new String[0];
+        }
+
+        @Override
+        public Object newInstance() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void map(final Object entity, final SimpleResultSet simpleResultSet, final int[] positions) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    private static final ConcurrentMap<Class<?>, RowMapper<?>> MAPPERS = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the mapper which should be used for the entity class which it declares, replacing any mapper which
+     * was previously registered or discovered for that class
+     * @param rowMapper the mapper which should be registered
+     * @param <T> the type of the entity
+     */
+    public static <T> void register(final RowMapper<T> rowMapper) {
+        MAPPERS.put(rowMapper.getEntityClass(), rowMapper);
+    }
+
+    /**
+     * Returns the mapper for the specified entity class or null if the entity does not have one
+     * @param entityClass the class of the entity
+     * @param <T> the type of the entity
+     * @return the mapper for the specified entity class or null if the entity does not have one
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RowMapper<T> find(final Class<T> entityClass) {
+        RowMapper<?> rowMapper = MAPPERS.get(entityClass);
+
+        if (rowMapper == null) {
+            rowMapper = loadGeneratedMapper(entityClass);
+
+            RowMapper<?> existing = MAPPERS.putIfAbsent(entityClass, rowMapper);
+
+            if (existing != null) {
+                rowMapper = existing;
+            }
+        }
+
+        if (rowMapper == NONE) {
+            return null;
+        }
+
+        return (RowMapper<T>) rowMapper;
+    }
+
+    /**
+     * Returns the fully qualified name of the mapper which is generated for the specified entity
+     * @param packageName the package of the entity
+     * @param binaryName the binary name of the entity, without the package, such as Outer$Inner
+     * @return the fully qualified name of the generated mapper
+     */
+    public static String getGeneratedMapperName(final String packageName, final String binaryName) {
+        String simpleName = binaryName.replace('$', '_') + GENERATED_SUFFIX;
+
+        if (packageName.length() == 0) {
+            return simpleName;
+        }
+
+        return packageName + "." + simpleName;
+    }
+
+    /**
+     * Attempts to load and instantiate the generated mapper for the specified entity class
+     * @param entityClass the class of the entity
+     * @return the generated mapper or {@link #NONE} if the entity does not have one
+     */
+    private static RowMapper<?> loadGeneratedMapper(final Class<?> entityClass) {
+        String name = entityClass.getName();
+        int dot = name.lastIndexOf('.');
+        String packageName = dot == -1 ? "" : name.substring(0, dot);
+        String mapperName = getGeneratedMapperName(packageName, name.substring(dot + 1));
+
+        try {
+            ClassLoader classLoader = entityClass.getClassLoader();
+            Class<?> mapperClass = Class.forName(mapperName, true, classLoader != null ? classLoader : RowMapperRegistry.class.getClassLoader());
+            return (RowMapper<?>) mapperClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            return NONE;
+        }
+    }
+}
@@ -26,34 +26,372 @@ package co.lariat.jdbc;
  * #L%
  */
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
+ * Wraps a setter method so that it can be invoked repeatedly without the overhead of reflection. The setter is
+ * converted into an {@link Invoker} the first time it is wrapped, and every later wrapper of the same method shares
+ * that invoker. When the JVM provides
+ * {@link java.lang.invoke.LambdaMetafactory}, the invoker is a generated class which calls the setter directly and
+ * which the JIT is able to inline. Otherwise, it falls back to invoking a {@link java.lang.invoke.MethodHandle}.
+ * Setters which accept a primitive also get a primitive specific invoker, such as {@link LongInvoker}, so that
+ * values can be passed to them without being boxed.
+ *
  * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
  * @since 7/25/16 9:14 PM - Created with IntelliJ IDEA.
  */
-public class SetterMethod {
-    private Method method;
+public class SetterMethod implements PropertyWriter {
+    /**
+     * The generic type of the handle which is used to invoke the setter
+     */
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
 
-    public SetterMethod(final Method method) {
-        this.method = method;
-    }
+    /**
+     * True if the running JVM is able to generate invokers with {@link java.lang.invoke.LambdaMetafactory}
+     */
+    private static final boolean LAMBDA_METAFACTORY_AVAILABLE = isLambdaMetafactoryAvailable();
+
+    /**
+     * The invokers which have already been generated for each setter, keyed by the class which declares it, so that
+     * generated classes are only spun once per setter and are released along with the entity class
+     */
+    private static final ClassValue<Map<Method, Invokers>> INVOKERS = new ClassValue<Map<Method, Invokers>>() {
+        @Override
+        protected Map<Method, Invokers> computeValue(final Class<?> type) {
+            return Collections.synchronizedMap(new HashMap<Method, Invokers>());
+        }
+    };
+
+    private final Method method;
+    private final Class<?> argumentType;
+    private final MethodHandle handle;
+    private final Invoker invoker;
 
-    public Class getArgumentType() {
-        Class[] argTypes = method.getParameterTypes();
+    /**
+     * The primitive specific invoker, if the setter accepts a primitive, and null otherwise
+     */
+    private final Object primitiveInvoker;
+
+    public SetterMethod(final Method method) {
+        Class<?>[] argTypes = method.getParameterTypes();
 
         // Throw an exception if we didn't find exactly one argument
         if (argTypes.length != 1) {
             throw new UnsupportedOperationException("Setter methods must accept exactly one argument");
         }
 
-        // Return the argument class type
-        return argTypes[0];
+        this.method = method;
+        this.argumentType = argTypes[0];
+
+        Invokers invokers = findInvokers(method);
+        this.handle = invokers.handle;
+        this.invoker = invokers.invoker;
+        this.primitiveInvoker = invokers.primitiveInvoker;
+    }
+
+    /**
+     * Returns the invokers of the specified setter, generating them if they have not been generated already
+     * @param method the setter whose invokers should be returned
+     * @return the invokers of the specified setter
+     */
+    private static Invokers findInvokers(final Method method) {
+        Map<Method, Invokers> cache = INVOKERS.get(method.getDeclaringClass());
+        Invokers invokers = cache.get(method);
+
+        if (invokers == null) {
+            invokers = new Invokers(method);
+            cache.put(method, invokers);
+        }
+
+        return invokers;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public Class<?> getArgumentType() {
+        return argumentType;
+    }
+
+    /**
+     * Returns the method handle which invokes this setter, adapted to accept the entity and the value as objects
+     * @return the method handle which invokes this setter
+     */
+    public MethodHandle getHandle() {
+        return handle;
+    }
+
+    /**
+     * Returns the generic invoker of this setter, which is shared by every wrapper of the same method
+     * @return the generic invoker of this setter
+     */
+    Invoker getInvoker() {
+        return invoker;
     }
 
     public void invoke(Object instance, Object value) throws InvocationTargetException, IllegalAccessException {
-        method.invoke(instance, value);
+        // The invoker would otherwise fail to unbox null without saying which setter it was passed to
+        if (value == null && argumentType.isPrimitive()) {
+            throw new IllegalArgumentException("Cannot pass null to " + method + ", which accepts a primitive " + argumentType.getName());
+        }
+
+        try {
+            invoker.invoke(instance, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // Incompatible values surface from inside the invoker, so they are wrapped along with everything else
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    public void invokeLong(Object instance, long value) throws InvocationTargetException {
+        try {
+            ((LongInvoker) primitiveInvoker).invoke(instance, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    public void invokeInt(Object instance, int value) throws InvocationTargetException {
+        try {
+            ((IntInvoker) primitiveInvoker).invoke(instance, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    public void invokeShort(Object instance, short value) throws InvocationTargetException {
+        try {
+            ((ShortInvoker) primitiveInvoker).invoke(instance, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    public void invokeByte(Object instance, byte value) throws InvocationTargetException {
+        try {
+            ((ByteInvoker) primitiveInvoker).invoke(instance, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    public void invokeDouble(Object instance, double value) throws InvocationTargetException {
+        try {
+            ((DoubleInvoker) primitiveInvoker).invoke(instance, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    public void invokeFloat(Object instance, float value) throws InvocationTargetException {
+        try {
+            ((FloatInvoker) primitiveInvoker).invoke(instance, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    public void invokeBoolean(Object instance, boolean value) throws InvocationTargetException {
+        try {
+            ((BooleanInvoker) primitiveInvoker).invoke(instance, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * Converts the specified method into a method handle. Methods which are public but which are declared by a class
+     * which is not, such as a package private entity, are made accessible first.
+     * @param method the method which should be converted
+     * @return the method handle which invokes the method
+     */
+    private static MethodHandle unreflect(final Method method) {
+        try {
+            return MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            try {
+                method.setAccessible(true);
+                return MethodHandles.lookup().unreflect(method);
+            } catch (IllegalAccessException | RuntimeException e2) {
+                throw new UnsupportedOperationException("Cannot access setter method: " + method, e2);
+            }
+        }
+    }
+
+    /**
+     * Creates the invoker which passes values of the specified primitive type to the setter without boxing them
+     * @param primitiveType the primitive type which the setter accepts
+     * @param directHandle the unadapted handle of the setter
+     * @return the primitive specific invoker or null if the primitive type is not supported
+     */
+    private static Object createPrimitiveInvoker(final Class<?> primitiveType, final MethodHandle directHandle) {
+        MethodType type = MethodType.methodType(void.class, Object.class, primitiveType);
+        final MethodHandle handle = directHandle.asType(type);
+
+        if (primitiveType == long.class) {
+            Object invoker = generateInvoker(LongInvoker.class, type, directHandle);
+
+            return invoker != null ? invoker : new LongInvoker() {
+                @Override
+                public void invoke(final Object instance, final long value) throws Throwable {
+                    handle.invokeExact(instance, value);
+                }
+            };
+        } else if (primitiveType == int.class) {
+            Object invoker = generateInvoker(IntInvoker.class, type, directHandle);
+
+            return invoker != null ? invoker : new IntInvoker() {
+                @Override
+                public void invoke(final Object instance, final int value) throws Throwable {
+                    handle.invokeExact(instance, value);
+                }
+            };
+        } else if (primitiveType == short.class) {
+            Object invoker = generateInvoker(ShortInvoker.class, type, directHandle);
+
+            return invoker != null ? invoker : new ShortInvoker() {
+                @Override
+                public void invoke(final Object instance, final short value) throws Throwable {
+                    handle.invokeExact(instance, value);
+                }
+            };
+        } else if (primitiveType == byte.class) {
+            Object invoker = generateInvoker(ByteInvoker.class, type, directHandle);
+
+            return invoker != null ? invoker : new ByteInvoker() {
+                @Override
+                public void invoke(final Object instance, final byte value) throws Throwable {
+                    handle.invokeExact(instance, value);
+                }
+            };
+        } else if (primitiveType == double.class) {
+            Object invoker = generateInvoker(DoubleInvoker.class, type, directHandle);
+
+            return invoker != null ? invoker : new DoubleInvoker() {
+                @Override
+                public void invoke(final Object instance, final double value) throws Throwable {
+                    handle.invokeExact(instance, value);
+                }
+            };
+        } else if (primitiveType == float.class) {
+            Object invoker = generateInvoker(FloatInvoker.class, type, directHandle);
+
+            return invoker != null ? invoker : new FloatInvoker() {
+                @Override
+                public void invoke(final Object instance, final float value) throws Throwable {
+                    handle.invokeExact(instance, value);
+                }
+            };
+        } else if (primitiveType == boolean.class) {
+            Object invoker = generateInvoker(BooleanInvoker.class, type, directHandle);
+
+            return invoker != null ? invoker : new BooleanInvoker() {
+                @Override
+                public void invoke(final Object instance, final boolean value) throws Throwable {
+                    handle.invokeExact(instance, value);
+                }
+            };
+        }
+
+        return null;
+    }
+
+    /**
+     * Generates an implementation of the specified invoker interface, which calls the setter directly, with
+     * {@link java.lang.invoke.LambdaMetafactory}. This is not possible when the setter is declared by a class which
+     * is not public, in which case the caller must fall back to invoking a method handle.
+     * @param invokerInterface the invoker interface which should be implemented
+     * @param invokerType the type of the invoke method of the interface
+     * @param directHandle the unadapted handle of the setter
+     * @return the generated invoker or null if one cannot be generated
+     */
+    private static Object generateInvoker(final Class<?> invokerInterface, final MethodType invokerType, final MethodHandle directHandle) {
+        if (!LAMBDA_METAFACTORY_AVAILABLE) {
+            return null;
+        }
+
+        try {
+            CallSite callSite = LambdaMetafactory.metafactory(
+                MethodHandles.lookup(),
+                "invoke",
+                MethodType.methodType(invokerInterface),
+                invokerType,
+                directHandle,
+                directHandle.type()
+            );
+
+            return callSite.getTarget().invoke();
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns true if {@link java.lang.invoke.LambdaMetafactory} exists on the classpath and false otherwise
+     * @return true if {@link java.lang.invoke.LambdaMetafactory} exists on the classpath and false otherwise
+     */
+    private static boolean isLambdaMetafactoryAvailable() {
+        try {
+            Class.forName("java.lang.invoke.LambdaMetafactory");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * The handle and invokers which are generated for a setter
+     */
+    private static final class Invokers {
+        private final MethodHandle handle;
+        private final Invoker invoker;
+        private final Object primitiveInvoker;
+
+        private Invokers(final Method method) {
+            Class<?> argumentType = method.getParameterTypes()[0];
+            final MethodHandle directHandle = unreflect(method);
+            this.handle = directHandle.asType(SETTER_TYPE);
+
+            Invoker genericInvoker = (Invoker) generateInvoker(Invoker.class, SETTER_TYPE, directHandle);
+
+            if (genericInvoker == null) {
+                genericInvoker = new Invoker() {
+                    @Override
+                    public void invoke(final Object instance, final Object value) throws Throwable {
+                        handle.invokeExact(instance, value);
+                    }
+                };
+            }
+
+            this.invoker = genericInvoker;
+            this.primitiveInvoker = argumentType.isPrimitive() ? createPrimitiveInvoker(argumentType, directHandle) : null;
+        }
     }
 
     @Override
@@ -62,4 +400,60 @@ public class SetterMethod {
             "method=" + method +
             '}';
     }
+
+    /**
+     * Invokes a setter with an entity and a value
+     */
+    public interface Invoker {
+        void invoke(final Object instance, final Object value) throws Throwable;
+    }
+
+    /**
+     * Invokes a setter which accepts a long without boxing the value
+     */
+    public interface LongInvoker {
+        void invoke(final Object instance, final long value) throws Throwable;
+    }
+
+    /**
+     * Invokes a setter which accepts an int without boxing the value
+     */
+    public interface IntInvoker {
+        void invoke(final Object instance, final int value) throws Throwable;
+    }
+
+    /**
+     * Invokes a setter which accepts a short without boxing the value
+     */
+    public interface ShortInvoker {
+        void invoke(final Object instance, final short value) throws Throwable;
+    }
+
+    /**
+     * Invokes a setter which accepts a byte without boxing the value
+     */
+    public interface ByteInvoker {
+        void invoke(final Object instance, final byte value) throws Throwable;
+    }
+
+    /**
+     * Invokes a setter which accepts a double without boxing the value
+     */
+    public interface DoubleInvoker {
+        void invoke(final Object instance, final double value) throws Throwable;
+    }
+
+    /**
+     * Invokes a setter which accepts a float without boxing the value
+     */
+    public interface FloatInvoker {
+        void invoke(final Object instance, final float value) throws Throwable;
+    }
+
+    /**
+     * Invokes a setter which accepts a boolean without boxing the value
+     */
+    public interface BooleanInvoker {
+        void invoke(final Object instance, final boolean value) throws Throwable;
+    }
 }
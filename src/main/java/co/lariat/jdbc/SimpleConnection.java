@@ -27,17 +27,18 @@ package co.lariat.jdbc;
  */
 
 
-import javax.persistence.Entity;
 import javax.sql.DataSource;
 import java.io.InputStream;
 import java.io.Reader;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Type;
+import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
 import java.net.URL;
 import java.sql.Connection;
 import java.sql.Ref;
+import java.sql.ResultSet;
 import java.sql.Array;
 import java.sql.Blob;
 import java.sql.CallableStatement;
@@ -56,12 +57,19 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.WeakHashMap;
 import java.util.concurrent.Executor;
 
 /**
@@ -76,11 +84,145 @@ import java.util.concurrent.Executor;
  * @since 9/14/15 3:26 PM - Created with IntelliJ IDEA.
  */
 public abstract class SimpleConnection implements Connection {
+    /**
+     * The maximum number of plans of each kind which are cached, beyond which the least recently used are discarded
+     */
+    public static final int PLAN_CACHE_SIZE = 512;
+
+    /**
+     * Mapping plans which have already been compiled, keyed by entity class and result set shape
+     */
+    private static final Map<MappingPlan.Key, MappingPlan> MAPPING_PLANS = newPlanCache();
+
+    /**
+     * Projection plans which have already been compiled, keyed by projection interface and result set shape
+     */
+    private static final Map<MappingPlan.Key, ProjectionPlan> PROJECTION_PLANS = newPlanCache();
+
+    /**
+     * Binding plans which have already been compiled, keyed by entity class and parameter names
+     */
+    private static final Map<MappingPlan.Key, BindingPlan> BINDING_PLANS = newPlanCache();
+
+    /**
+     * Writers for generated keys which have already been resolved, keyed by entity class and id property
+     */
+    private static final Map<MappingPlan.Key, PropertyWriter> GENERATED_KEY_WRITERS = newPlanCache();
+
+    /**
+     * The primitive equivalent of each boxed type
+     */
+    private static final Map<Class<?>, Class<?>> PRIMITIVE_TYPES = new HashMap<>();
+
+    static {
+        PRIMITIVE_TYPES.put(Long.class, long.class);
+        PRIMITIVE_TYPES.put(Integer.class, int.class);
+        PRIMITIVE_TYPES.put(Short.class, short.class);
+        PRIMITIVE_TYPES.put(Byte.class, byte.class);
+        PRIMITIVE_TYPES.put(Double.class, double.class);
+        PRIMITIVE_TYPES.put(Float.class, float.class);
+        PRIMITIVE_TYPES.put(Boolean.class, boolean.class);
+    }
+
+    /**
+     * Creates a plan cache which discards its least recently used plan once it holds more than
+     * {@link #PLAN_CACHE_SIZE} plans, so that classes whose plans are no longer used can be unloaded
+     * @return an empty, synchronized plan cache
+     */
+    private static <V> Map<MappingPlan.Key, V> newPlanCache() {
+        return Collections.synchronizedMap(new LinkedHashMap<MappingPlan.Key, V>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<MappingPlan.Key, V> eldest) {
+                return size() > PLAN_CACHE_SIZE;
+            }
+        });
+    }
+
+    /**
+     * Adds the specified plan to the specified cache unless another thread has already cached a plan for the same key
+     * @param cache the cache to which the plan should be added
+     * @param key the key of the plan
+     * @param plan the plan which has just been compiled
+     * @return the plan which was already cached, or null if the specified plan was added
+     */
+    private static <V> V cachePlan(final Map<MappingPlan.Key, V> cache, final MappingPlan.Key key, final V plan) {
+        synchronized (cache) {
+            V existing = cache.get(key);
+
+            if (existing == null) {
+                cache.put(key, plan);
+            }
+
+            return existing;
+        }
+    }
+
+    /**
+     * The default maximum number of rows which are sent to the database in a single batch
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
     /**
      * The connection which should be used to interact with the database
      */
     private Connection connection;
 
+    /**
+     * Determines how query results are injected into entities which do not declare an access mode of their own
+     */
+    private AccessMode accessMode = AccessMode.PROPERTY;
+
+    /**
+     * The maximum number of values which a collection argument is expanded into before it is split across queries
+     */
+    private int inListChunkSize = ExpandedSql.DEFAULT_CHUNK_SIZE;
+
+    /**
+     * True if the fetchAll, fetchList and forEachRow methods may split large collection arguments across queries
+     */
+    private boolean splitInLists = false;
+
+    /**
+     * True if nulls and values without a specific binder should be bound with the types reported by the driver
+     */
+    private boolean typedParameters = false;
+
+    /**
+     * The parameter types of the statements which have been prepared by this connection while typed parameters are
+     * enabled. Statements are weakly referenced so that they do not need to be removed when they are closed.
+     */
+    private final Map<PreparedStatement, int[]> statementParameterTypes = new WeakHashMap<>();
+
+    /**
+     * Identifies the database in the cache of parameter types, which is shared by every connection
+     */
+    private String parameterTypesScope;
+
+    /**
+     * The statements which have been prepared by this connection and which may be reused, which is disabled by default
+     */
+    private final StatementCache statementCache = new StatementCache(0);
+
+    /**
+     * The maximum number of rows which are sent to the database in a single batch
+     */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * The number of rows which the streaming methods ask the driver to fetch at a time, or zero for the default
+     */
+    private int fetchSize = 0;
+
+    /**
+     * The vendor of the database, which is resolved from its url the first time that it is needed
+     */
+    private Vendor vendor;
+
+    /**
+     * True if the driver is able to return generated keys, which is resolved the first time that it is needed
+     */
+    private Boolean generatedKeysSupported;
+
     /**
      * Construct an instance of this class and use the provided {@link javax.sql.DataSource} to obtain
      * a {@link java.sql.Connection}
@@ -99,6 +241,221 @@ public abstract class SimpleConnection implements Connection {
         this.connection = connection;
     }
 
+    /**
+     * Returns how query results are injected into entities which do not declare an access mode of their own
+     * @return how query results are injected into entities
+     */
+    public AccessMode getAccessMode() {
+        return accessMode;
+    }
+
+    /**
+     * Sets how query results are injected into entities which do not declare an access mode of their own, with
+     * {@link JdbcSimpleEntity#access()}. {@link AccessMode#FIELD} writes columns directly to fields and honors
+     * javax.persistence.Column annotations on JPA entities.
+     * @param accessMode how query results should be injected into entities
+     */
+    public void setAccessMode(final AccessMode accessMode) {
+        this.accessMode = accessMode;
+    }
+
+    public int getInListChunkSize() {
+        return inListChunkSize;
+    }
+
+    /**
+     * Sets the maximum number of values which a collection argument is expanded into. Larger collections are rejected
+     * unless {@link #setSplitInLists(boolean)} has been enabled.
+     * @param inListChunkSize the maximum number of values in a single IN list
+     */
+    public void setInListChunkSize(final int inListChunkSize) {
+        this.inListChunkSize = inListChunkSize;
+    }
+
+    public boolean isSplitInLists() {
+        return splitInLists;
+    }
+
+    /**
+     * Enables or disables the splitting of large collection arguments. When it is enabled, the fetchAll, fetchList and
+     * forEachRow methods split a collection which is larger than the chunk size into chunks, run one query per chunk
+     * and combine the results. This is only correct for a plain IN filter, since aggregates, DISTINCT, ORDER BY and
+     * LIMIT are applied to each chunk separately, so it is disabled by default and such collections are rejected.
+     * Collections in a NOT IN list are never split, and statements which are run with execute() are never split either.
+     * @param splitInLists true if large collection arguments may be split across queries
+     */
+    public void setSplitInLists(final boolean splitInLists) {
+        this.splitInLists = splitInLists;
+    }
+
+    public boolean isTypedParameters() {
+        return typedParameters;
+    }
+
+    /**
+     * Enables or disables typed parameters. When they are enabled, the parameter types of each statement which is
+     * prepared by this connection are taken from its {@link java.sql.ParameterMetaData}, which is cached per sql
+     * text. Nulls are then bound with the type of their parameter, rather than {@link Types#NULL}, and values which
+     * would otherwise be passed to setObject() are bound with the type of their parameter as well. This avoids the
+     * re-planning and type inference which some drivers perform for untyped nulls. Typed parameters are disabled by
+     * default because describing a statement costs a round trip on some drivers, the first time that it is prepared.
+     * @param typedParameters true if parameters should be bound with the types reported by the driver
+     */
+    public void setTypedParameters(final boolean typedParameters) {
+        this.typedParameters = typedParameters;
+    }
+
+    /**
+     * Records the parameter types of the specified statement, if typed parameters are enabled, so that its arguments
+     * can be bound with the correct types
+     * @param sql the sql of the statement
+     * @param statement the statement which has just been prepared
+     * @param <S> the type of the statement
+     * @return the statement
+     * @throws SQLException thrown when something exceptional happens
+     */
+    protected <S extends PreparedStatement> S describeParameters(final String sql, final S statement) throws SQLException {
+        if (typedParameters) {
+            if (parameterTypesScope == null) {
+                parameterTypesScope = connection.getMetaData().getURL();
+            }
+
+            int[] types = ParameterTypes.resolve(parameterTypesScope, sql, statement);
+
+            if (types.length > 0) {
+                statementParameterTypes.put(statement, types);
+            }
+        }
+
+        return statement;
+    }
+
+    /**
+     * Returns the parameter types which were recorded for the specified statement when it was prepared
+     * @param statement the statement whose parameter types should be returned
+     * @return the parameter types of the statement or null if typed parameters are disabled or none were recorded
+     */
+    protected int[] getParameterTypes(final PreparedStatement statement) {
+        return typedParameters ? statementParameterTypes.get(statement) : null;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the maximum number of rows which {@link #executeBatch(String, Iterable)} sends to the database at a time
+     * @param batchSize the maximum number of rows in a single batch
+     */
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Sets the number of rows which the driver is asked to fetch from the database at a time by the streaming methods,
+     * such as {@link #streamEntity(Class, String, Object...)} and {@link #forEachRow(String, RowCallback, Object...)},
+     * or zero, which is the default, to use the default of the
+     * driver. Some drivers ignore this in certain circumstances. PostgreSQL, for example, reads the whole result unless
+     * auto-commit is disabled.
+     * @param fetchSize the number of rows which are fetched at a time
+     */
+    public void setFetchSize(final int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCache.getMaxSize();
+    }
+
+    /**
+     * Sets the maximum number of prepared statements which this connection keeps open for reuse, or zero, which is the
+     * default, to close every statement after it has been used. The statements of the methods which accept sql and
+     * consume their results before they return, such as fetchAllEntity(), fetchString() and execute(), are reused.
+     * Statements which are returned to the caller, or whose results are returned to the caller, are not.
+     * @param statementCacheSize the maximum number of statements which are kept open for reuse
+     */
+    public void setStatementCacheSize(final int statementCacheSize) {
+        statementCache.setMaxSize(statementCacheSize);
+    }
+
+    /**
+     * Returns the statement cache of this connection, which reports its hits, misses and evictions
+     * @return the statement cache of this connection
+     */
+    public StatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    /**
+     * Returns a statement for the specified sql, which is taken from the statement cache if there is an idle one in
+     * it. The statement must be passed to {@link #releaseStatement(PreparedStatement)} once its results have been
+     * consumed.
+     * @param sql the sql of the statement
+     * @param callable true if the statement should be prepared with prepareCall()
+     * @return the statement
+     * @throws SQLException thrown when something exceptional happens
+     */
+    protected PreparedStatement prepareCachedStatement(final String sql, final boolean callable) throws SQLException {
+        if (statementCache.getMaxSize() <= 0) {
+            return callable ? prepareCall(sql) : prepareStatement(sql);
+        }
+
+        StatementCache.Key key = new StatementCache.Key(sql, callable, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        PreparedStatement statement = statementCache.acquire(key);
+
+        if (statement == null) {
+            statement = callable ? prepareCall(sql) : prepareStatement(sql);
+            statementCache.track(key, statement);
+        }
+
+        return statement;
+    }
+
+    /**
+     * Returns the specified statement to the statement cache, or closes it if it did not come from the cache
+     * @param statement the statement which is no longer in use
+     */
+    protected void releaseStatement(final PreparedStatement statement) {
+        statementCache.release(statement);
+    }
+
+    /**
+     * Expands the collection arguments of the specified sql into lists of positional parameters
+     * @param sql the sql which should be expanded
+     * @param arguments the arguments of the sql, some of which are collections
+     * @return the expanded sql and arguments
+     * @throws SQLException thrown when a collection is too large to be expanded into a single statement
+     */
+    protected ExpandedSql expandInLists(final String sql, final Object[] arguments) throws SQLException {
+        List<ExpandedSql> chunks = ExpandedSql.expand(sql, arguments, inListChunkSize);
+
+        if (chunks.size() > 1) {
+            throw new SQLException("A collection argument has more than " + inListChunkSize + " values, which must be split across queries: " + sql);
+        }
+
+        return chunks.get(0);
+    }
+
+    /**
+     * Expands the collection arguments of the specified sql into one statement per chunk of the largest collection,
+     * if splitting is enabled, and into a single statement otherwise
+     * @param sql the sql which should be expanded
+     * @param arguments the arguments of the sql, some of which are collections
+     * @return the expanded statements
+     * @throws SQLException thrown when a collection is too large and splitting is disabled, or cannot be split
+     */
+    protected List<ExpandedSql> expandInListChunks(final String sql, final Object[] arguments) throws SQLException {
+        if (!splitInLists) {
+            return Collections.singletonList(expandInLists(sql, arguments));
+        }
+
+        return ExpandedSql.expand(sql, arguments, inListChunkSize);
+    }
+
     /**
      * Prepares the specified sql statement for execution and bind the provided arguments to it
      * @param sql the sql which should be prepared
@@ -107,7 +464,12 @@ public abstract class SimpleConnection implements Connection {
      * @throws SQLException thrown when something exceptional happens
      */
     public PreparedStatement prepareStatement(final String sql, final Object... arguments) throws SQLException {
-        return bindArguments(connection.prepareStatement(sql), arguments);
+        if (ExpandedSql.isExpandable(arguments)) {
+            ExpandedSql expanded = expandInLists(sql, arguments);
+            return prepareStatement(expanded.getSql(), expanded.getArguments());
+        }
+
+        return bindArguments(prepareStatement(sql), arguments);
     }
 
     /**
@@ -127,6 +489,11 @@ public abstract class SimpleConnection implements Connection {
      * @throws SQLException thrown when something exceptional happens
      */
     public SimpleResultSet fetch(final String sql, final Object... arguments) throws SQLException {
+        if (ExpandedSql.isExpandable(arguments)) {
+            ExpandedSql expanded = expandInLists(sql, arguments);
+            return fetch(expanded.getSql(), expanded.getArguments());
+        }
+
         PreparedStatement statement = prepareStatement(sql);
         SimpleResultSet resultSet = fetch(statement, arguments);
         DB.closeStatement(statement); // Close this here because a reference to it isn't available outside of this method
@@ -150,14 +517,18 @@ public abstract class SimpleConnection implements Connection {
     }
 
     public <T> T fetch(final ResultSetHandler<T> handler, final String sql, final Object ... arguments) throws SQLException {
-        PreparedStatement statement = prepareCall(sql);
-
-        T value = fetch(handler, statement, arguments);
+        if (ExpandedSql.isExpandable(arguments)) {
+            ExpandedSql expanded = expandInLists(sql, arguments);
+            return fetch(handler, expanded.getSql(), expanded.getArguments());
+        }
 
-        // Close this here because a reference to it isn't returned
-        DB.closeStatement(statement);
+        PreparedStatement statement = prepareCachedStatement(sql, true);
 
-        return value;
+        try {
+            return fetch(handler, statement, arguments);
+        } finally {
+            releaseStatement(statement); // Release this here because a reference to it isn't returned
+        }
     }
 
     public <T> T fetch(final ResultSetHandler<T> handler, final PreparedStatement statement, final Object ... arguments) throws SQLException {
@@ -177,13 +548,23 @@ public abstract class SimpleConnection implements Connection {
     }
 
     public List<Integer> fetchListInteger(final String sql, final Object... arguments) throws SQLException {
-        PreparedStatement statement = prepareStatement(sql);
-        List<Integer> list = fetchListInteger(statement, arguments);
+        if (ExpandedSql.isExpandable(arguments)) {
+            List<Integer> values = new ArrayList<>();
 
-        // Close this here because a reference to it isn't returned
-        DB.closeStatement(statement);
+            for (ExpandedSql chunk : expandInListChunks(sql, arguments)) {
+                values.addAll(fetchListInteger(chunk.getSql(), chunk.getArguments()));
+            }
 
-        return list;
+            return values;
+        }
+
+        PreparedStatement statement = prepareCachedStatement(sql, false);
+
+        try {
+            return fetchListInteger(statement, arguments);
+        } finally {
+            releaseStatement(statement); // Release this here because a reference to it isn't returned
+        }
     }
 
     public List<Integer> fetchListInteger(final PreparedStatement statement, final Object... arguments) throws SQLException {
@@ -210,13 +591,23 @@ public abstract class SimpleConnection implements Connection {
     }
 
     public List<Long> fetchListLong(final String sql, final Object... arguments) throws SQLException {
-        PreparedStatement statement = prepareStatement(sql);
-        List<Long> list = fetchListLong(statement, arguments);
+        if (ExpandedSql.isExpandable(arguments)) {
+            List<Long> values = new ArrayList<>();
 
-        // Close this here because a reference to it isn't returned
-        DB.closeStatement(statement);
+            for (ExpandedSql chunk : expandInListChunks(sql, arguments)) {
+                values.addAll(fetchListLong(chunk.getSql(), chunk.getArguments()));
+            }
 
-        return list;
+            return values;
+        }
+
+        PreparedStatement statement = prepareCachedStatement(sql, false);
+
+        try {
+            return fetchListLong(statement, arguments);
+        } finally {
+            releaseStatement(statement); // Release this here because a reference to it isn't returned
+        }
     }
 
     public List<Long> fetchListLong(final PreparedStatement statement, final Object... arguments) throws SQLException {
@@ -242,6 +633,89 @@ public abstract class SimpleConnection implements Connection {
         return list;
     }
 
+    /**
+     * Returns the first column of every row of the results of the provided sql and arguments as an array of primitive
+     * longs. The values are collected into a growable array rather than a list, so that nothing is boxed. Nulls are
+     * read as zero.
+     * @param sql the sql query which should be executed
+     * @param arguments the arguments which should be bound to the query
+     * @return the values of the first column, which is empty if there are no rows
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public long[] fetchLongArray(final String sql, final Object... arguments) throws SQLException {
+        LongArrayCallback callback = new LongArrayCallback();
+        forEachRow(sql, callback, arguments);
+        return callback.toArray();
+    }
+
+    public long[] fetchLongArray(final PreparedStatement statement, final Object... arguments) throws SQLException {
+        LongArrayCallback callback = new LongArrayCallback();
+        forEachRow(statement, callback, arguments);
+        return callback.toArray();
+    }
+
+    /**
+     * Returns the first column of every row of the results of the provided sql and arguments as an array of primitive
+     * ints. See {@link #fetchLongArray(String, Object...)}.
+     * @param sql the sql query which should be executed
+     * @param arguments the arguments which should be bound to the query
+     * @return the values of the first column, which is empty if there are no rows
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public int[] fetchIntArray(final String sql, final Object... arguments) throws SQLException {
+        IntArrayCallback callback = new IntArrayCallback();
+        forEachRow(sql, callback, arguments);
+        return callback.toArray();
+    }
+
+    public int[] fetchIntArray(final PreparedStatement statement, final Object... arguments) throws SQLException {
+        IntArrayCallback callback = new IntArrayCallback();
+        forEachRow(statement, callback, arguments);
+        return callback.toArray();
+    }
+
+    /**
+     * Returns the first column of every row of the results of the provided sql and arguments as an array of primitive
+     * doubles. See {@link #fetchLongArray(String, Object...)}.
+     * @param sql the sql query which should be executed
+     * @param arguments the arguments which should be bound to the query
+     * @return the values of the first column, which is empty if there are no rows
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public double[] fetchDoubleArray(final String sql, final Object... arguments) throws SQLException {
+        DoubleArrayCallback callback = new DoubleArrayCallback();
+        forEachRow(sql, callback, arguments);
+        return callback.toArray();
+    }
+
+    public double[] fetchDoubleArray(final PreparedStatement statement, final Object... arguments) throws SQLException {
+        DoubleArrayCallback callback = new DoubleArrayCallback();
+        forEachRow(statement, callback, arguments);
+        return callback.toArray();
+    }
+
+    /**
+     * Returns the distinct values of the first column of the results of the provided sql and arguments as a set of
+     * primitive longs, which is much smaller than a set of {@link Long}. Nulls are read as zero.
+     * @param sql the sql query which should be executed
+     * @param arguments the arguments which should be bound to the query
+     * @return the distinct values of the first column
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public LongHashSet fetchLongSet(final String sql, final Object... arguments) throws SQLException {
+        final LongHashSet set = new LongHashSet();
+
+        forEachRow(sql, new RowCallback<SimpleResultSet>() {
+            @Override
+            public boolean process(final SimpleResultSet row) throws SQLException {
+                set.add(row.getLong(1));
+                return true;
+            }
+        }, arguments);
+
+        return set;
+    }
+
     /**
      * Exceutes the procided statement
      * @param statement the statement which should be executed
@@ -262,10 +736,18 @@ public abstract class SimpleConnection implements Connection {
      * @throws SQLException thrown when something exceptional happens
      */
     public boolean execute(final String sql, final Object... arguments) throws SQLException {
-        PreparedStatement statement = prepareStatement(sql);
-        boolean results = execute(statement, arguments);
-        DB.closeStatement(statement); // Close this here because a reference to it isn't returned
-        return results;
+        if (ExpandedSql.isExpandable(arguments)) {
+            ExpandedSql expanded = expandInLists(sql, arguments);
+            return execute(expanded.getSql(), expanded.getArguments());
+        }
+
+        PreparedStatement statement = prepareCachedStatement(sql, false);
+
+        try {
+            return execute(statement, arguments);
+        } finally {
+            releaseStatement(statement); // Release this here because a reference to it isn't returned
+        }
     }
 
     /**
@@ -280,193 +762,1915 @@ public abstract class SimpleConnection implements Connection {
     }
 
     /**
-     * Returns a list of entities which are instances of the specified class and which have been populated by the
-     * provided sql and arguments.
-     * @param clazz the class type of the entities which should be returned
-     * @param sql the sql which should be used to obtain data from the database
-     * @param arguments the arguments which should be bound to the query
-     * @param <T> the generic type of the entities which should be returned
-     * @return a list of entities which have the results of the query injected into them
+     * Executes the provided sql once for each of the provided rows of arguments. The rows are sent to the database in
+     * batches of at most {@link #getBatchSize()} rows, so that the rows do not all need to be held in memory at once.
+     * If auto-commit is enabled, then every batch is executed within a single transaction which is rolled back if any
+     * of them fail. Otherwise, the batches are executed within the current transaction, such as one which was started
+     * with {@link AbstractJdbcDao#begin()}.
+     * @param sql the sql which should be executed
+     * @param rows the arguments which should be bound to the statement for each row
+     * @return the update count of each row, in the order in which the rows were provided
      * @throws SQLException thrown when something exceptional happens
      */
-    public <T> List<T> fetchAllEntity(final Class<T> clazz, final String sql, final Object... arguments) throws SQLException {
-        PreparedStatement statement = prepareStatement(sql);
-        List<T> list = fetchAllEntity(clazz, statement, arguments);
-        DB.closeStatement(statement); // Close this here because a reference to it isn't returned
-        return list;
+    public int[] executeBatch(final String sql, final Iterable<Object[]> rows) throws SQLException {
+        PreparedStatement statement = prepareCachedStatement(sql, false);
+
+        try {
+            return executeBatch(statement, rows);
+        } finally {
+            releaseStatement(statement);
+        }
     }
 
-    public <T> List<T> fetchAllEntity(final Class<T> clazz, final PreparedStatement statement, final Object... arguments) throws SQLException {
-        // Attempt to bind the arguments to the query
-        bindArguments(statement, arguments);
+    /**
+     * Executes the provided statement once for each of the provided rows of arguments, in batches of at most
+     * {@link #getBatchSize()} rows. If auto-commit is enabled, then every batch is executed within a single
+     * transaction which is rolled back if any of them fail.
+     * @param statement the statement which should be executed
+     * @param rows the arguments which should be bound to the statement for each row
+     * @return the update count of each row, in the order in which the rows were provided
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public int[] executeBatch(final PreparedStatement statement, final Iterable<Object[]> rows) throws SQLException {
+        return executeBatch(statement, rows, batchSize, null);
+    }
+
+    /**
+     * Executes the provided statement once for each of the provided rows of arguments, in batches of at most the
+     * specified number of rows, and notifies the provided callback after each batch
+     * @param statement the statement which should be executed
+     * @param rows the arguments which should be bound to the statement for each row
+     * @param batchSize the maximum number of rows in a single batch
+     * @param callback notified after each batch has been executed, or null
+     * @return the update count of each row, in the order in which the rows were provided
+     * @throws SQLException thrown when something exceptional happens
+     */
+    protected int[] executeBatch(final PreparedStatement statement, final Iterable<Object[]> rows, final int batchSize, final BatchCallback callback) throws SQLException {
+        if (batchSize < 1) {
+            throw new SQLException("The batch size must be positive: " + batchSize);
+        }
+
+        boolean autoCommit = getAutoCommit();
+
+        if (autoCommit) {
+            setAutoCommit(false);
+        }
+
+        try {
+            int[] updateCounts = new int[16];
+            int rowCount = 0;
+            int pending = 0;
+
+            for (Object[] row : rows) {
+                bindArguments(statement, row).addBatch();
+
+                if (++pending == batchSize) {
+                    updateCounts = appendUpdateCounts(updateCounts, rowCount, statement.executeBatch());
+
+                    if (callback != null) {
+                        callback.afterBatch(statement, rowCount, pending);
+                    }
+
+                    rowCount += pending;
+                    pending = 0;
+                }
+            }
+
+            if (pending > 0) {
+                updateCounts = appendUpdateCounts(updateCounts, rowCount, statement.executeBatch());
+
+                if (callback != null) {
+                    callback.afterBatch(statement, rowCount, pending);
+                }
+
+                rowCount += pending;
+            }
+
+            if (autoCommit) {
+                commit();
+            }
+
+            return Arrays.copyOf(updateCounts, rowCount);
+        } catch (SQLException | RuntimeException e) {
+            if (autoCommit) {
+                rollback();
+            }
+
+            throw e;
+        } finally {
+            if (autoCommit) {
+                setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Executes the provided insert, which inserts a single row, once for each of the provided rows of arguments. When
+     * the database supports it, the insert is rewritten to insert many rows at once, such as
+     * <i>insert into users(id, username) values(?, ?), (?, ?), (?, ?)</i>, which is much faster than a batch on
+     * drivers which send the statements of a batch to the database one at a time. The number of rows in each
+     * statement is limited by {@link #getBatchSize()} and by the maximum number of parameters which the database
+     * accepts in a single statement. Otherwise, the rows are executed as a batch with
+     * {@link #executeBatch(String, Iterable)}. Either way, if auto-commit is enabled, then every row is inserted
+     * within a single transaction.
+     * @param sql the insert of a single row
+     * @param rows the arguments which should be bound to the insert for each row
+     * @return the update count of each row, in the order in which the rows were provided, which is
+     * {@link Statement#SUCCESS_NO_INFO} for rows whose statement did not report that every one of its rows was inserted
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public int[] executeInsertBatch(final String sql, final Iterable<Object[]> rows) throws SQLException {
+        MultiRowInsert insert = MultiRowInsert.parse(sql);
+        int parameterLimit = getParameterLimit();
+
+        // There is nothing to gain unless a statement can hold at least two rows
+        if (insert == null || parameterLimit < insert.getParameterCount() * 2 || batchSize < 2) {
+            return executeBatch(sql, rows);
+        }
+
+        int parameterCount = insert.getParameterCount();
+        int rowsPerStatement = Math.min(batchSize, parameterLimit / parameterCount);
+        boolean autoCommit = getAutoCommit();
+
+        if (autoCommit) {
+            setAutoCommit(false);
+        }
+
+        try {
+            Object[] arguments = new Object[rowsPerStatement * parameterCount];
+            int[] updateCounts = new int[16];
+            int rowCount = 0;
+            int pending = 0;
+
+            for (Object[] row : rows) {
+                if (row.length != parameterCount) {
+                    throw new SQLException("Expected " + parameterCount + " arguments but found " + row.length + " in row " + (rowCount + pending));
+                }
+
+                System.arraycopy(row, 0, arguments, pending * parameterCount, parameterCount);
+
+                if (++pending == rowsPerStatement) {
+                    updateCounts = appendUpdateCounts(updateCounts, rowCount, executeMultiRowInsert(insert, arguments, pending));
+                    rowCount += pending;
+                    pending = 0;
+                }
+            }
+
+            if (pending > 0) {
+                Object[] remaining = Arrays.copyOf(arguments, pending * parameterCount);
+                updateCounts = appendUpdateCounts(updateCounts, rowCount, executeMultiRowInsert(insert, remaining, pending));
+                rowCount += pending;
+            }
+
+            if (autoCommit) {
+                commit();
+            }
+
+            return Arrays.copyOf(updateCounts, rowCount);
+        } catch (SQLException | RuntimeException e) {
+            if (autoCommit) {
+                rollback();
+            }
+
+            throw e;
+        } finally {
+            if (autoCommit) {
+                setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Inserts the specified number of rows with a single statement
+     * @param insert the insert which should be rewritten
+     * @param arguments the arguments of every row
+     * @param rowCount the number of rows
+     * @return the update count of each row
+     * @throws SQLException thrown when something exceptional happens
+     */
+    private int[] executeMultiRowInsert(final MultiRowInsert insert, final Object[] arguments, final int rowCount) throws SQLException {
+        PreparedStatement statement = prepareCachedStatement(insert.getSql(rowCount), false);
+
+        try {
+            int updateCount = bindArguments(statement, arguments).executeUpdate();
+            int[] updateCounts = new int[rowCount];
+            Arrays.fill(updateCounts, updateCount == rowCount ? 1 : Statement.SUCCESS_NO_INFO);
+            return updateCounts;
+        } finally {
+            releaseStatement(statement);
+        }
+    }
+
+    /**
+     * Returns the maximum number of parameters which a single statement with multiple rows of values may have, or
+     * zero if the database does not support inserting multiple rows with a single statement
+     * @return the maximum number of parameters in a single statement, or zero
+     * @throws SQLException thrown when something exceptional happens
+     */
+    protected int getParameterLimit() throws SQLException {
+        switch (getVendor()) {
+            case POSTGRESQL:
+                return 32767;
+            case MYSQL:
+                return 65535;
+            case HSQLDB:
+                // HSQLDB only accepts multiple rows of values from version 2 onwards
+                return connection.getMetaData().getDatabaseMajorVersion() >= 2 ? 32767 : 0;
+            default:
+                // Oracle requires INSERT ALL instead and the limits of other databases are unknown
+                return 0;
+        }
+    }
+
+    /**
+     * Inserts the provided entities into their table in batches. See {@link #insertAll(List, String)}.
+     * @param entities the entities which should be inserted, which must all be instances of the same class
+     * @param <T> the type of the entities
+     * @return the update count of each entity
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public <T> int[] insertAll(final List<T> entities) throws SQLException {
+        return insertAll(entities, null);
+    }
+
+    /**
+     * Inserts the provided entities into the specified table with {@link #executeInsertBatch(String, Iterable)}. If
+     * the entities have a single javax.persistence.Id property which is unset for every entity, meaning that it is null
+     * or a primitive zero, then it is left out of the insert, so that the database can generate it, and the generated
+     * keys are written back to the entities. The keys are retrieved with {@link Statement#RETURN_GENERATED_KEYS} when
+     * the driver supports it. Otherwise, each entity is inserted on its own and its key is retrieved with the identity
+     * query of the database vendor.
+     * @param entities the entities which should be inserted, which must all be instances of the same class
+     * @param tableName the table into which the entities should be inserted, or null for the table of the entity
+     * @param <T> the type of the entities
+     * @return the update count of each entity
+     * @throws SQLException thrown when the ids of the entities are only partially set, when generated keys cannot be
+     * retrieved, or when something exceptional happens
+     */
+    public <T> int[] insertAll(final List<T> entities, final String tableName) throws SQLException {
+        if (entities.isEmpty()) {
+            return new int[0];
+        }
+
+        final Class<?> entityClass = entities.get(0).getClass();
+        EntityMetadata metadata = EntityMetadata.of(entityClass);
+        String table = tableName != null ? tableName : metadata.getTableName();
+        EntityMetadata.Property generatedProperty = findGeneratedIdProperty(metadata, entities);
+        NamedParameterSql parsed = NamedParameterSql.parse(metadata.getInsertSql(table, generatedProperty == null));
+        final BindingPlan plan = resolveBindingPlan(entityClass, parsed);
+
+        Iterable<Object[]> rows = toRows(entities, entityClass, plan);
+
+        if (generatedProperty == null) {
+            try {
+                return executeInsertBatch(parsed.getSql(), rows);
+            } catch (IllegalStateException e) {
+                throw unwrapRowException(e);
+            }
+        }
+
+        final PropertyWriter writer = resolveGeneratedKeyWriter(entityClass, generatedProperty);
+        PreparedStatement statement;
+        BatchCallback callback;
+        int size;
+
+        if (isGeneratedKeysSupported()) {
+            statement = prepareStatement(parsed.getSql(), Statement.RETURN_GENERATED_KEYS);
+            size = batchSize;
+            callback = new BatchCallback() {
+                @Override
+                public void afterBatch(final PreparedStatement statement, final int firstRow, final int rowCount) throws SQLException {
+                    ResultSet keys = statement.getGeneratedKeys();
+
+                    try {
+                        for (int index = 0; index < rowCount && keys.next(); index++) {
+                            writeGeneratedKey(writer, entities.get(firstRow + index), keys.getObject(1));
+                        }
+                    } finally {
+                        DB.closeResultSet(keys);
+                    }
+                }
+            };
+        } else {
+            final String identityQuery = getIdentityQuery();
+
+            if (identityQuery == null) {
+                throw new SQLException("The driver cannot return generated keys and there is no identity query for " + getVendor());
+            }
+
+            statement = prepareStatement(parsed.getSql());
+            size = 1;
+            callback = new BatchCallback() {
+                @Override
+                public void afterBatch(final PreparedStatement statement, final int firstRow, final int rowCount) throws SQLException {
+                    writeGeneratedKey(writer, entities.get(firstRow), fetchObject(identityQuery));
+                }
+            };
+        }
+
+        try {
+            return executeBatch(statement, rows, size, callback);
+        } catch (IllegalStateException e) {
+            throw unwrapRowException(e);
+        } finally {
+            DB.closeStatement(statement);
+        }
+    }
+
+    /**
+     * Inserts each of the provided entities into its table or, if a row with the same id already exists, updates
+     * it. See {@link #upsertAll(String, String[], List)}.
+     * @param entities the entities which should be upserted, which must all be instances of the same class
+     * @param <T> the type of the entities
+     * @return the update count of each entity
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public <T> int[] upsertAll(final List<T> entities) throws SQLException {
+        return upsertAll(null, null, entities);
+    }
+
+    /**
+     * Inserts each of the provided entities into the specified table or, if a row with the same key already exists,
+     * updates it. Every persistent property of the entities is written. See
+     * {@link #upsertAll(String, String[], String[], Iterable)}.
+     * @param tableName the table into which the entities should be upserted, or null for the table of the entity
+     * @param keyColumns the columns which identify a row, or null for the columns of the id properties of the entity
+     * @param entities the entities which should be upserted, which must all be instances of the same class
+     * @param <T> the type of the entities
+     * @return the update count of each entity
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public <T> int[] upsertAll(final String tableName, final String[] keyColumns, final List<T> entities) throws SQLException {
+        if (entities.isEmpty()) {
+            return new int[0];
+        }
+
+        Class<?> entityClass = entities.get(0).getClass();
+        EntityMetadata metadata = EntityMetadata.of(entityClass);
+        String table = tableName != null ? tableName : metadata.getTableName();
+        BindingPlan plan = resolveBindingPlan(entityClass, NamedParameterSql.parse(metadata.getInsertSql(table, true)));
+        EntityMetadata.Property[] properties = plan.getProperties();
+        String[] columns = new String[properties.length];
+
+        for (int index = 0; index < properties.length; index++) {
+            columns[index] = properties[index].getColumnName();
+        }
+
+        String[] keys = keyColumns;
+
+        if (keys == null) {
+            List<EntityMetadata.Property> idProperties = metadata.getIdProperties();
+            keys = new String[idProperties.size()];
+
+            for (int index = 0; index < keys.length; index++) {
+                keys[index] = idProperties.get(index).getColumnName();
+            }
+        }
+
+        try {
+            return upsertAll(table, keys, columns, toRows(entities, entityClass, plan));
+        } catch (IllegalStateException e) {
+            throw unwrapRowException(e);
+        }
+    }
+
+    /**
+     * Inserts each of the provided rows into the specified table or, if a row with the same key already exists,
+     * updates it. The upsert is generated for the vendor of the database, with ON CONFLICT for PostgreSQL, ON
+     * DUPLICATE KEY UPDATE for MySQL, and MERGE for HSQLDB 2 onwards and Oracle, and the rows are executed with
+     * {@link #executeBatch(String, Iterable)}. Other databases fall back to an update of each row, which is followed
+     * by an insert if nothing was updated, within a single transaction.
+     * @param tableName the table into which the rows should be upserted
+     * @param keyColumns the columns which identify a row
+     * @param columns every column which should be written, including the key columns
+     * @param rows the values of the columns of each row, in the same order as the columns
+     * @return the update count of each row, the meaning of which varies by vendor
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public int[] upsertAll(final String tableName, final String[] keyColumns, final String[] columns, final Iterable<Object[]> rows) throws SQLException {
+        String sql = getUpsertSql(tableName, keyColumns, columns);
+
+        if (sql != null) {
+            return executeBatch(sql, rows);
+        }
+
+        boolean[] keys = UpsertSql.getKeyFlags(keyColumns, columns);
+        StringBuilder assignments = new StringBuilder();
+        StringBuilder conditions = new StringBuilder();
+        StringBuilder values = new StringBuilder();
+        int[] updateOrder = new int[columns.length];
+        int position = 0;
+
+        for (int index = 0; index < columns.length; index++) {
+            values.append(index > 0 ? ", ?" : "?");
+
+            if (!keys[index]) {
+                assignments.append(assignments.length() > 0 ? ", " : "").append(columns[index]).append(" = ?");
+                updateOrder[position++] = index;
+            }
+        }
+
+        for (int index = 0; index < columns.length; index++) {
+            if (keys[index]) {
+                // Assigning a key to itself tells us whether the row exists when there is nothing else to update
+                if (assignments.length() == 0) {
+                    assignments.append(columns[index]).append(" = ").append(columns[index]);
+                }
+
+                conditions.append(conditions.length() > 0 ? " and " : "").append(columns[index]).append(" = ?");
+                updateOrder[position++] = index;
+            }
+        }
+
+        String updateSql = "update " + tableName + " set " + assignments + " where " + conditions;
+        String insertSql = "insert into " + tableName + "(" + join(columns) + ") values(" + values + ")";
+        boolean autoCommit = getAutoCommit();
+        PreparedStatement update = null;
+        PreparedStatement insert = null;
+
+        try {
+            update = prepareCachedStatement(updateSql, false);
+            insert = prepareCachedStatement(insertSql, false);
+
+            // Only start the transaction once both statements have been prepared
+            if (autoCommit) {
+                setAutoCommit(false);
+            }
+
+            int[] updateCounts = new int[16];
+            int rowCount = 0;
+            Object[] updateArguments = new Object[columns.length];
+
+            for (Object[] row : rows) {
+                for (int index = 0; index < updateOrder.length; index++) {
+                    updateArguments[index] = row[updateOrder[index]];
+                }
+
+                int updateCount = bindArguments(update, updateArguments).executeUpdate();
+
+                if (updateCount == 0) {
+                    updateCount = bindArguments(insert, row).executeUpdate();
+                }
+
+                updateCounts = appendUpdateCounts(updateCounts, rowCount++, new int[] {updateCount});
+            }
+
+            if (autoCommit) {
+                commit();
+            }
+
+            return Arrays.copyOf(updateCounts, rowCount);
+        } catch (SQLException | RuntimeException e) {
+            if (autoCommit && !getAutoCommit()) {
+                rollback();
+            }
+
+            throw e;
+        } finally {
+            if (update != null) {
+                releaseStatement(update);
+            }
+
+            if (insert != null) {
+                releaseStatement(insert);
+            }
+
+            if (autoCommit) {
+                setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Returns the upsert for the vendor of the database, or null if it does not have an upsert statement
+     * @param tableName the table into which the rows should be upserted
+     * @param keyColumns the columns which identify a row
+     * @param columns every column which should be written, including the key columns
+     * @return the upsert or null
+     * @throws SQLException thrown when a key column is not one of the columns
+     */
+    protected String getUpsertSql(final String tableName, final String[] keyColumns, final String[] columns) throws SQLException {
+        Vendor databaseVendor = getVendor();
+
+        // HSQLDB only supports MERGE from version 2 onwards
+        if (databaseVendor == Vendor.HSQLDB && connection.getMetaData().getDatabaseMajorVersion() < 2) {
+            return null;
+        }
+
+        return UpsertSql.build(databaseVendor, tableName, keyColumns, columns);
+    }
+
+    /**
+     * Returns the rows of arguments which are read from the provided entities by the provided binding plan. The rows
+     * are read lazily, as they are iterated, and any exception which is thrown while reading them is wrapped in an
+     * {@link IllegalStateException}.
+     * @param entities the entities whose arguments should be read
+     * @param entityClass the class of which every entity must be an instance
+     * @param plan the binding plan which reads the arguments
+     * @param <T> the type of the entities
+     * @return the rows of arguments
+     */
+    private static <T> Iterable<Object[]> toRows(final List<T> entities, final Class<?> entityClass, final BindingPlan plan) {
+        return new Iterable<Object[]>() {
+            @Override
+            public Iterator<Object[]> iterator() {
+                final Iterator<T> iterator = entities.iterator();
+
+                return new Iterator<Object[]>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Object[] next() {
+                        T entity = iterator.next();
+
+                        if (entity.getClass() != entityClass) {
+                            throw new IllegalArgumentException("Every entity must be an instance of " + entityClass.getCanonicalName());
+                        }
+
+                        try {
+                            return plan.getArguments(entity);
+                        } catch (SQLException e) {
+                            throw new IllegalStateException(e.getMessage(), e);
+                        }
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns the exception which was wrapped by {@link #toRows(List, Class, BindingPlan)}, or rethrows the provided
+     * exception if it did not wrap one
+     * @param e the exception which was thrown while the rows were iterated
+     * @return the wrapped exception
+     */
+    private static SQLException unwrapRowException(final IllegalStateException e) {
+        if (e.getCause() instanceof SQLException) {
+            return (SQLException) e.getCause();
+        }
+
+        throw e;
+    }
+
+    private static String join(final String[] values) {
+        StringBuilder builder = new StringBuilder();
+
+        for (String value : values) {
+            builder.append(builder.length() > 0 ? ", " : "").append(value);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Returns the id property of the specified entities which should be generated by the database, which is their only
+     * id property if it is unset for every entity, or null if the entities already have ids. An id is unset when it is
+     * null or, since primitives cannot be null, when it is a primitive number which is zero.
+     * @param metadata the metadata of the entities
+     * @param entities the entities which are about to be inserted
+     * @return the id property which should be generated or null
+     * @throws SQLException thrown when the id property is unset for some entities but not for others
+     */
+    protected EntityMetadata.Property findGeneratedIdProperty(final EntityMetadata metadata, final List<?> entities) throws SQLException {
+        if (metadata.getIdProperties().size() != 1) {
+            return null;
+        }
+
+        EntityMetadata.Property property = metadata.getIdProperties().get(0);
+        BindingPlan plan = resolveBindingPlan(metadata.getEntityClass(), NamedParameterSql.parse(":" + property.getName()));
+        int missing = 0;
+
+        for (Object entity : entities) {
+            if (isUnsetId(plan.getArguments(entity)[0], property.getType())) {
+                missing++;
+            }
+        }
+
+        if (missing > 0 && missing < entities.size()) {
+            throw new SQLException("Either every entity or no entity must have a value for " + property.getName());
+        }
+
+        return missing > 0 ? property : null;
+    }
+
+    /**
+     * Returns true if the specified id has not been assigned, which is when it is null or a primitive zero
+     * @param id the value of the id property
+     * @param type the type of the id property
+     * @return true if the id has not been assigned and false otherwise
+     */
+    private static boolean isUnsetId(final Object id, final Class<?> type) {
+        return id == null || (type.isPrimitive() && id instanceof Number && ((Number) id).doubleValue() == 0);
+    }
+
+    /**
+     * Returns the writer which stores generated keys in the specified id property of entities of the specified class
+     * @param entityClass the class of the entities
+     * @param property the id property
+     * @return the writer for the id property
+     * @throws SQLException thrown when the id property cannot be written
+     */
+    protected PropertyWriter resolveGeneratedKeyWriter(final Class<?> entityClass, final EntityMetadata.Property property) throws SQLException {
+        AccessMode entityAccessMode = resolveAccessMode(entityClass);
+        MappingPlan.Key key = new MappingPlan.Key(getClass(), entityClass, entityAccessMode, new String[] {property.getName()}, null);
+        PropertyWriter writer = GENERATED_KEY_WRITERS.get(key);
+
+        if (writer == null) {
+            if (property.getSetter() != null && (entityAccessMode != AccessMode.FIELD || property.getField() == null)) {
+                writer = new SetterMethod(property.getSetter());
+            } else if (property.getField() != null) {
+                writer = new FieldWriter(property.getField());
+            } else {
+                throw new SQLException("Cannot write the generated key to " + entityClass.getCanonicalName() + "." + property.getName());
+            }
+
+            PropertyWriter existing = cachePlan(GENERATED_KEY_WRITERS, key, writer);
+
+            if (existing != null) {
+                writer = existing;
+            }
+        }
+
+        return writer;
+    }
+
+    /**
+     * Writes the specified generated key to the specified entity, converting it to the type of the id property
+     * @param writer the writer of the id property
+     * @param entity the entity
+     * @param key the generated key
+     * @throws SQLException thrown when the key cannot be converted or written
+     */
+    @SuppressWarnings("unchecked")
+    private static void writeGeneratedKey(final PropertyWriter writer, final Object entity, final Object key) throws SQLException {
+        Object value = key;
+        Class<?> type = writer.getArgumentType();
+
+        if (value != null && !TypeConverters.wrap(type).isInstance(value)) {
+            TypeConverter<Object, Object> converter = (TypeConverter<Object, Object>) TypeConverters.find(value.getClass(), type);
+
+            if (converter == null) {
+                throw new SQLException("Cannot convert generated key " + value + " to " + type.getName());
+            }
+
+            value = converter.convert(value);
+        }
+
+        try {
+            writer.invoke(entity, value);
+        } catch (InvocationTargetException | IllegalAccessException e) {
+            throw new SQLException("Cannot write generated key to " + entity.getClass().getCanonicalName(), e);
+        }
+    }
+
+    /**
+     * Returns the vendor of the database, which is resolved from its url
+     * @return the vendor of the database
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public Vendor getVendor() throws SQLException {
+        if (vendor == null) {
+            vendor = DB.resolveVendor(connection.getMetaData().getURL());
+        }
+
+        return vendor;
+    }
+
+    /**
+     * Returns true if the driver is able to return the keys which are generated by an insert
+     * @return true if the driver is able to return generated keys and false otherwise
+     * @throws SQLException thrown when something exceptional happens
+     */
+    protected boolean isGeneratedKeysSupported() throws SQLException {
+        if (generatedKeysSupported == null) {
+            generatedKeysSupported = connection.getMetaData().supportsGetGeneratedKeys();
+        }
+
+        return generatedKeysSupported;
+    }
+
+    /**
+     * Returns the query which returns the key that was generated by the most recent insert on this connection, for
+     * drivers which cannot return generated keys, or null if the vendor does not have one
+     * @return the identity query of the database vendor or null
+     * @throws SQLException thrown when something exceptional happens
+     */
+    protected String getIdentityQuery() throws SQLException {
+        switch (getVendor()) {
+            case HSQLDB:
+                return "call identity()";
+            case MYSQL:
+                return "select last_insert_id()";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Appends the update counts of a batch to the update counts of the batches before it, growing the array if needed
+     * @param updateCounts the update counts of the previous batches
+     * @param rowCount the number of rows in the previous batches
+     * @param batchUpdateCounts the update counts of the batch
+     * @return the array which holds the update counts of every batch so far
+     */
+    private static int[] appendUpdateCounts(final int[] updateCounts, final int rowCount, final int[] batchUpdateCounts) {
+        int[] counts = updateCounts;
+
+        if (rowCount + batchUpdateCounts.length > counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(counts.length * 2, rowCount + batchUpdateCounts.length));
+        }
+
+        System.arraycopy(batchUpdateCounts, 0, counts, rowCount, batchUpdateCounts.length);
+        return counts;
+    }
+
+    /**
+     * Executes the provided sql, which uses named parameters such as :username, with the values of the parameters
+     * taken from the properties of the provided entity. Each parameter is matched to the property of the same name or
+     * to the property which maps to the column of the same name, so both :lastActive and :last_active are bound to
+     * the property lastActive.
+     * @param sql the sql which should be executed
+     * @param entity the entity whose properties should be bound to the statement
+     * @return true if the query returns a resultset and false otherwise
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public boolean executeEntity(final String sql, final Object entity) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return execute(parsed.getSql(), resolveBindingPlan(entity.getClass(), parsed).getArguments(entity));
+    }
+
+    /**
+     * Inserts the provided entity into its table. Every persistent property of the entity is written to the column
+     * which it maps to.
+     * @param entity the entity which should be inserted
+     * @return the number of rows which were inserted
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public int insert(final Object entity) throws SQLException {
+        return executeUpdateEntity(EntityMetadata.of(entity.getClass()).getInsertSql(), entity);
+    }
+
+    /**
+     * Updates the row of the provided entity, which is identified by its javax.persistence.Id properties, with the
+     * values of the rest of its persistent properties
+     * @param entity the entity which should be updated
+     * @return the number of rows which were updated
+     * @throws SQLException thrown when the entity does not have any id properties or something exceptional happens
+     */
+    public int update(final Object entity) throws SQLException {
+        String sql = EntityMetadata.of(entity.getClass()).getUpdateSql();
+
+        if (sql == null) {
+            throw new SQLException("Cannot update an entity without id properties: " + entity.getClass().getCanonicalName());
+        }
+
+        return executeUpdateEntity(sql, entity);
+    }
+
+    /**
+     * Executes the provided insert, update or delete, which uses named parameters, with the values of the parameters
+     * taken from the properties of the provided entity
+     * @param sql the sql which should be executed
+     * @param entity the entity whose properties should be bound to the statement
+     * @return the number of rows which were affected
+     * @throws SQLException thrown when something exceptional happens
+     */
+    protected int executeUpdateEntity(final String sql, final Object entity) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        Object[] arguments = resolveBindingPlan(entity.getClass(), parsed).getArguments(entity);
+        PreparedStatement statement = prepareCachedStatement(parsed.getSql(), false);
+
+        try {
+            return bindArguments(statement, arguments).executeUpdate();
+        } finally {
+            releaseStatement(statement);
+        }
+    }
+
+    /**
+     * Returns the binding plan which reads the named parameters of the specified sql from entities of the specified
+     * class, compiling it if it has not been compiled yet
+     * @param entityClass the class of the entity whose properties should be bound
+     * @param parsed the sql whose parameters should be bound
+     * @return the binding plan
+     * @throws SQLException thrown when a parameter does not match any property of the entity
+     */
+    protected BindingPlan resolveBindingPlan(final Class<?> entityClass, final NamedParameterSql parsed) throws SQLException {
+        String[] parameterNames = parsed.getParameterNames();
+        AccessMode entityAccessMode = resolveAccessMode(entityClass);
+        MappingPlan.Key key = new MappingPlan.Key(getClass(), entityClass, entityAccessMode, parameterNames, null);
+        BindingPlan plan = BINDING_PLANS.get(key);
+
+        if (plan == null) {
+            EntityMetadata metadata = EntityMetadata.of(entityClass);
+            EntityMetadata.Property[] properties = new EntityMetadata.Property[parameterNames.length];
+
+            for (int index = 0; index < parameterNames.length; index++) {
+                EntityMetadata.Property property = metadata.getProperty(parameterNames[index]);
+                properties[index] = property != null ? property : findProperty(metadata, parameterNames[index]);
+
+                if (properties[index] == null) {
+                    throw new SQLException("No property of " + entityClass.getCanonicalName() + " matches the named parameter :" + parameterNames[index]);
+                }
+            }
+
+            plan = new BindingPlan(entityClass, properties, entityAccessMode);
+
+            // Another thread may have compiled the same plan in the meantime, in which case we use theirs
+            BindingPlan existing = cachePlan(BINDING_PLANS, key, plan);
+
+            if (existing != null) {
+                plan = existing;
+            }
+        }
+
+        return plan;
+    }
+
+    /**
+     * Returns a list of entities which are instances of the specified class and which have been populated by the
+     * provided sql and arguments.
+     * @param clazz the class type of the entities which should be returned
+     * @param sql the sql which should be used to obtain data from the database
+     * @param arguments the arguments which should be bound to the query
+     * @param <T> the generic type of the entities which should be returned
+     * @return a list of entities which have the results of the query injected into them
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public <T> List<T> fetchAllEntity(final Class<T> clazz, final String sql, final Object... arguments) throws SQLException {
+        if (ExpandedSql.isExpandable(arguments)) {
+            List<T> entities = new ArrayList<>();
+
+            for (ExpandedSql chunk : expandInListChunks(sql, arguments)) {
+                entities.addAll(fetchAllEntity(clazz, chunk.getSql(), chunk.getArguments()));
+            }
+
+            return entities;
+        }
+
+        PreparedStatement statement = prepareCachedStatement(sql, false);
+
+        try {
+            return fetchAllEntity(clazz, statement, arguments);
+        } finally {
+            releaseStatement(statement); // Release this here because a reference to it isn't returned
+        }
+    }
+
+    public <T> List<T> fetchAllEntity(final Class<T> clazz, final PreparedStatement statement, final Object... arguments) throws SQLException {
+        // Attempt to bind the arguments to the query
+        bindArguments(statement, arguments);
+
+        // Run the query
+        SimpleResultSet simpleResultSet = fetch(statement);
+
+        List<T> entities = new ArrayList<>();
+
+        // Resolve the mapping plan once rather than for every row
+        MappingPlan plan = resolveMappingPlan(clazz, simpleResultSet);
+
+        // Iterate over the results
+        while (simpleResultSet.next()) {
+            entities.add(createEntity(clazz, plan, simpleResultSet));
+        }
+
+        DB.closeResultSet(simpleResultSet); // Close this here because a reference to it isn't returned
+
+        return entities;
+    }
+
+    public <T> Map<String, T> fetchAllEntityMap(final Class<T> clazz, final String columnLabel, final String sql, final Object... arguments) throws SQLException {
+        if (ExpandedSql.isExpandable(arguments)) {
+            Map<String, T> entities = new HashMap<>();
+
+            for (ExpandedSql chunk : expandInListChunks(sql, arguments)) {
+                entities.putAll(fetchAllEntityMap(clazz, columnLabel, chunk.getSql(), chunk.getArguments()));
+            }
+
+            return entities;
+        }
+
+        PreparedStatement statement = prepareCachedStatement(sql, false);
+
+        try {
+            return fetchAllEntityMap(clazz, columnLabel, statement, arguments);
+        } finally {
+            releaseStatement(statement); // Release this here because a reference to it isn't returned
+        }
+    }
+
+    public <T> Map<String, T> fetchAllEntityMap(final Class<T> clazz, final String columnLabel, final PreparedStatement statement, final Object... arguments) throws SQLException {
+        // Attempt to bind the arguments to the query
+        bindArguments(statement, arguments);
+
+        // Run the query
+        SimpleResultSet simpleResultSet = fetch(statement);
+
+        Map<String, T> entities = new HashMap<>();
+
+        // Resolve the mapping plan once rather than for every row
+        MappingPlan plan = resolveMappingPlan(clazz, simpleResultSet);
+
+        // Iterate over the results
+        while (simpleResultSet.next()) {
+            entities.put(simpleResultSet.getStringByName(columnLabel), createEntity(clazz, plan, simpleResultSet));
+        }
+
+        DB.closeResultSet(simpleResultSet); // Close this here because a reference to it isn't returned
+
+        return entities;
+    }
+
+    /**
+     * Executes the provided query and exposes each row through the specified interface, whose methods return the
+     * values of the columns. A method named id(), getId() or isId() returns the column id, and a method named
+     * lastActive() or getLastActive() returns the column last_active, for example. This is cheaper than populating
+     * an entity, or a map, when the rows are only read.
+     * @param projectionClass the interface which should be implemented by each row
+     * @param sql the query which should be executed
+     * @param arguments the arguments which should be bound to the query
+     * @param <T> the type of the projection
+     * @return a projection of each row
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public <T> List<T> fetchAllProjection(final Class<T> projectionClass, final String sql, final Object... arguments) throws SQLException {
+        if (ExpandedSql.isExpandable(arguments)) {
+            List<T> rows = new ArrayList<>();
+
+            for (ExpandedSql chunk : expandInListChunks(sql, arguments)) {
+                rows.addAll(fetchAllProjection(projectionClass, chunk.getSql(), chunk.getArguments()));
+            }
+
+            return rows;
+        }
+
+        PreparedStatement statement = prepareCachedStatement(sql, false);
+
+        try {
+            return fetchAllProjection(projectionClass, statement, arguments);
+        } finally {
+            releaseStatement(statement); // Release this here because a reference to it isn't returned
+        }
+    }
+
+    public <T> List<T> fetchAllProjection(final Class<T> projectionClass, final PreparedStatement statement, final Object... arguments) throws SQLException {
+        // Attempt to bind the arguments to the query
+        bindArguments(statement, arguments);
+
+        // Run the query
+        SimpleResultSet simpleResultSet = fetch(statement);
+
+        List<T> projections = new ArrayList<>();
+
+        // Resolve the projection plan once rather than for every row
+        ProjectionPlan plan = resolveProjectionPlan(projectionClass, simpleResultSet);
+
+        // Iterate over the results
+        while (simpleResultSet.next()) {
+            projections.add(projectionClass.cast(plan.project(simpleResultSet)));
+        }
+
+        DB.closeResultSet(simpleResultSet); // Close this here because a reference to it isn't returned
+
+        return projections;
+    }
+
+    /**
+     * Executes the provided query and exposes its only row through the specified interface
+     * @param projectionClass the interface which should be implemented by the row
+     * @param sql the query which should be executed
+     * @param arguments the arguments which should be bound to the query
+     * @param <T> the type of the projection
+     * @return a projection of the row or null if the query did not return a row
+     * @throws SQLException thrown when the query returns more than one row
+     */
+    public <T> T fetchProjection(final Class<T> projectionClass, final String sql, final Object... arguments) throws SQLException {
+        if (ExpandedSql.isExpandable(arguments)) {
+            ExpandedSql expanded = expandInLists(sql, arguments);
+            return fetchProjection(projectionClass, expanded.getSql(), expanded.getArguments());
+        }
+
+        List<T> projections = fetchAllProjection(projectionClass, sql, arguments);
+
+        if (projections.size() > 1) {
+            throw new SQLException("Encountered a second record where a single record was expected");
+        }
+
+        return projections.isEmpty() ? null : projections.get(0);
+    }
+
+    /**
+     * Returns the projection plan which exposes rows of the provided result set through the specified interface
+     * @param projectionClass the interface which should be implemented by each row
+     * @param simpleResultSet the result set whose rows should be projected
+     * @return the projection plan for the interface and result set
+     * @throws SQLException thrown when something exceptional happens
+     */
+    protected ProjectionPlan resolveProjectionPlan(final Class<?> projectionClass, final SimpleResultSet simpleResultSet) throws SQLException {
+        int columnCount = simpleResultSet.getColumnCount();
+        String[] columnNames = new String[columnCount];
+        String[] columnClassNames = new String[columnCount];
+
+        for (int index = 1; index <= columnCount; index++) {
+            columnNames[index - 1] = simpleResultSet.getColumnName(index);
+            columnClassNames[index - 1] = simpleResultSet.getColumnClassName(index);
+        }
+
+        MappingPlan.Key key = new MappingPlan.Key(getClass(), projectionClass, AccessMode.PROPERTY, columnNames, columnClassNames);
+        ProjectionPlan plan = PROJECTION_PLANS.get(key);
+
+        if (plan == null) {
+            plan = compileProjectionPlan(projectionClass, columnNames, columnClassNames);
+
+            // Another thread may have compiled the same plan in the meantime, in which case we use theirs
+            ProjectionPlan existing = cachePlan(PROJECTION_PLANS, key, plan);
+
+            if (existing != null) {
+                plan = existing;
+            }
+        }
+
+        return plan;
+    }
+
+    /**
+     * Matches each method of the specified interface to one of the specified columns and compiles them into a
+     * projection plan
+     * @param projectionClass the interface which should be implemented by each row
+     * @param columnNames the names of the columns in the result set
+     * @param columnClassNames the class names of the columns in the result set
+     * @return the compiled projection plan
+     * @throws SQLException thrown when a method does not match any of the columns
+     */
+    protected ProjectionPlan compileProjectionPlan(final Class<?> projectionClass, final String[] columnNames, final String[] columnClassNames) throws SQLException {
+        if (!projectionClass.isInterface()) {
+            throw new SQLException("Projections must be interfaces: " + projectionClass.getCanonicalName());
+        }
+
+        List<Method> methods = new ArrayList<>();
+
+        for (Method method : projectionClass.getMethods()) {
+            // Default methods are invoked and the methods of Object are answered by the projection itself
+            if (!Modifier.isStatic(method.getModifiers()) && !ProjectionPlan.isDefaultMethod(method) && !ProjectionPlan.isObjectMethod(method)) {
+                methods.add(method);
+            }
+        }
+
+        int[] columns = new int[methods.size()];
+        TypeConverter<?, ?>[] converters = new TypeConverter<?, ?>[methods.size()];
+
+        for (int index = 0; index < methods.size(); index++) {
+            Method method = methods.get(index);
+            String propertyName = getProjectionPropertyName(method);
+
+            if (method.getParameterTypes().length > 0 || method.getReturnType() == void.class) {
+                throw new SQLException("Projection methods must accept no arguments and return a value: " + method);
+            }
+
+            for (int column = 0; column < columnNames.length && columns[index] == 0; column++) {
+                if (propertyName.equals(toCamelCase(columnNames[column]))
+                    || EntityMetadata.toUnderscore(propertyName).equalsIgnoreCase(columnNames[column])) {
+                    columns[index] = column + 1;
+                }
+            }
+
+            if (columns[index] == 0) {
+                throw new SQLException("Cannot find a column for method " + method);
+            }
+
+            Class<?> columnClass = loadColumnClass(columnClassNames[columns[index] - 1]);
+
+            if (!TypeConverters.canConvert(columnClass, method.getReturnType())) {
+                throw new SQLException("Return type(" + method.getReturnType().getName()
+                    + ") of " + method.getName() + " does not match the column type name("
+                    + columnClassNames[columns[index] - 1] + ")");
+            }
+
+            converters[index] = TypeConverters.find(columnClass, method.getReturnType());
+        }
+
+        return new ProjectionPlan(projectionClass, methods.toArray(new Method[methods.size()]), columns, converters);
+    }
+
+    /**
+     * Returns the name of the property which is returned by a method of a projection, which is the name of the method
+     * without the get or is prefix, if it has one
+     * @param method the method of the projection
+     * @return the name of the property which is returned by the method
+     */
+    private static String getProjectionPropertyName(final Method method) {
+        String name = method.getName();
+
+        for (String prefix : new String[] {"get", "is"}) {
+            if (name.length() > prefix.length() && name.startsWith(prefix) && Character.isUpperCase(name.charAt(prefix.length()))) {
+                return Character.toLowerCase(name.charAt(prefix.length())) + name.substring(prefix.length() + 1);
+            }
+        }
+
+        return name;
+    }
+
+    protected <T> T fetchEntity(final Class<T> clazz, final SimpleResultSet simpleResultSet) throws SQLException {
+        return createEntity(clazz, resolveMappingPlan(clazz, simpleResultSet), simpleResultSet);
+    }
+
+    protected <T> T fetchEntity(final T entity, final SimpleResultSet simpleResultSet) throws SQLException {
+        return resolveMappingPlan(entity.getClass(), simpleResultSet).populate(entity, simpleResultSet);
+    }
+
+    /**
+     * Creates an entity from the current row of the provided result set, either by passing the row to the constructor
+     * of the entity or by populating a new instance of the entity
+     * @param clazz the class of the entity
+     * @param plan the mapping plan which was resolved for the result set
+     * @param simpleResultSet the result set which is positioned on the row which should be injected
+     * @param <T> the type of the entity
+     * @return the new entity
+     * @throws SQLException thrown when something exceptional happens
+     */
+    protected <T> T createEntity(final Class<T> clazz, final MappingPlan plan, final SimpleResultSet simpleResultSet) throws SQLException {
+        if (plan.isConstructorBased()) {
+            return clazz.cast(plan.construct(simpleResultSet));
+        }
+
+        return plan.populate(newEntity(clazz), simpleResultSet);
+    }
+
+    /**
+     * Creates a new instance of the specified entity class using its default constructor
+     * @param clazz the class which should be instantiated
+     * @param <T> the type of the entity
+     * @return the new entity
+     * @throws SQLException thrown when the entity cannot be instantiated
+     */
+    protected <T> T newEntity(final Class<T> clazz) throws SQLException {
+        RowMapper<T> rowMapper = RowMapperRegistry.find(clazz);
+
+        // Generated mappers are able to instantiate the entity without reflection
+        if (rowMapper != null) {
+            return rowMapper.newInstance();
+        }
+
+        try {
+            return clazz.getDeclaredConstructor().newInstance();
+        } catch (NoSuchMethodException e) {
+            throw new SQLException("Entity does not have a default constructor: " + clazz.getCanonicalName(), e);
+        } catch (InstantiationException | InvocationTargetException e) {
+            throw new SQLException("Cannot instantiate entity: " + clazz.getCanonicalName(), e);
+        } catch (IllegalAccessException e) {
+            throw new SQLException("Cannot access constructor of entity: " + clazz.getCanonicalName(), e);
+        }
+    }
+
+    /**
+     * Returns the mapping plan which injects rows of the provided result set into instances of the specified
+     * entity class. Plans are cached by entity class and by the names and types of the columns in the result set
+     * so that setters only need to be located the first time that a particular query shape is encountered.
+     * @param entityClass the class of the entities which should be populated
+     * @param simpleResultSet the result set whose rows should be injected into the entities
+     * @return the mapping plan for the entity class and result set
+     * @throws SQLException thrown when something exceptional happens
+     */
+    protected MappingPlan resolveMappingPlan(final Class<?> entityClass, final SimpleResultSet simpleResultSet) throws SQLException {
+        int columnCount = simpleResultSet.getColumnCount();
+        String[] columnNames = new String[columnCount];
+        String[] columnClassNames = new String[columnCount];
+
+        for (int index = 1; index <= columnCount; index++) {
+            columnNames[index - 1] = simpleResultSet.getColumnName(index);
+            columnClassNames[index - 1] = simpleResultSet.getColumnClassName(index);
+        }
+
+        return resolveMappingPlan(entityClass, columnNames, columnClassNames);
+    }
+
+    /**
+     * Returns the mapping plan which injects columns with the specified names and types, in the specified order, into
+     * instances of the specified entity class
+     * @param entityClass the class of the entities which should be populated
+     * @param columnNames the names of the columns
+     * @param columnClassNames the class names of the columns
+     * @return the mapping plan for the entity class and columns
+     * @throws SQLException thrown when something exceptional happens
+     */
+    protected MappingPlan resolveMappingPlan(final Class<?> entityClass, final String[] columnNames, final String[] columnClassNames) throws SQLException {
+        AccessMode entityAccessMode = resolveAccessMode(entityClass);
+        MappingPlan.Key key = new MappingPlan.Key(getClass(), entityClass, entityAccessMode, columnNames, columnClassNames);
+        MappingPlan plan = MAPPING_PLANS.get(key);
+
+        if (plan == null) {
+            EntityConstructor constructor = EntityConstructor.find(entityClass);
+
+            // Entities which are created through a constructor cannot be populated through setters or fields
+            if (constructor != null) {
+                plan = compileConstructorMappingPlan(entityClass, constructor, columnNames, columnClassNames);
+            } else if (entityAccessMode == AccessMode.FIELD) {
+                plan = compileFieldMappingPlan(entityClass, columnNames, columnClassNames);
+            } else {
+                plan = compileMappingPlan(entityClass, columnNames, columnClassNames);
+            }
+
+            // Another thread may have compiled the same plan in the meantime, in which case we use theirs
+            MappingPlan existing = cachePlan(MAPPING_PLANS, key, plan);
+
+            if (existing != null) {
+                plan = existing;
+            }
+        }
+
+        return plan;
+    }
+
+    /**
+     * Locates the setter for each of the specified columns and compiles them into a mapping plan
+     * @param entityClass the class of the entities which should be populated
+     * @param columnNames the names of the columns in the result set
+     * @param columnClassNames the class names of the columns in the result set
+     * @return the compiled mapping plan
+     * @throws SQLException thrown when a setter cannot be found for one of the columns
+     */
+    protected MappingPlan compileMappingPlan(final Class<?> entityClass, final String[] columnNames, final String[] columnClassNames) throws SQLException {
+        RowMapper<?> rowMapper = RowMapperRegistry.find(entityClass);
+
+        // Prefer a registered or generated mapper over reflection
+        if (rowMapper != null) {
+            return compileMappingPlan(rowMapper, columnNames, columnClassNames);
+        }
+
+        EntityMetadata metadata = EntityMetadata.of(entityClass);
+
+        try {
+            SetterMethod[] setters = new SetterMethod[columnNames.length];
+            TypeConverter<?, ?>[] converters = new TypeConverter<?, ?>[columnNames.length];
+
+            for (int index = 0; index < columnNames.length; index++) {
+                EntityMetadata.Property property = findProperty(metadata, columnNames[index]);
+                String propertyName = property != null ? property.getName() : toCamelCase(columnNames[index]);
+
+                // Attempt to find the appropriate setter method
+                setters[index] = findSetter(entityClass, propertyName, columnClassNames[index]);
+                converters[index] = TypeConverters.find(loadColumnClass(columnClassNames[index]), setters[index].getArgumentType());
+            }
+
+            return new MappingPlan(entityClass, setters, converters);
+        } catch (NoSuchMethodException e) {
+            throw new SQLException("Cannot invoke setter: ", e);
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("Cannot invoke setter: ", e);
+        }
+    }
+
+    /**
+     * Matches each of the specified columns to an argument of the provided constructor and compiles them into a
+     * mapping plan. Columns are resolved to properties in the same way as they are for setters and fields.
+     * @param entityClass the class of the entities which should be created
+     * @param constructor the constructor which creates the entities
+     * @param columnNames the names of the columns in the result set
+     * @param columnClassNames the class names of the columns in the result set
+     * @return the compiled mapping plan
+     * @throws SQLException thrown when a column does not match any of the constructor arguments
+     */
+    protected MappingPlan compileConstructorMappingPlan(final Class<?> entityClass, final EntityConstructor constructor, final String[] columnNames, final String[] columnClassNames) throws SQLException {
+        EntityMetadata metadata = EntityMetadata.of(entityClass);
+        List<String> propertyNames = Arrays.asList(constructor.getPropertyNames());
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        int[] arguments = new int[columnNames.length];
+        TypeConverter<?, ?>[] converters = new TypeConverter<?, ?>[columnNames.length];
+
+        for (int index = 0; index < columnNames.length; index++) {
+            EntityMetadata.Property property = findProperty(metadata, columnNames[index]);
+            arguments[index] = propertyNames.indexOf(property != null ? property.getName() : toCamelCase(columnNames[index]));
+
+            if (arguments[index] < 0) {
+                throw new SQLException("Cannot find constructor argument for column " + columnNames[index] + " in " + constructor.getConstructor());
+            }
+
+            Class<?> columnClass = loadColumnClass(columnClassNames[index]);
+            Class<?> parameterType = parameterTypes[arguments[index]];
+
+            if (!TypeConverters.canConvert(columnClass, parameterType)) {
+                throw new SQLException("Constructor argument type(" + parameterType.getName()
+                    + ") does not match the column type name(" + columnClassNames[index] + ")");
+            }
+
+            converters[index] = TypeConverters.find(columnClass, parameterType);
+        }
+
+        return new MappingPlan(entityClass, constructor, arguments, converters);
+    }
+
+    public List<Map<String, Object>> fetchAllMap(final String sql, final Object ... arguments) throws SQLException {
+        if (ExpandedSql.isExpandable(arguments)) {
+            List<Map<String, Object>> rows = new ArrayList<>();
+
+            for (ExpandedSql chunk : expandInListChunks(sql, arguments)) {
+                rows.addAll(fetchAllMap(chunk.getSql(), chunk.getArguments()));
+            }
+
+            return rows;
+        }
+
+        PreparedStatement statement = prepareCachedStatement(sql, false);
+
+        try {
+            return fetchAllMap(statement, arguments);
+        } finally {
+            releaseStatement(statement); // Release this here because a reference to it isn't returned
+        }
+    }
+
+    public List<Map<String, Object>> fetchAllMap(final PreparedStatement statement, final Object ... arguments) throws SQLException {
+        // Attempt to bind the arguments to the query
+        bindArguments(statement, arguments);
 
         // Run the query
         SimpleResultSet simpleResultSet = fetch(statement);
 
-        List<T> entities = new ArrayList<>();
+        List<Map<String, Object>> entities = new ArrayList<>();
 
         // Iterate over the results
-        while (simpleResultSet.next()) {
-            entities.add(fetchEntity(clazz, simpleResultSet));
+        while(simpleResultSet.next()) {
+            entities.add(fetchMap(simpleResultSet));
         }
 
         DB.closeResultSet(simpleResultSet); // Close this here because a reference to it isn't returned
 
+        // Not technically type safe but necessary to create the illusion of it
         return entities;
     }
 
-    public <T> Map<String, T> fetchAllEntityMap(final Class<T> clazz, final String columnLabel, final String sql, final Object... arguments) throws SQLException {
+    /**
+     * Returns an iterator over the results of the provided sql and arguments which maps each row with the provided
+     * handler as it is read. Unlike the fetch methods, the results are not read into memory before this returns. The
+     * iterator must be closed if it is not iterated to the end. See {@link ResultSetIterator}.
+     * @param handler maps the current row of the results
+     * @param sql the sql query which should be executed
+     * @param arguments the arguments which should be bound to the query
+     * @param <T> the type to which each row is mapped
+     * @return an iterator over the mapped rows
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public <T> ResultSetIterator<T> iterate(final ResultSetHandler<T> handler, final String sql, final Object ... arguments) throws SQLException {
+        if (ExpandedSql.isExpandable(arguments)) {
+            ExpandedSql expanded = expandInLists(sql, arguments);
+            return iterate(handler, expanded.getSql(), expanded.getArguments());
+        }
+
+        // The statement is not cached because it stays open until the caller closes the iterator
         PreparedStatement statement = prepareStatement(sql);
-        Map<String, T> map = fetchAllEntityMap(clazz, columnLabel, statement, arguments);
-        DB.closeStatement(statement); // Close this here because a reference to it isn't returned
-        return map;
+
+        try {
+            if (fetchSize > 0) {
+                statement.setFetchSize(fetchSize);
+            }
+
+            return new ResultSetIterator<>(statement, fetch(statement, arguments), handler);
+        } catch (SQLException | RuntimeException e) {
+            DB.closeStatement(statement);
+            throw e;
+        }
     }
 
-    public <T> Map<String, T> fetchAllEntityMap(final Class<T> clazz, final String columnLabel, final PreparedStatement statement, final Object... arguments) throws SQLException {
+    /**
+     * Returns an iterator over entities which are instances of the specified class and which are populated from the
+     * results of the provided sql and arguments one row at a time, as they are read. The iterator must be closed if it
+     * is not iterated to the end. See {@link ResultSetIterator}.
+     * @param clazz the class of the entities which should be returned
+     * @param sql the sql query which should be executed
+     * @param arguments the arguments which should be bound to the query
+     * @param <T> the type of the entities
+     * @return an iterator over the entities
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public <T> ResultSetIterator<T> streamEntity(final Class<T> clazz, final String sql, final Object ... arguments) throws SQLException {
+        return iterate(new ResultSetHandler<T>() {
+            private MappingPlan plan;
+
+            @Override
+            public T handle(final SimpleResultSet simpleResultSet) throws SQLException {
+                // Resolve the mapping plan once rather than for every row
+                if (plan == null) {
+                    plan = resolveMappingPlan(clazz, simpleResultSet);
+                }
+
+                return createEntity(clazz, plan, simpleResultSet);
+            }
+        }, sql, arguments);
+    }
+
+    /**
+     * Returns an iterator over maps of column labels to values which are read from the results of the provided sql and
+     * arguments one row at a time. The iterator must be closed if it is not iterated to the end. See
+     * {@link ResultSetIterator}.
+     * @param sql the sql query which should be executed
+     * @param arguments the arguments which should be bound to the query
+     * @return an iterator over the rows
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public ResultSetIterator<Map<String, Object>> streamMap(final String sql, final Object ... arguments) throws SQLException {
+        return iterate(new ResultSetHandler<Map<String, Object>>() {
+            @Override
+            public Map<String, Object> handle(final SimpleResultSet simpleResultSet) throws SQLException {
+                return fetchMap(simpleResultSet);
+            }
+        }, sql, arguments);
+    }
+
+    /**
+     * Executes the provided sql and arguments and passes each row of the results to the provided callback, which
+     * receives the result set positioned at the row. Nothing is allocated for the rows, so this is the cheapest way to
+     * scan a large result. The callback may stop the scan early by returning false, in which case the remaining rows
+     * are not read. The result set must not be used after the callback returns.
+     * @param sql the sql query which should be executed
+     * @param callback receives the result set at each row
+     * @param arguments the arguments which should be bound to the query
+     * @return the number of rows which were passed to the callback
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public int forEachRow(final String sql, final RowCallback<? super SimpleResultSet> callback, final Object ... arguments) throws SQLException {
+        int[] rowCount = new int[1];
+
+        if (ExpandedSql.isExpandable(arguments)) {
+            for (ExpandedSql chunk : expandInListChunks(sql, arguments)) {
+                PreparedStatement statement = prepareCachedStatement(chunk.getSql(), false);
+
+                try {
+                    if (!forEachRow(statement, callback, rowCount, chunk.getArguments())) {
+                        break;
+                    }
+                } finally {
+                    releaseStatement(statement);
+                }
+            }
+
+            return rowCount[0];
+        }
+
+        PreparedStatement statement = prepareCachedStatement(sql, false);
+
+        try {
+            forEachRow(statement, callback, rowCount, arguments);
+        } finally {
+            releaseStatement(statement); // Release this here because a reference to it isn't returned
+        }
+
+        return rowCount[0];
+    }
+
+    /**
+     * Binds the provided arguments to the provided statement, executes it, and passes each row of the results to the
+     * provided callback. See {@link #forEachRow(String, RowCallback, Object...)}.
+     * @param statement the statement which should be executed
+     * @param callback receives the result set at each row
+     * @param arguments the arguments which should be bound to the query
+     * @return the number of rows which were passed to the callback
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public int forEachRow(final PreparedStatement statement, final RowCallback<? super SimpleResultSet> callback, final Object ... arguments) throws SQLException {
+        int[] rowCount = new int[1];
+        forEachRow(statement, callback, rowCount, arguments);
+        return rowCount[0];
+    }
+
+    /**
+     * Executes the provided sql and arguments and passes each row of the results to the provided callback as an
+     * instance of the specified class. The mapping plan is resolved once and no collection of the entities is built.
+     * The callback may stop early by returning false, in which case the remaining rows are not read.
+     * @param clazz the class of the entities which should be passed to the callback
+     * @param sql the sql query which should be executed
+     * @param callback receives each entity
+     * @param arguments the arguments which should be bound to the query
+     * @param <T> the type of the entities
+     * @return the number of entities which were passed to the callback
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public <T> int forEachEntity(final Class<T> clazz, final String sql, final RowCallback<? super T> callback, final Object ... arguments) throws SQLException {
+        return forEachRow(sql, toEntityCallback(clazz, callback), arguments);
+    }
+
+    public <T> int forEachEntity(final Class<T> clazz, final PreparedStatement statement, final RowCallback<? super T> callback, final Object ... arguments) throws SQLException {
+        return forEachRow(statement, toEntityCallback(clazz, callback), arguments);
+    }
+
+    /**
+     * Passes each row of the results of the provided statement to the provided callback
+     * @param statement the statement which should be executed
+     * @param callback receives the result set at each row
+     * @param rowCount incremented for each row which is passed to the callback
+     * @param arguments the arguments which should be bound to the query
+     * @return false if the callback stopped the iteration
+     * @throws SQLException thrown when something exceptional happens
+     */
+    private boolean forEachRow(final PreparedStatement statement, final RowCallback<? super SimpleResultSet> callback, final int[] rowCount, final Object[] arguments) throws SQLException {
+        if (fetchSize > 0) {
+            statement.setFetchSize(fetchSize);
+        }
+
+        SimpleResultSet simpleResultSet = fetch(statement, arguments);
+
+        try {
+            while (simpleResultSet.next()) {
+                rowCount[0]++;
+
+                if (!callback.process(simpleResultSet)) {
+                    return false;
+                }
+            }
+
+            return true;
+        } finally {
+            DB.closeResultSet(simpleResultSet);
+        }
+    }
+
+    private <T> RowCallback<SimpleResultSet> toEntityCallback(final Class<T> clazz, final RowCallback<? super T> callback) {
+        return new RowCallback<SimpleResultSet>() {
+            private MappingPlan plan;
+
+            @Override
+            public boolean process(final SimpleResultSet simpleResultSet) throws SQLException {
+                // Resolve the mapping plan once rather than for every row
+                if (plan == null) {
+                    plan = resolveMappingPlan(clazz, simpleResultSet);
+                }
+
+                return callback.process(createEntity(clazz, plan, simpleResultSet));
+            }
+        };
+    }
+
+    /**
+     * Returns the results of the provided sql and arguments stored column by column, as typed arrays, rather than
+     * row by row. See {@link ColumnarResult}.
+     * @param sql the sql query which should be executed
+     * @param arguments the arguments which should be bound to the query
+     * @return the results of the query
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public ColumnarResult fetchColumnar(final String sql, final Object ... arguments) throws SQLException {
+        if (ExpandedSql.isExpandable(arguments)) {
+            ExpandedSql expanded = expandInLists(sql, arguments);
+            return fetchColumnar(expanded.getSql(), expanded.getArguments());
+        }
+
+        PreparedStatement statement = prepareCachedStatement(sql, false);
+
+        try {
+            return fetchColumnar(statement, arguments);
+        } finally {
+            releaseStatement(statement); // Release this here because a reference to it isn't returned
+        }
+    }
+
+    public ColumnarResult fetchColumnar(final PreparedStatement statement, final Object ... arguments) throws SQLException {
+        if (fetchSize > 0) {
+            statement.setFetchSize(fetchSize);
+        }
+
+        SimpleResultSet simpleResultSet = fetch(statement, arguments);
+
+        try {
+            return ColumnarResult.read(simpleResultSet);
+        } finally {
+            DB.closeResultSet(simpleResultSet); // Close this here because a reference to it isn't returned
+        }
+    }
+
+    public <T> T fetchEntity(final T entity, final String sql, final Object ... arguments) throws SQLException {
+        if (ExpandedSql.isExpandable(arguments)) {
+            ExpandedSql expanded = expandInLists(sql, arguments);
+            return fetchEntity(entity, expanded.getSql(), expanded.getArguments());
+        }
+
+        PreparedStatement statement = prepareCachedStatement(sql, false);
+
+        try {
+            return fetchEntity(entity, statement, arguments);
+        } finally {
+            releaseStatement(statement); // Release this here because a reference to it isn't returned
+        }
+    }
+
+    public <T> T fetchEntity(final T entity, final PreparedStatement statement, final Object ... arguments) throws SQLException {
         // Attempt to bind the arguments to the query
         bindArguments(statement, arguments);
 
         // Run the query
         SimpleResultSet simpleResultSet = fetch(statement);
 
-        Map<String, T> entities = new HashMap<>();
+        int count = 0;
 
         // Iterate over the results
-        while (simpleResultSet.next()) {
-            entities.put(simpleResultSet.getStringByName(columnLabel), fetchEntity(clazz, simpleResultSet));
+        while(simpleResultSet.next()) {
+            if (count > 0) {
+                throw new SQLException("Encountered a second record where a single record was expected");
+            }
+
+            // Populate the entity
+            fetchEntity(entity, simpleResultSet);
+            count++;
         }
 
         DB.closeResultSet(simpleResultSet); // Close this here because a reference to it isn't returned
 
-        return entities;
+        return entity;
     }
 
-    protected <T> T fetchEntity(final Class<T> clazz, final SimpleResultSet simpleResultSet) throws SQLException {
-        try {
-            T entity = clazz.newInstance();
-            return fetchEntity(entity, simpleResultSet);
-        } catch (InstantiationException e) {
-            throw new SQLException("Cannot instantiate entity: " + clazz.getCanonicalName(), e);
-        } catch (IllegalAccessException e) {
-            throw new SQLException("Cannot access constructor of entity: " + clazz.getCanonicalName(), e);
+    public <T> T fetchEntity(final Class<T> clazz, final String sql, final Object ... arguments) throws SQLException {
+        if (ExpandedSql.isExpandable(arguments)) {
+            ExpandedSql expanded = expandInLists(sql, arguments);
+            return fetchEntity(clazz, expanded.getSql(), expanded.getArguments());
         }
-    }
 
-    protected <T> T fetchEntity(final T entity, final SimpleResultSet simpleResultSet) throws SQLException {
+        PreparedStatement statement = prepareCachedStatement(sql, false);
+
         try {
-            int columnCount = simpleResultSet.getColumnCount();
+            return fetchEntity(clazz, statement, arguments);
+        } finally {
+            releaseStatement(statement); // Release this here because a reference to it isn't returned
+        }
+    }
 
-            for (int index = 1; index <= columnCount; index++) {
-                String columnName = toCamelCase(simpleResultSet.getColumnName(index));
-                String columnClassName = simpleResultSet.getColumnClassName(index);
-                Object value = simpleResultSet.getValue(index);
+    public <T> T fetchEntity(final Class<T> clazz, final PreparedStatement statement, final Object ... arguments) throws SQLException {
+        // Attempt to bind the arguments to the query
+        bindArguments(statement, arguments);
 
-                // Attempt to find the appropriate setter method
-                SetterMethod setterMethod = findSetter(entity, columnName, columnClassName);
+        // Run the query
+        SimpleResultSet simpleResultSet = fetch(statement);
 
-                Class argumentType = setterMethod.getArgumentType();
+        MappingPlan plan = resolveMappingPlan(clazz, simpleResultSet);
 
-                // Perform automatic type conversions, where possible
-                if (argumentType.equals(Long.class) && value instanceof Integer) {
-                    value = new Long((Integer) value);
-                }
-                if (argumentType.equals(Date.class) && value instanceof java.sql.Timestamp) {
-                    value = new Date(((java.sql.Timestamp) value).getTime());
-                }
+        // Entities which are populated after construction are returned empty when there are no results, whereas
+        // entities which are created through a constructor can't be created without a row
+        T entity = plan.isConstructorBased() ? null : newEntity(clazz);
+        int count = 0;
 
-                // Invoke the setter
-                setterMethod.invoke(entity, value);
+        // Iterate over the results
+        while(simpleResultSet.next()) {
+            if (count > 0) {
+                throw new SQLException("Encountered a second record where a single record was expected");
             }
 
-            return entity;
-        } catch (NoSuchMethodException e) {
-            throw new SQLException("Cannot invoke setter: ", e);
-        } catch (IllegalAccessException e) {
-            throw new SQLException("Cannot invoke setter: ", e);
-        } catch (InvocationTargetException e) {
-            throw new SQLException("Cannot invoke setter: ", e);
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("Cannot invoke setter: ", e);
+            entity = plan.isConstructorBased() ? clazz.cast(plan.construct(simpleResultSet)) : plan.populate(entity, simpleResultSet);
+            count++;
         }
+
+        DB.closeResultSet(simpleResultSet); // Close this here because a reference to it isn't returned
+
+        return entity;
     }
 
-    public List<Map<String, Object>> fetchAllMap(final String sql, final Object ... arguments) throws SQLException {
-        PreparedStatement statement = prepareStatement(sql);
-        List<Map<String, Object>> list = fetchAllMap(statement, arguments);
-        DB.closeStatement(statement); // Close this here because a reference to it isn't returned
-        return list;
+    /**
+     * Executes a joined query and splits each row into the entities of the provided graph, which are created once per
+     * primary key and linked to their parents. This loads a parent and its children with a single query rather than
+     * with one query per parent.
+     * @param graph describes how the columns of each row are split into entities
+     * @param sql the query which should be executed
+     * @param arguments the arguments which should be bound to the query
+     * @param <T> the type of the root entities
+     * @return the distinct root entities, in the order in which they were first encountered
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public <T> List<T> fetchGraph(final EntityGraph<T> graph, final String sql, final Object ... arguments) throws SQLException {
+        if (ExpandedSql.isExpandable(arguments)) {
+            ExpandedSql expanded = expandInLists(sql, arguments);
+            return fetchGraph(graph, expanded.getSql(), expanded.getArguments());
+        }
+
+        PreparedStatement statement = prepareCachedStatement(sql, false);
+
+        try {
+            return fetchGraph(graph, statement, arguments);
+        } finally {
+            releaseStatement(statement); // Release this here because a reference to it isn't returned
+        }
     }
 
-    public List<Map<String, Object>> fetchAllMap(final PreparedStatement statement, final Object ... arguments) throws SQLException {
+    public <T> List<T> fetchGraph(final EntityGraph<T> graph, final PreparedStatement statement, final Object ... arguments) throws SQLException {
         // Attempt to bind the arguments to the query
         bindArguments(statement, arguments);
 
-        // Run the query
-        SimpleResultSet simpleResultSet = fetch(statement);
+        // Run the query
+        SimpleResultSet simpleResultSet = fetch(statement);
+
+        List<EntityGraph.Node> nodes = graph.getNodes();
+        MappingPlan[] plans = new MappingPlan[nodes.size()];
+        int[][] idColumns = new int[nodes.size()][];
+
+        // Split the columns between the entities once rather than for every row
+        resolveGraphPlans(nodes, simpleResultSet, plans, idColumns);
+
+        // The identity maps only live as long as the query, so that each entity is created once per query
+        List<Map<Object, Object>> identityMaps = new ArrayList<>(nodes.size());
+        Set<GraphLink> links = new HashSet<>();
+        Object[] rowEntities = new Object[nodes.size()];
+        List<T> roots = new ArrayList<>();
+
+        for (int index = 0; index < nodes.size(); index++) {
+            identityMaps.add(new HashMap<Object, Object>());
+        }
+
+        // Iterate over the results
+        while (simpleResultSet.next()) {
+            for (int index = 0; index < nodes.size(); index++) {
+                EntityGraph.Node node = nodes.get(index);
+                Object id = readGraphId(simpleResultSet, idColumns[index]);
+
+                // This entity is absent from the current row, such as on the optional side of an outer join
+                if (id == null) {
+                    rowEntities[index] = null;
+                    continue;
+                }
+
+                Object entity = identityMaps.get(index).get(id);
+
+                if (entity == null) {
+                    entity = createEntity(node.getEntityClass(), plans[index], simpleResultSet);
+                    identityMaps.get(index).put(id, entity);
+
+                    if (index == 0) {
+                        roots.add(graph.getRootClass().cast(entity));
+                    }
+                }
+
+                rowEntities[index] = entity;
+
+                if (index > 0) {
+                    Object parent = rowEntities[node.getParentIndex()];
+
+                    // Rows repeat each pair of entities when more than one collection is joined
+                    if (parent != null && links.add(new GraphLink(index, parent, entity))) {
+                        node.getLinker().link(parent, entity);
+                    }
+                }
+            }
+        }
+
+        DB.closeResultSet(simpleResultSet); // Close this here because a reference to it isn't returned
+
+        return roots;
+    }
+
+    /**
+     * Assigns each column of the result set to the entity of the graph whose prefix is the longest match for the label
+     * of the column, and resolves the mapping plan and the primary key columns of each entity
+     * @param nodes the entities of the graph
+     * @param simpleResultSet the result set of the joined query
+     * @param plans receives the mapping plan of each entity
+     * @param idColumns receives the positions of the primary key columns of each entity
+     * @throws SQLException thrown when an entity has no columns or no primary key column
+     */
+    private void resolveGraphPlans(final List<EntityGraph.Node> nodes, final SimpleResultSet simpleResultSet, final MappingPlan[] plans, final int[][] idColumns) throws SQLException {
+        List<List<Integer>> positions = new ArrayList<>(nodes.size());
+
+        for (int index = 0; index < nodes.size(); index++) {
+            positions.add(new ArrayList<Integer>());
+        }
+
+        for (int position = 1; position <= simpleResultSet.getColumnCount(); position++) {
+            String columnName = simpleResultSet.getColumnLabel(position).toLowerCase();
+            int match = -1;
+
+            for (int index = 0; index < nodes.size(); index++) {
+                String prefix = nodes.get(index).getPrefix().toLowerCase();
+
+                if (columnName.startsWith(prefix) && columnName.length() > prefix.length()
+                    && (match == -1 || prefix.length() > nodes.get(match).getPrefix().length())) {
+                    match = index;
+                }
+            }
+
+            if (match != -1) {
+                positions.get(match).add(position);
+            }
+        }
+
+        for (int index = 0; index < nodes.size(); index++) {
+            EntityGraph.Node node = nodes.get(index);
+            EntityMetadata metadata = EntityMetadata.of(node.getEntityClass());
+            List<Integer> nodePositions = positions.get(index);
+            int[] columns = new int[nodePositions.size()];
+            String[] columnNames = new String[columns.length];
+            String[] columnClassNames = new String[columns.length];
+            List<Integer> ids = new ArrayList<>();
+            List<Integer> namedIds = new ArrayList<>();
+
+            if (columns.length == 0) {
+                throw new SQLException("Cannot find any columns with the prefix " + node.getPrefix()
+                    + " for " + node.getEntityClass().getCanonicalName());
+            }
+
+            for (int column = 0; column < columns.length; column++) {
+                columns[column] = nodePositions.get(column);
+                columnNames[column] = simpleResultSet.getColumnLabel(columns[column]).substring(node.getPrefix().length());
+                columnClassNames[column] = simpleResultSet.getColumnClassName(columns[column]);
+
+                EntityMetadata.Property property = findProperty(metadata, columnNames[column]);
+
+                if (property != null && property.isId()) {
+                    ids.add(columns[column]);
+                } else if (columnNames[column].equalsIgnoreCase("id")) {
+                    namedIds.add(columns[column]);
+                }
+            }
+
+            if (ids.isEmpty()) {
+                ids = namedIds;
+            }
+
+            if (ids.isEmpty()) {
+                throw new SQLException("Cannot find the primary key column with the prefix " + node.getPrefix()
+                    + " for " + node.getEntityClass().getCanonicalName());
+            }
+
+            idColumns[index] = new int[ids.size()];
+
+            for (int id = 0; id < ids.size(); id++) {
+                idColumns[index][id] = ids.get(id);
+            }
 
-        List<Map<String, Object>> entities = new ArrayList<>();
+            plans[index] = resolveMappingPlan(node.getEntityClass(), columnNames, columnClassNames).remap(columns);
+        }
+    }
 
-        // Iterate over the results
-        while(simpleResultSet.next()) {
-            entities.add(fetchMap(simpleResultSet));
+    /**
+     * Reads the primary key of an entity in the graph, which is a list of values when the key has several columns
+     * @param simpleResultSet the result set which is positioned on the current row
+     * @param idColumns the positions of the primary key columns
+     * @return the primary key or null if it is null
+     * @throws SQLException thrown when something exceptional happens
+     */
+    private static Object readGraphId(final SimpleResultSet simpleResultSet, final int[] idColumns) throws SQLException {
+        if (idColumns.length == 1) {
+            return simpleResultSet.getValue(idColumns[0]);
         }
 
-        DB.closeResultSet(simpleResultSet); // Close this here because a reference to it isn't returned
+        Object[] values = new Object[idColumns.length];
+        boolean absent = true;
 
-        // Not technically type safe but necessary to create the illusion of it
-        return entities;
-    }
+        for (int index = 0; index < idColumns.length; index++) {
+            values[index] = simpleResultSet.getValue(idColumns[index]);
+            absent = absent && values[index] == null;
+        }
 
-    public <T> T fetchEntity(final T entity, final String sql, final Object ... arguments) throws SQLException {
-        PreparedStatement statement = prepareStatement(sql);
-        T e = fetchEntity(entity, statement, arguments);
-        DB.closeStatement(statement); // Close this here because a reference to it isn't returned
-        return e;
+        return absent ? null : Arrays.asList(values);
     }
 
-    public <T> T fetchEntity(final T entity, final PreparedStatement statement, final Object ... arguments) throws SQLException {
-        // Attempt to bind the arguments to the query
-        bindArguments(statement, arguments);
+    /**
+     * Records that a child entity has been linked to a parent entity. Entities are compared by identity because
+     * they are unique within a query.
+     */
+    private static final class GraphLink {
+        private final int node;
+        private final Object parent;
+        private final Object child;
+
+        GraphLink(final int node, final Object parent, final Object child) {
+            this.node = node;
+            this.parent = parent;
+            this.child = child;
+        }
 
-        // Run the query
-        SimpleResultSet simpleResultSet = fetch(statement);
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof GraphLink)) {
+                return false;
+            }
 
-        int count = 0;
+            GraphLink link = (GraphLink) o;
 
-        // Iterate over the results
-        while(simpleResultSet.next()) {
-            if (count > 0) {
-                throw new SQLException("Encountered a second record where a single record was expected");
-            }
+            return node == link.node && parent == link.parent && child == link.child;
+        }
 
-            // Populate the entity
-            fetchEntity(entity, simpleResultSet);
-            count++;
+        @Override
+        public int hashCode() {
+            return 31 * (31 * node + System.identityHashCode(parent)) + System.identityHashCode(child);
         }
+    }
 
-        DB.closeResultSet(simpleResultSet); // Close this here because a reference to it isn't returned
+    public Map<String, Object> fetchMap(final String sql, final Object ... arguments) throws SQLException {
+        if (ExpandedSql.isExpandable(arguments)) {
+            ExpandedSql expanded = expandInLists(sql, arguments);
+            return fetchMap(expanded.getSql(), expanded.getArguments());
+        }
 
-        return entity;
-    }
+        PreparedStatement statement = prepareCachedStatement(sql, false);
 
-    public <T> T fetchEntity(final Class<T> clazz, final String sql, final Object ... arguments) throws SQLException {
         try {
-            T entity = clazz.newInstance();
-            return fetchEntity(entity, sql, arguments);
-        } catch (InstantiationException e) {
-            throw new SQLException("Cannot instantiate entity: " + clazz.getCanonicalName(), e);
-        } catch (IllegalAccessException e) {
-            throw new SQLException("Cannot access constructor of entity: " + clazz.getCanonicalName(), e);
+            return fetchMap(statement, arguments);
+        } finally {
+            releaseStatement(statement); // Release this here because a reference to it isn't returned
         }
     }
 
-    public Map<String, Object> fetchMap(final String sql, final Object ... arguments) throws SQLException {
-        PreparedStatement statement = prepareStatement(sql);
-        Map<String, Object> map = fetchMap(statement, arguments);
-        DB.closeStatement(statement); // Close this here because a reference to it isn't returned
-        return map;
-    }
-
     public Map<String, Object> fetchMap(final PreparedStatement statement, final Object ... arguments) throws SQLException {
         // Attempt to bind the arguments to the query
         bindArguments(statement, arguments);
@@ -924,6 +3128,183 @@ public abstract class SimpleConnection implements Connection {
         }, sql, args);
     }
 
+    /**
+     * Prepares the specified sql statement, which uses named parameters such as :username, for execution and binds
+     * the values of those parameters to it
+     * @param sql the sql which should be prepared
+     * @param parameters the source of the values of the named parameters
+     * @return a reference to the prepared statement after the arguments have been bound to it
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public PreparedStatement prepareStatement(final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return prepareStatement(parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    /**
+     * Fetches a {@link SimpleResultSet} from the provided sql, which uses named parameters such as :username
+     * @param sql the sql query which should be executed
+     * @param parameters the source of the values of the named parameters
+     * @return a reference to an instance of {@link SimpleResultSet} which contains the results of the query
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public SimpleResultSet fetch(final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetch(parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public <T> T fetch(final ResultSetHandler<T> handler, final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetch(handler, parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    /**
+     * Executes the provided sql, which uses named parameters such as :username
+     * @param sql the sql which should be executed
+     * @param parameters the source of the values of the named parameters
+     * @return true if the first result is a resultset
+     * @throws SQLException thrown when something exceptional happens
+     */
+    public boolean execute(final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return execute(parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public List<Integer> fetchListInteger(final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetchListInteger(parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public List<Long> fetchListLong(final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetchListLong(parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public long[] fetchLongArray(final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetchLongArray(parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public int[] fetchIntArray(final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetchIntArray(parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public double[] fetchDoubleArray(final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetchDoubleArray(parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public LongHashSet fetchLongSet(final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetchLongSet(parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public <T> List<T> fetchAllEntity(final Class<T> clazz, final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetchAllEntity(clazz, parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public <T> Map<String, T> fetchAllEntityMap(final Class<T> clazz, final String columnLabel, final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetchAllEntityMap(clazz, columnLabel, parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public <T> T fetchEntity(final Class<T> clazz, final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetchEntity(clazz, parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public <T> List<T> fetchAllProjection(final Class<T> projectionClass, final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetchAllProjection(projectionClass, parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public <T> T fetchProjection(final Class<T> projectionClass, final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetchProjection(projectionClass, parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public List<Map<String, Object>> fetchAllMap(final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetchAllMap(parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public Map<String, Object> fetchMap(final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetchMap(parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public String fetchString(final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetchString(parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public Integer fetchInt(final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetchInt(parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public Long fetchLong(final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetchLong(parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public BigDecimal fetchBigDecimal(final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetchBigDecimal(parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public Boolean fetchBoolean(final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetchBoolean(parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public Date fetchDate(final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetchDate(parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public Timestamp fetchTimestamp(final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetchTimestamp(parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public Object fetchObject(final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetchObject(parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public <T> ResultSetIterator<T> iterate(final ResultSetHandler<T> handler, final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return iterate(handler, parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public <T> ResultSetIterator<T> streamEntity(final Class<T> clazz, final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return streamEntity(clazz, parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public ResultSetIterator<Map<String, Object>> streamMap(final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return streamMap(parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public ColumnarResult fetchColumnar(final String sql, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return fetchColumnar(parsed.getSql(), parsed.getArguments(parameters));
+    }
+
+    public int forEachRow(final String sql, final RowCallback<? super SimpleResultSet> callback, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return forEachRow(parsed.getSql(), callback, parsed.getArguments(parameters));
+    }
+
+    public <T> int forEachEntity(final Class<T> clazz, final String sql, final RowCallback<? super T> callback, final ParameterSource parameters) throws SQLException {
+        NamedParameterSql parsed = NamedParameterSql.parse(sql);
+        return forEachEntity(clazz, parsed.getSql(), callback, parsed.getArguments(parameters));
+    }
+
     /**
      * Attempts to bind the specified arguments to the specified statement
      * @param statement the statement to which the arguments should be bound
@@ -932,12 +3313,18 @@ public abstract class SimpleConnection implements Connection {
      * @throws SQLException thrown when something exceptional happens
      */
     public PreparedStatement bindArguments(final PreparedStatement statement, final Object ... args) throws SQLException {
+        int[] types = getParameterTypes(statement);
         int index = 1;
 
         // Iterate through the arguments
         for (Object argument : args) {
             // Attempt to bind the argument to the query
-            bindObject(statement, index, argument);
+            if (types != null && index <= types.length) {
+                bindObject(statement, index, argument, types[index - 1]);
+            } else {
+                bindObject(statement, index, argument);
+            }
+
             index++;
         }
 
@@ -945,8 +3332,9 @@ public abstract class SimpleConnection implements Connection {
     }
 
     /**
-     * Binds the specified object to the specified statement in the specified position. If a null object is specified,
-     * then null will be bound to the statement instead
+     * Binds the specified object to the specified statement in the specified position, with the binder which is
+     * registered for its class with {@link Binders}. If a null object is specified, then null will be bound to the
+     * statement instead
      * @param statement the statement to which the object should be bound
      * @param position the position in which the object should be bound
      * @param value the object which should be bound to the statement
@@ -955,50 +3343,36 @@ public abstract class SimpleConnection implements Connection {
     protected void bindObject(final PreparedStatement statement, final int position, final Object value) throws SQLException {
         if (value == null) {
             statement.setNull(position, Types.NULL);
-        } else if (value instanceof String) {
-            bindString(statement, position, (String) value);
-        } else if (value instanceof Integer) {
-            bindInteger(statement, position, (Integer) value);
-        } else if (value instanceof Long) {
-            bindLong(statement, position, (Long) value);
-        } else if (value instanceof Float) {
-            bindFloat(statement, position, (Float) value);
-        } else if (value instanceof Double) {
-            bindDouble(statement, position, (Double) value);
-        } else if (value instanceof Boolean) {
-            bindBoolean(statement, position, (Boolean) value);
-        } else if (value instanceof Time) {
-            bindTime(statement, position, (Time) value);
-        } else if (value instanceof Timestamp) {
-            bindTimestamp(statement, position, (Timestamp) value);
-        } else if (value instanceof Date) {
-            bindDate(statement, position, (Date) value);
-        } else if (value instanceof BigDecimal) {
-            bindBigDecimal(statement, position, (BigDecimal) value);
-        } else if (value instanceof Short) {
-            bindShort(statement, position, (Short) value);
-        } else if (value instanceof Byte) {
-            bindByte(statement, position, (Byte) value);
-        } else if (value instanceof Array) {
-            bindArray(statement, position, (Array) value);
-        } else if (value instanceof Blob) {
-            bindBlob(statement, position, (Blob) value);
-        } else if (value instanceof NClob) {
-            bindNClob(statement, position, (NClob) value);
-        } else if (value instanceof Clob) {
-            bindClob(statement, position, (Clob) value);
-        } else if (value instanceof InputStream) {
-            bindBinaryStream(statement, position, (InputStream) value);
-        } else if (value instanceof SQLXML) {
-            bindSQLXML(statement, position, (SQLXML) value);
-        } else if (value instanceof Ref) {
-            bindRef(statement, position, (Ref) value);
-        } else if (value instanceof byte[]) {
-            bindBytes(statement, position, (byte[]) value);
         } else {
-            // Try this as a last resort, if we don't have an explicit way of
-            // handling the type
-            statement.setObject(position, value);
+            // The binder is resolved once per class, rather than testing the value against every supported type
+            Binders.find(value.getClass()).bind(this, statement, position, value);
+        }
+    }
+
+    /**
+     * Binds the specified object to the specified statement in the specified position, where the driver has reported
+     * the SQL type of the parameter. Nulls, and objects which do not have a more specific binder than setObject(), are
+     * bound with that type. Everything else is bound by its binder, as usual.
+     * @param statement the statement to which the object should be bound
+     * @param position the position in which the object should be bound
+     * @param value the object which should be bound to the statement
+     * @param sqlType the SQL type of the parameter, as defined by {@link Types}
+     * @throws SQLException thrown when something exceptional happens
+     */
+    protected void bindObject(final PreparedStatement statement, final int position, final Object value, final int sqlType) throws SQLException {
+        if (sqlType == Types.NULL || sqlType == Types.OTHER) {
+            // The driver doesn't know the type either
+            bindObject(statement, position, value);
+        } else if (value == null) {
+            statement.setNull(position, sqlType);
+        } else {
+            Binder<Object> binder = Binders.find(value.getClass());
+
+            if (binder == Binders.find(Object.class)) {
+                statement.setObject(position, value, sqlType);
+            } else {
+                binder.bind(this, statement, position, value);
+            }
         }
     }
 
@@ -1322,6 +3696,158 @@ public abstract class SimpleConnection implements Connection {
         }
     }
 
+    /**
+     * Returns the access mode which should be used for the specified entity class. An access mode which is declared by
+     * the entity takes precedence over the access mode of this connection.
+     * @param entityClass the class of the entity
+     * @return the access mode which should be used for the entity
+     */
+    protected AccessMode resolveAccessMode(final Class<?> entityClass) {
+        AccessMode entityAccessMode = EntityMetadata.of(entityClass).getAccessMode();
+        return entityAccessMode != null ? entityAccessMode : accessMode;
+    }
+
+    /**
+     * Locates the field for each of the specified columns and compiles them into a mapping plan which writes the
+     * fields directly. Columns are matched against the names of javax.persistence.Column annotations first, if the
+     * entity is a JPA entity, and then against the camel case names of the fields.
+     * @param entityClass the class of the entities which should be populated
+     * @param columnNames the names of the columns in the result set
+     * @param columnClassNames the class names of the columns in the result set
+     * @return the compiled mapping plan
+     * @throws SQLException thrown when a field cannot be found for one of the columns
+     */
+    protected MappingPlan compileFieldMappingPlan(final Class<?> entityClass, final String[] columnNames, final String[] columnClassNames) throws SQLException {
+        EntityMetadata metadata = EntityMetadata.of(entityClass);
+        PropertyWriter[] writers = new PropertyWriter[columnNames.length];
+        TypeConverter<?, ?>[] converters = new TypeConverter<?, ?>[columnNames.length];
+
+        for (int index = 0; index < columnNames.length; index++) {
+            EntityMetadata.Property property = findProperty(metadata, columnNames[index]);
+            Field field = property != null ? property.getField() : null;
+
+            if (field == null || Modifier.isFinal(field.getModifiers())) {
+                throw new SQLException("Cannot find a field for column " + columnNames[index]
+                    + " in " + entityClass.getCanonicalName());
+            }
+
+            if (!isCompatibleField(field.getType(), columnClassNames[index])) {
+                throw new SQLException("Field type(" + field.getType().getName()
+                    + ") does not match the column type name(" + columnClassNames[index] + ")");
+            }
+
+            try {
+                writers[index] = new FieldWriter(field);
+            } catch (UnsupportedOperationException e) {
+                throw new SQLException("Cannot write field: " + field, e);
+            }
+
+            converters[index] = TypeConverters.find(loadColumnClass(columnClassNames[index]), field.getType());
+        }
+
+        return new MappingPlan(entityClass, writers, converters);
+    }
+
+    /**
+     * Returns the persistent property of the entity which maps to the specified column, either because the column
+     * name of the property matches or because the name of the property matches the camel case equivalent of the
+     * column name, or null if there isn't one
+     * @param metadata the metadata of the entity
+     * @param columnName the name of the column
+     * @return the property which maps to the column or null
+     * @throws SQLException thrown when the column name cannot be converted to camel case
+     */
+    protected EntityMetadata.Property findProperty(final EntityMetadata metadata, final String columnName) throws SQLException {
+        EntityMetadata.Property property = metadata.getPropertyByColumn(columnName);
+        return property != null ? property : metadata.getProperty(toCamelCase(columnName));
+    }
+
+    /**
+     * Returns true if values of the specified column type can be written to a field of the specified type
+     * @param fieldType the type of the field
+     * @param columnClassName the class name of the column
+     * @return true if values of the column can be written to the field and false otherwise
+     * @throws SQLException thrown when the column class cannot be loaded
+     */
+    protected boolean isCompatibleField(final Class<?> fieldType, final String columnClassName) throws SQLException {
+        return TypeConverters.canConvert(loadColumnClass(columnClassName), fieldType);
+    }
+
+    /**
+     * Loads the class which the driver reported for a column
+     * @param columnClassName the class name of the column
+     * @return the class of the column
+     * @throws SQLException thrown when the column class cannot be loaded
+     */
+    private static Class<?> loadColumnClass(final String columnClassName) throws SQLException {
+        try {
+            return Class.forName(columnClassName);
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("Cannot load column class: " + columnClassName, e);
+        }
+    }
+
+    /**
+     * Matches the specified columns against the properties of the provided mapper and compiles them into a mapping plan.
+     * Columns are resolved to properties in the same way as they are for reflection, so the names of
+     * javax.persistence.Column annotations are matched first and the camel case names of the columns second.
+     * The types of the columns are validated against the setters of the properties, as they are for reflection, so
+     * that a column is never read into a property which cannot hold its values.
+     * @param rowMapper the mapper which populates the entities
+     * @param columnNames the names of the columns in the result set
+     * @param columnClassNames the class names of the columns in the result set
+     * @return the compiled mapping plan
+     * @throws SQLException thrown when the mapper does not have a compatible property for one of the columns
+     */
+    protected MappingPlan compileMappingPlan(final RowMapper<?> rowMapper, final String[] columnNames, final String[] columnClassNames) throws SQLException {
+        Class<?> entityClass = rowMapper.getEntityClass();
+        EntityMetadata metadata = EntityMetadata.of(entityClass);
+        List<String> propertyNames = Arrays.asList(rowMapper.getPropertyNames());
+        int[] positions = new int[propertyNames.size()];
+
+        for (int index = 0; index < columnNames.length; index++) {
+            EntityMetadata.Property metadataProperty = findProperty(metadata, columnNames[index]);
+            String propertyName = metadataProperty != null ? metadataProperty.getName() : toCamelCase(columnNames[index]);
+            int property = propertyNames.indexOf(propertyName);
+
+            if (property == -1) {
+                throw new SQLException("Cannot find a setter for column " + columnNames[index]
+                    + " in " + entityClass.getCanonicalName());
+            }
+
+            Method setter = findMapperSetter(entityClass, propertyName);
+
+            if (setter != null && !TypeConverters.canConvert(loadColumnClass(columnClassNames[index]), setter.getParameterTypes()[0])) {
+                throw new SQLException("Setter argument type(" + setter.getParameterTypes()[0].getName()
+                    + ") of " + setter.getName() + " does not match the column type name(" + columnClassNames[index] + ")");
+            }
+
+            positions[property] = index + 1;
+        }
+
+        return new MappingPlan(rowMapper, positions, columnNames.length);
+    }
+
+    /**
+     * Returns the setter which a row mapper calls to populate the specified property or null if it cannot be found,
+     * such as when a hand written mapper populates the property some other way
+     * @param entityClass the class of the entity
+     * @param propertyName the name of the property
+     * @return the setter of the property or null
+     */
+    private static Method findMapperSetter(final Class<?> entityClass, final String propertyName) {
+        String setterName = "set" + Character.toUpperCase(propertyName.charAt(0)) + propertyName.substring(1);
+
+        for (Method method : entityClass.getMethods()) {
+            if (method.getName().equals(setterName) && !Modifier.isStatic(method.getModifiers())
+                && method.getParameterTypes().length == 1) {
+                return method;
+            }
+        }
+
+        return null;
+    }
+
     /**
      * This method attempts to locate the appropriate setter method within the specified object based
      * on the column name and data type which was returned by the database.
@@ -1333,53 +3859,57 @@ public abstract class SimpleConnection implements Connection {
      * @throws NoSuchMethodException thrown when something exceptional happens
      * @throws SQLException thrown when something exceptional happens
      */
-    @SuppressWarnings("unchecked")
     protected SetterMethod findSetter(final Object entity, final String columnName, final String columnTypeName) throws ClassNotFoundException, NoSuchMethodException, SQLException {
-        Class columnClass = Class.forName(columnTypeName);
-        Class entityClass = entity.getClass();
+        return findSetter(entity.getClass(), columnName, columnTypeName);
+    }
+
+    /**
+     * This method attempts to locate the appropriate setter method within the specified class based
+     * on the column name and data type which was returned by the database.
+     * @param entityClass The class in which we are looking for a setter method
+     * @param columnName the column name of the data for which we are trying to find a setter method
+     * @param columnTypeName the name of the data type which was returned by the database
+     * @return An instance of @{link co.lariat.jdbc.SetterMethod()} or null if a setter cannot be found
+     * @throws ClassNotFoundException thrown when something exceptional happens
+     * @throws NoSuchMethodException thrown when something exceptional happens
+     * @throws SQLException thrown when something exceptional happens
+     */
+    protected SetterMethod findSetter(final Class<?> entityClass, final String columnName, final String columnTypeName) throws ClassNotFoundException, NoSuchMethodException, SQLException {
+        Class<?> columnClass = Class.forName(columnTypeName);
 
         // Attempt to find a setter name for the property
         String setterName = "set"
             + new String(new char[]{columnName.charAt(0)}).toUpperCase()
             + columnName.substring(1);
 
-        Method setterMethod;
+        Class<?> primitiveClass = PRIMITIVE_TYPES.get(columnClass);
+        Method convertibleMethod = null;
 
-        try {
-            setterMethod = entityClass.getMethod(setterName, columnClass);
-        } catch (NoSuchMethodException e) {
-            // Attempt some type conversions, where possible
-            if (columnTypeName.equals("java.lang.Integer")) {
-                return findSetter(entity, columnName, "java.lang.Long");
-            } else if (columnTypeName.equals("java.sql.Timestamp")) {
-                return findSetter(entity, columnName, "java.util.Date");
-            } else {
-                throw e;
+        // Prefer a setter which accepts the column type, or its primitive equivalent so that it is populated without
+        // boxing, over one which needs its argument to be converted
+        for (Method method : entityClass.getMethods()) {
+            Class<?>[] parameterTypes = method.getParameterTypes();
+
+            // Setter methods only accept a single parameter
+            if (!method.getName().equals(setterName) || Modifier.isStatic(method.getModifiers()) || parameterTypes.length != 1) {
+                continue;
             }
-        }
 
-        Type[] parameterTypes = setterMethod.getParameterTypes();
+            if (parameterTypes[0].equals(columnClass) || parameterTypes[0].equals(primitiveClass)) {
+                return new SetterMethod(method);
+            }
 
-        if (parameterTypes.length != 1) {
-            throw new SQLException("Setter methods should only accept a single parameter");
+            if (convertibleMethod == null && TypeConverters.canConvert(columnClass, parameterTypes[0])) {
+                convertibleMethod = method;
+            }
         }
 
-        Type setterArgumentType = parameterTypes[0];
-
-        // TODO: This probably isn't very portable
-        String setterArgumentTypeName = setterArgumentType.toString().replaceAll("class ", "");
-
-        if (!setterArgumentTypeName.equals(columnTypeName)) {
-            throw new SQLException("Setter argument type("
-                + setterArgumentTypeName
-                + ") does not match the column type name("
-                + columnTypeName
-                + ")"
-            );
+        if (convertibleMethod == null) {
+            throw new NoSuchMethodException(entityClass.getName() + "." + setterName + "(" + columnTypeName + ")");
         }
 
         // Return the setter
-        return new SetterMethod(setterMethod);
+        return new SetterMethod(convertibleMethod);
     }
 
     /**
@@ -1389,17 +3919,8 @@ public abstract class SimpleConnection implements Connection {
      * @return true if the specified class is annotated with javax.persistence.Entity
      * and false otherwise
      */
-    protected boolean isJpaEntity(final Class entityClass) {
-        // Assume that we're not dealing with a JPA entity if the entity annotation does not
-        // exist on the classpath
-        try {
-            Class.forName("javax.persistence.Entity");
-        } catch( ClassNotFoundException e ) {
-            return false;
-        }
-
-        // Otherwise, check to see if the entity is annotated with it
-        return entityClass.isAnnotationPresent(Entity.class);
+    protected boolean isJpaEntity(final Class<?> entityClass) {
+        return EntityMetadata.of(entityClass).isJpaEntity();
     }
 
     /**
@@ -1474,6 +3995,7 @@ public abstract class SimpleConnection implements Connection {
      * {@inheritDoc}
      */
     public void close() throws SQLException {
+        statementCache.clear();
         this.connection.close();
     }
 
@@ -1558,14 +4080,14 @@ public abstract class SimpleConnection implements Connection {
      * {@inheritDoc}
      */
     public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
-        return this.connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+        return describeParameters(sql, this.connection.prepareStatement(sql, resultSetType, resultSetConcurrency));
     }
 
     /**
      * {@inheritDoc}
      */
     public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
-        return this.connection.prepareCall(sql, resultSetType, resultSetConcurrency);
+        return describeParameters(sql, this.connection.prepareCall(sql, resultSetType, resultSetConcurrency));
     }
 
     /**
@@ -1635,35 +4157,35 @@ public abstract class SimpleConnection implements Connection {
      * {@inheritDoc}
      */
     public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
-        return this.connection.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+        return describeParameters(sql, this.connection.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
     }
 
     /**
      * {@inheritDoc}
      */
     public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
-        return this.connection.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+        return describeParameters(sql, this.connection.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
     }
 
     /**
      * {@inheritDoc}
      */
     public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
-        return this.connection.prepareStatement(sql, autoGeneratedKeys);
+        return describeParameters(sql, this.connection.prepareStatement(sql, autoGeneratedKeys));
     }
 
     /**
      * {@inheritDoc}
      */
     public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
-        return this.connection.prepareStatement(sql, columnIndexes);
+        return describeParameters(sql, this.connection.prepareStatement(sql, columnIndexes));
     }
 
     /**
      * {@inheritDoc}
      */
     public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
-        return this.connection.prepareStatement(sql, columnNames);
+        return describeParameters(sql, this.connection.prepareStatement(sql, columnNames));
     }
 
     /**
@@ -1796,14 +4318,14 @@ public abstract class SimpleConnection implements Connection {
      * {@inheritDoc}
      */
     public PreparedStatement prepareStatement(String sql) throws SQLException {
-        return this.connection.prepareStatement(sql);
+        return describeParameters(sql, this.connection.prepareStatement(sql));
     }
 
     /**
      * {@inheritDoc}
      */
     public CallableStatement prepareCall(String sql) throws SQLException {
-        return this.connection.prepareCall(sql);
+        return describeParameters(sql, this.connection.prepareCall(sql));
     }
 
     /**
@@ -1833,4 +4355,97 @@ public abstract class SimpleConnection implements Connection {
     public boolean isWrapperFor(Class<?> iface) throws SQLException {
         return this.connection.isWrapperFor(iface);
     }
+
+    /**
+     * Collects the first column of each row into an array of primitive longs, which is doubled whenever it is full
+     */
+    private static class LongArrayCallback implements RowCallback<SimpleResultSet> {
+        private long[] values = new long[64];
+        private int size = 0;
+
+        @Override
+        public boolean process(final SimpleResultSet row) throws SQLException {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, growCapacity(size));
+            }
+
+            values[size++] = row.getLong(1);
+            return true;
+        }
+
+        public long[] toArray() {
+            return size == values.length ? values : Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Collects the first column of each row into an array of primitive ints. See {@link LongArrayCallback}.
+     */
+    private static class IntArrayCallback implements RowCallback<SimpleResultSet> {
+        private int[] values = new int[64];
+        private int size = 0;
+
+        @Override
+        public boolean process(final SimpleResultSet row) throws SQLException {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, growCapacity(size));
+            }
+
+            values[size++] = row.getInt(1);
+            return true;
+        }
+
+        public int[] toArray() {
+            return size == values.length ? values : Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Collects the first column of each row into an array of primitive doubles. See {@link LongArrayCallback}.
+     */
+    private static class DoubleArrayCallback implements RowCallback<SimpleResultSet> {
+        private double[] values = new double[64];
+        private int size = 0;
+
+        @Override
+        public boolean process(final SimpleResultSet row) throws SQLException {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, growCapacity(size));
+            }
+
+            values[size++] = row.getDouble(1);
+            return true;
+        }
+
+        public double[] toArray() {
+            return size == values.length ? values : Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Returns the capacity to which a full array of the specified size should grow
+     * @param size the size of the full array
+     * @return the new capacity
+     */
+    private static int growCapacity(final int size) {
+        if (size >= Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("The results have more rows than an array can hold");
+        }
+
+        return (int) Math.min((long) size << 1, Integer.MAX_VALUE - 8);
+    }
+
+    /**
+     * Notified after each batch of a batch execution has been sent to the database
+     */
+    protected interface BatchCallback {
+        /**
+         * Called after a batch has been executed
+         * @param statement the statement which executed the batch
+         * @param firstRow the index of the first row of the batch
+         * @param rowCount the number of rows in the batch
+         * @throws SQLException thrown when something exceptional happens
+         */
+        void afterBatch(PreparedStatement statement, int firstRow, int rowCount) throws SQLException;
+    }
 }
@@ -56,6 +56,11 @@ import java.util.Map;
 public abstract class SimpleResultSet implements ResultSet {
     private ResultSet resultSet;
 
+    /**
+     * The metadata of the wrapped result set, which is loaded the first time that it is needed
+     */
+    private ResultSetMetaData metaData;
+
     public SimpleResultSet(final ResultSet resultSet) {
         this.resultSet = resultSet;
     }
@@ -69,15 +74,25 @@ public abstract class SimpleResultSet implements ResultSet {
     }
 
     public int getColumnCount() throws SQLException {
-        return resultSet.getMetaData().getColumnCount();
+        return getMetaData().getColumnCount();
     }
 
     public String getColumnName(final int position) throws SQLException {
-        return resultSet.getMetaData().getColumnName(position);
+        return getMetaData().getColumnName(position);
+    }
+
+    /**
+     * Returns the label of the specified column, which is the alias given to it by the query, if it has one
+     * @param position the position of the column
+     * @return the label of the specified column
+     * @throws SQLException thrown when the metadata of the result set cannot be read
+     */
+    public String getColumnLabel(final int position) throws SQLException {
+        return getMetaData().getColumnLabel(position);
     }
 
     public String getColumnClassName(final int position) throws SQLException {
-        return resultSet.getMetaData().getColumnClassName(position);
+        return getMetaData().getColumnClassName(position);
     }
 
     public Object getValue(final int position) throws SQLException {
@@ -344,7 +359,11 @@ public abstract class SimpleResultSet implements ResultSet {
      * {@inheritDoc}
      */
     public ResultSetMetaData getMetaData() throws SQLException {
-        return resultSet.getMetaData();
+        if (metaData == null) {
+            metaData = resultSet.getMetaData();
+        }
+
+        return metaData;
     }
 
     /**
@@ -0,0 +1,243 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A bounded cache of the prepared statements of a single connection, keyed by their sql and result set options. A
+ * statement is removed from the cache while it is in use, so that a query which runs another query with the same sql
+ * gets a statement of its own, and is returned to the cache once its results have been consumed. Its parameters are
+ * cleared at that point. When the cache is full, the least recently used statement is closed to make room.
+ * <p>
+ * Like the connection which it belongs to, the cache is not thread safe.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/17/26 12:40 AM - Created with IntelliJ IDEA.
+ */
+public class StatementCache {
+    private final LinkedHashMap<Key, PreparedStatement> idle = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The statements which are in use. Statements are weakly referenced so that those which are never returned,
+     * because an exception was thrown while they were in use, are simply forgotten.
+     */
+    private final Map<PreparedStatement, Key> inUse = new WeakHashMap<>();
+
+    private int maxSize;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public StatementCache(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the maximum number of idle statements which are cached, closing the least recently used statements if there
+     * are more than that already
+     * @param maxSize the maximum number of idle statements which are cached, or zero to disable the cache
+     */
+    public void setMaxSize(final int maxSize) {
+        this.maxSize = maxSize;
+        trim();
+    }
+
+    public int size() {
+        return idle.size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Takes the cached statement with the specified key out of the cache
+     * @param key identifies the statement
+     * @return the statement or null if there isn't an idle one in the cache
+     */
+    public PreparedStatement acquire(final Key key) {
+        PreparedStatement statement = idle.remove(key);
+
+        if (statement == null) {
+            misses++;
+            return null;
+        }
+
+        hits++;
+        inUse.put(statement, key);
+        return statement;
+    }
+
+    /**
+     * Records that the specified statement, which has just been prepared, should be returned to the cache once it has
+     * been used
+     * @param key identifies the statement
+     * @param statement the statement
+     */
+    public void track(final Key key, final PreparedStatement statement) {
+        inUse.put(statement, key);
+    }
+
+    /**
+     * Returns the specified statement to the cache, after clearing its parameters. Statements which did not come
+     * from the cache, or which cannot be reused, are closed instead.
+     * @param statement the statement which is no longer in use
+     */
+    public void release(final PreparedStatement statement) {
+        Key key = inUse.remove(statement);
+
+        // Only one idle statement is kept for each key
+        if (key == null || maxSize <= 0 || idle.containsKey(key)) {
+            DB.closeStatement(statement);
+            return;
+        }
+
+        try {
+            statement.clearParameters();
+        } catch (SQLException e) {
+            DB.closeStatement(statement);
+            return;
+        }
+
+        idle.put(key, statement);
+        trim();
+    }
+
+    /**
+     * Closes every idle statement in the cache
+     */
+    public void clear() {
+        for (PreparedStatement statement : idle.values()) {
+            DB.closeStatement(statement);
+        }
+
+        idle.clear();
+        inUse.clear();
+    }
+
+    private void trim() {
+        Iterator<PreparedStatement> iterator = idle.values().iterator();
+
+        while (idle.size() > Math.max(maxSize, 0) && iterator.hasNext()) {
+            DB.closeStatement(iterator.next());
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StatementCache{" +
+            "size=" + idle.size() +
+            ", maxSize=" + maxSize +
+            ", hits=" + hits +
+            ", misses=" + misses +
+            ", evictions=" + evictions +
+            '}';
+    }
+
+    /**
+     * Identifies a cached statement by its sql and the options with which it was prepared
+     */
+    public static class Key {
+        private final String sql;
+        private final boolean callable;
+        private final int resultSetType;
+        private final int resultSetConcurrency;
+        private final int hashCode;
+
+        public Key(final String sql, final boolean callable, final int resultSetType, final int resultSetConcurrency) {
+            this.sql = sql;
+            this.callable = callable;
+            this.resultSetType = resultSetType;
+            this.resultSetConcurrency = resultSetConcurrency;
+
+            int result = sql.hashCode();
+            result = 31 * result + (callable ? 1 : 0);
+            result = 31 * result + resultSetType;
+            result = 31 * result + resultSetConcurrency;
+            this.hashCode = result;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public boolean isCallable() {
+            return callable;
+        }
+
+        public int getResultSetType() {
+            return resultSetType;
+        }
+
+        public int getResultSetConcurrency() {
+            return resultSetConcurrency;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) o;
+
+            return callable == key.callable
+                && resultSetType == key.resultSetType
+                && resultSetConcurrency == key.resultSetConcurrency
+                && sql.equals(key.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
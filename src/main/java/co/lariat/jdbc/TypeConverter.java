@@ -0,0 +1,59 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.sql.SQLException;
+
+/**
+ * Converts the values which are read from a result set into the type which is accepted by a setter, field or
+ * constructor argument of an entity. Converters are registered with {@link TypeConverters} and are resolved once per
+ * column when a mapping plan is compiled, rather than for every value.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 6:05 PM - Created with IntelliJ IDEA.
+ */
+public interface TypeConverter<S, T> {
+    /**
+     * Returns the type of the values which this converter accepts. Subclasses of this type are accepted as well.
+     * @return the type of the values which this converter accepts
+     */
+    public Class<S> getSourceType();
+
+    /**
+     * Returns the type of the values which this converter produces
+     * @return the type of the values which this converter produces
+     */
+    public Class<T> getTargetType();
+
+    /**
+     * Converts the provided value, which is never null
+     * @param value the value which should be converted
+     * @return the converted value
+     * @throws SQLException thrown when the value cannot be converted
+     */
+    public T convert(S value) throws SQLException;
+}
@@ -0,0 +1,535 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps track of the {@link TypeConverter} which should be used to convert the values of a column into the type of a
+ * property. Converters are looked up by source and target type, where the source type may be a superclass of the type
+ * of the column. When there is no direct converter, a chain of two converters is used if one exists. Enums are
+ * converted from their names and ordinals without registering a converter for each of them.
+ * <p>
+ * The outcome of each lookup is cached, so converters should be registered before the first query which needs them
+ * is executed. Mapping plans which have already been compiled keep the converters which they were compiled with.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 6:05 PM - Created with IntelliJ IDEA.
+ */
+public class TypeConverters {
+    /**
+     * Placeholder which records that a conversion is not needed, or not possible
+     */
+    private static final TypeConverter<Object, Object> NONE = new Converter<Object, Object>(Object.class, Object.class) {
+        @Override
+        public Object convert(final Object value) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    private static final Map<Class<?>, Class<?>> WRAPPER_TYPES = new HashMap<>();
+    private static final ConcurrentMap<Key, TypeConverter<?, ?>> REGISTERED = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Key, TypeConverter<?, ?>> RESOLVED = new ConcurrentHashMap<>();
+
+    static {
+        WRAPPER_TYPES.put(long.class, Long.class);
+        WRAPPER_TYPES.put(int.class, Integer.class);
+        WRAPPER_TYPES.put(short.class, Short.class);
+        WRAPPER_TYPES.put(byte.class, Byte.class);
+        WRAPPER_TYPES.put(double.class, Double.class);
+        WRAPPER_TYPES.put(float.class, Float.class);
+        WRAPPER_TYPES.put(boolean.class, Boolean.class);
+        WRAPPER_TYPES.put(char.class, Character.class);
+
+        registerDefaults();
+    }
+
+    /**
+     * Registers a converter, replacing any converter which was previously registered for the same source and target
+     * types
+     * @param converter the converter which should be registered
+     */
+    public static void register(final TypeConverter<?, ?> converter) {
+        REGISTERED.put(new Key(converter.getSourceType(), converter.getTargetType()), converter);
+        RESOLVED.clear();
+    }
+
+    /**
+     * Returns true if values of the source type can be used where the target type is expected, either as they are or
+     * after they have been converted
+     * @param sourceType the type of the values
+     * @param targetType the type which is expected
+     * @return true if the values can be used where the target type is expected and false otherwise
+     */
+    public static boolean canConvert(final Class<?> sourceType, final Class<?> targetType) {
+        return wrap(targetType).isAssignableFrom(wrap(sourceType)) || find(sourceType, targetType) != null;
+    }
+
+    /**
+     * Returns the converter which converts values of the source type to the target type, or null if the values do not
+     * need to be converted or if they cannot be converted. Primitive types are treated like their wrappers.
+     * @param sourceType the type of the values
+     * @param targetType the type which is expected
+     * @return the converter or null
+     */
+    public static TypeConverter<?, ?> find(final Class<?> sourceType, final Class<?> targetType) {
+        Class<?> source = wrap(sourceType);
+        Class<?> target = wrap(targetType);
+
+        if (source.equals(target)) {
+            return null;
+        }
+
+        Key key = new Key(source, target);
+        TypeConverter<?, ?> converter = RESOLVED.get(key);
+
+        if (converter == null) {
+            converter = resolve(source, target);
+
+            if (converter == null) {
+                converter = NONE;
+            }
+
+            RESOLVED.putIfAbsent(key, converter);
+        }
+
+        return converter == NONE ? null : converter;
+    }
+
+    /**
+     * Converts the provided value to the target type, with the converter which {@link #find(Class, Class)} returns for
+     * the type of the value. This is used by generated row mappers for the properties whose columns they cannot read
+     * with a typed getter.
+     * @param value the value which should be converted, which may be null
+     * @param targetType the type to which the value should be converted
+     * @param <T> the type to which the value should be converted
+     * @return the converted value, or null if the value is null
+     * @throws SQLException thrown when the value cannot be converted to the target type
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T convert(final Object value, final Class<T> targetType) throws SQLException {
+        if (value == null) {
+            return null;
+        }
+
+        Class<?> target = wrap(targetType);
+        TypeConverter<Object, Object> converter = (TypeConverter<Object, Object>) find(value.getClass(), target);
+
+        if (converter != null) {
+            return (T) converter.convert(value);
+        } else if (target.isInstance(value)) {
+            return (T) value;
+        }
+
+        throw new SQLException("Cannot convert " + value.getClass().getName() + " to " + targetType.getName());
+    }
+
+    /**
+     * Returns the wrapper of the specified type if it is a primitive, or the type itself otherwise
+     * @param type the type which may or may not be a primitive
+     * @return the wrapper of the primitive type or the type itself
+     */
+    public static Class<?> wrap(final Class<?> type) {
+        Class<?> wrapperType = WRAPPER_TYPES.get(type);
+        return wrapperType == null ? type : wrapperType;
+    }
+
+    private static TypeConverter<?, ?> resolve(final Class<?> source, final Class<?> target) {
+        TypeConverter<?, ?> converter = findRegistered(source, target);
+
+        // Registered converters take precedence over assignment, so that timestamps become plain dates, for example
+        if (converter != null) {
+            return converter;
+        } else if (target.isAssignableFrom(source)) {
+            return null;
+        } else if (target.isEnum()) {
+            return createEnumConverter(source, target);
+        }
+
+        // Otherwise, look for a chain of two converters
+        for (TypeConverter<?, ?> first : REGISTERED.values()) {
+            if (first.getSourceType().isAssignableFrom(source)) {
+                TypeConverter<?, ?> second = findRegistered(first.getTargetType(), target);
+
+                if (second != null) {
+                    return new ChainedConverter(source, target, first, second);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static TypeConverter<?, ?> findRegistered(final Class<?> source, final Class<?> target) {
+        for (Class<?> type = source; type != null; type = type.getSuperclass()) {
+            TypeConverter<?, ?> converter = REGISTERED.get(new Key(type, target));
+
+            if (converter != null) {
+                return converter;
+            }
+        }
+
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TypeConverter<?, ?> createEnumConverter(final Class<?> source, final Class<?> target) {
+        final Class<Enum<?>> enumType = (Class<Enum<?>>) target;
+        final Enum<?>[] constants = enumType.getEnumConstants();
+
+        if (String.class.equals(source)) {
+            final Map<String, Enum<?>> constantsByName = new HashMap<>();
+
+            for (Enum<?> constant : constants) {
+                constantsByName.put(constant.name(), constant);
+            }
+
+            return new Converter<String, Enum<?>>(String.class, enumType) {
+                @Override
+                public Enum<?> convert(final String value) throws SQLException {
+                    Enum<?> constant = constantsByName.get(value);
+
+                    if (constant == null) {
+                        throw new SQLException("Cannot convert " + value + " to " + enumType.getName());
+                    }
+
+                    return constant;
+                }
+            };
+        } else if (Number.class.isAssignableFrom(source)) {
+            return new Converter<Number, Enum<?>>(Number.class, enumType) {
+                @Override
+                public Enum<?> convert(final Number value) throws SQLException {
+                    int ordinal = value.intValue();
+
+                    if (ordinal < 0 || ordinal >= constants.length) {
+                        throw new SQLException("Cannot convert ordinal " + value + " to " + enumType.getName());
+                    }
+
+                    return constants[ordinal];
+                }
+            };
+        }
+
+        return null;
+    }
+
+    private static void registerDefaults() {
+        register(new Converter<Number, Long>(Number.class, Long.class) {
+            @Override
+            public Long convert(final Number value) {
+                return value.longValue();
+            }
+        });
+
+        register(new Converter<Number, Integer>(Number.class, Integer.class) {
+            @Override
+            public Integer convert(final Number value) {
+                return value.intValue();
+            }
+        });
+
+        register(new Converter<Number, Short>(Number.class, Short.class) {
+            @Override
+            public Short convert(final Number value) {
+                return value.shortValue();
+            }
+        });
+
+        register(new Converter<Number, Byte>(Number.class, Byte.class) {
+            @Override
+            public Byte convert(final Number value) {
+                return value.byteValue();
+            }
+        });
+
+        register(new Converter<Number, Double>(Number.class, Double.class) {
+            @Override
+            public Double convert(final Number value) {
+                return value.doubleValue();
+            }
+        });
+
+        register(new Converter<Number, Float>(Number.class, Float.class) {
+            @Override
+            public Float convert(final Number value) {
+                return value.floatValue();
+            }
+        });
+
+        register(new Converter<Number, Boolean>(Number.class, Boolean.class) {
+            @Override
+            public Boolean convert(final Number value) {
+                return value.doubleValue() != 0;
+            }
+        });
+
+        register(new Converter<Number, BigDecimal>(Number.class, BigDecimal.class) {
+            @Override
+            public BigDecimal convert(final Number value) throws SQLException {
+                if (value instanceof BigInteger) {
+                    return new BigDecimal((BigInteger) value);
+                } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                    return BigDecimal.valueOf(value.longValue());
+                }
+
+                try {
+                    return new BigDecimal(value.toString());
+                } catch (NumberFormatException e) {
+                    throw new SQLException("Cannot convert " + value + " to " + BigDecimal.class.getName(), e);
+                }
+            }
+        });
+
+        register(new Converter<Number, BigInteger>(Number.class, BigInteger.class) {
+            @Override
+            public BigInteger convert(final Number value) {
+                if (value instanceof BigDecimal) {
+                    return ((BigDecimal) value).toBigInteger();
+                }
+
+                return BigInteger.valueOf(value.longValue());
+            }
+        });
+
+        register(new Converter<Timestamp, Date>(Timestamp.class, Date.class) {
+            @Override
+            public Date convert(final Timestamp value) {
+                return new Date(value.getTime());
+            }
+        });
+
+        register(new Converter<Date, Timestamp>(Date.class, Timestamp.class) {
+            @Override
+            public Timestamp convert(final Date value) {
+                return new Timestamp(value.getTime());
+            }
+        });
+
+        register(new Converter<String, UUID>(String.class, UUID.class) {
+            @Override
+            public UUID convert(final String value) throws SQLException {
+                try {
+                    return UUID.fromString(value.trim());
+                } catch (IllegalArgumentException e) {
+                    throw new SQLException("Cannot convert " + value + " to " + UUID.class.getName(), e);
+                }
+            }
+        });
+
+        register(new Converter<byte[], UUID>(byte[].class, UUID.class) {
+            @Override
+            public UUID convert(final byte[] value) throws SQLException {
+                if (value.length != 16) {
+                    throw new SQLException("Cannot convert " + value.length + " bytes to " + UUID.class.getName());
+                }
+
+                ByteBuffer buffer = ByteBuffer.wrap(value);
+                return new UUID(buffer.getLong(), buffer.getLong());
+            }
+        });
+
+        register(new Converter<UUID, String>(UUID.class, String.class) {
+            @Override
+            public String convert(final UUID value) {
+                return value.toString();
+            }
+        });
+
+        // The java.time API does not exist before Java 8, so these converters are only registered when it does
+        registerMethod("java.sql.Timestamp", "java.time.LocalDateTime", "toLocalDateTime");
+        registerMethod("java.sql.Timestamp", "java.time.Instant", "toInstant");
+        registerMethod("java.sql.Date", "java.time.LocalDate", "toLocalDate");
+        registerMethod("java.sql.Time", "java.time.LocalTime", "toLocalTime");
+        registerMethod("java.time.LocalDateTime", "java.time.LocalDate", "toLocalDate");
+        registerMethod("java.time.LocalDateTime", "java.time.LocalTime", "toLocalTime");
+        registerMethod("java.time.OffsetDateTime", "java.time.Instant", "toInstant");
+        registerMethod("java.time.OffsetDateTime", "java.time.LocalDateTime", "toLocalDateTime");
+        registerStaticMethod("java.time.LocalDateTime", "java.sql.Timestamp", "valueOf");
+        registerStaticMethod("java.time.Instant", "java.sql.Timestamp", "from");
+        registerStaticMethod("java.time.LocalDate", "java.sql.Date", "valueOf");
+        registerStaticMethod("java.time.LocalTime", "java.sql.Time", "valueOf");
+    }
+
+    /**
+     * Registers a converter which invokes a public, no argument, instance method of the source type, if both types and
+     * the method exist
+     * @param sourceTypeName the name of the source type
+     * @param targetTypeName the name of the target type
+     * @param methodName the name of the method which converts the source type into the target type
+     */
+    private static void registerMethod(final String sourceTypeName, final String targetTypeName, final String methodName) {
+        try {
+            Class<?> sourceType = Class.forName(sourceTypeName);
+            Class<?> targetType = Class.forName(targetTypeName);
+            MethodHandle handle = MethodHandles.publicLookup()
+                .findVirtual(sourceType, methodName, MethodType.methodType(targetType))
+                .asType(MethodType.methodType(Object.class, Object.class));
+
+            register(new MethodConverter(sourceType, targetType, handle));
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+            // The conversion isn't supported by this version of Java
+        }
+    }
+
+    /**
+     * Registers a converter which invokes a public, static, factory method of the target type, which accepts the
+     * source type, if both types and the method exist
+     * @param sourceTypeName the name of the source type
+     * @param targetTypeName the name of the target type
+     * @param methodName the name of the method which converts the source type into the target type
+     */
+    private static void registerStaticMethod(final String sourceTypeName, final String targetTypeName, final String methodName) {
+        try {
+            Class<?> sourceType = Class.forName(sourceTypeName);
+            Class<?> targetType = Class.forName(targetTypeName);
+            MethodHandle handle = MethodHandles.publicLookup()
+                .findStatic(targetType, methodName, MethodType.methodType(targetType, sourceType))
+                .asType(MethodType.methodType(Object.class, Object.class));
+
+            register(new MethodConverter(sourceType, targetType, handle));
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+            // The conversion isn't supported by this version of Java
+        }
+    }
+
+    /**
+     * Base class of the built in converters
+     */
+    private abstract static class Converter<S, T> implements TypeConverter<S, T> {
+        private final Class<S> sourceType;
+        private final Class<T> targetType;
+
+        protected Converter(final Class<S> sourceType, final Class<T> targetType) {
+            this.sourceType = sourceType;
+            this.targetType = targetType;
+        }
+
+        @Override
+        public Class<S> getSourceType() {
+            return sourceType;
+        }
+
+        @Override
+        public Class<T> getTargetType() {
+            return targetType;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + "{" + sourceType.getName() + " -> " + targetType.getName() + "}";
+        }
+    }
+
+    /**
+     * Converts values by invoking a method of the source type, or a factory method of the target type
+     */
+    private static class MethodConverter extends Converter<Object, Object> {
+        private final MethodHandle handle;
+
+        @SuppressWarnings("unchecked")
+        MethodConverter(final Class<?> sourceType, final Class<?> targetType, final MethodHandle handle) {
+            super((Class<Object>) sourceType, (Class<Object>) targetType);
+            this.handle = handle;
+        }
+
+        @Override
+        public Object convert(final Object value) throws SQLException {
+            try {
+                return handle.invokeExact(value);
+            } catch (Throwable e) {
+                throw new SQLException("Cannot convert " + value + " to " + getTargetType().getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Converts values with two converters, one after the other
+     */
+    private static class ChainedConverter extends Converter<Object, Object> {
+        private final TypeConverter<Object, Object> first;
+        private final TypeConverter<Object, Object> second;
+
+        @SuppressWarnings("unchecked")
+        ChainedConverter(final Class<?> sourceType, final Class<?> targetType, final TypeConverter<?, ?> first, final TypeConverter<?, ?> second) {
+            super((Class<Object>) sourceType, (Class<Object>) targetType);
+            this.first = (TypeConverter<Object, Object>) first;
+            this.second = (TypeConverter<Object, Object>) second;
+        }
+
+        @Override
+        public Object convert(final Object value) throws SQLException {
+            return second.convert(first.convert(value));
+        }
+    }
+
+    /**
+     * Identifies a converter by its source and target types
+     */
+    private static final class Key {
+        private final Class<?> sourceType;
+        private final Class<?> targetType;
+
+        Key(final Class<?> sourceType, final Class<?> targetType) {
+            this.sourceType = sourceType;
+            this.targetType = targetType;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) o;
+
+            return sourceType.equals(key.sourceType) && targetType.equals(key.targetType);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sourceType.hashCode() + targetType.hashCode();
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Generates the sql which inserts a row or, if a row with the same key already exists, updates it. Each vendor has
+ * its own syntax for this: PostgreSQL uses ON CONFLICT, MySQL uses ON DUPLICATE KEY UPDATE, and HSQLDB and Oracle
+ * use MERGE. The sql has one positional parameter for each column, in the order in which the columns are provided,
+ * so the same rows of arguments can be bound to it regardless of the vendor. The generated sql is kept in a bounded
+ * cache, which discards the least recently used entries.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/17/26 2:30 AM - Created with IntelliJ IDEA.
+ */
+public class UpsertSql {
+    /**
+     * The maximum number of statements which are cached
+     */
+    public static final int CACHE_SIZE = 512;
+
+    private static final Map<String, String> CACHE = Collections.synchronizedMap(
+        new LinkedHashMap<String, String>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        }
+    );
+
+    /**
+     * Returns the upsert for the specified vendor, or null if the vendor does not have an upsert statement
+     * @param vendor the vendor of the database
+     * @param tableName the table into which the rows should be upserted
+     * @param keyColumns the columns which identify a row
+     * @param columns every column which should be written, including the key columns
+     * @return the upsert or null
+     * @throws SQLException thrown when a key column is not one of the columns
+     */
+    public static String build(final Vendor vendor, final String tableName, final String[] keyColumns, final String[] columns) throws SQLException {
+        String key = vendor + "|" + tableName + "|" + Arrays.toString(keyColumns) + "|" + Arrays.toString(columns);
+        String sql = CACHE.get(key);
+
+        if (sql == null) {
+            boolean[] keys = getKeyFlags(keyColumns, columns);
+
+            switch (vendor) {
+                case POSTGRESQL:
+                    sql = buildOnConflict(tableName, columns, keys);
+                    break;
+                case MYSQL:
+                    sql = buildOnDuplicateKey(tableName, columns, keys);
+                    break;
+                case HSQLDB:
+                case ORACLE:
+                    sql = buildMerge(vendor, tableName, columns, keys);
+                    break;
+                default:
+                    return null;
+            }
+
+            CACHE.put(key, sql);
+        }
+
+        return sql;
+    }
+
+    /**
+     * Returns a flag for each column which is true if the column is one of the key columns
+     * @param keyColumns the columns which identify a row
+     * @param columns every column which should be written
+     * @return true for each column which is a key column
+     * @throws SQLException thrown when there are no key columns or a key column is not one of the columns
+     */
+    static boolean[] getKeyFlags(final String[] keyColumns, final String[] columns) throws SQLException {
+        if (keyColumns.length == 0) {
+            throw new SQLException("At least one key column is required");
+        }
+
+        boolean[] keys = new boolean[columns.length];
+
+        for (String keyColumn : keyColumns) {
+            boolean found = false;
+
+            for (int index = 0; index < columns.length; index++) {
+                if (columns[index].equalsIgnoreCase(keyColumn)) {
+                    keys[index] = true;
+                    found = true;
+                }
+            }
+
+            if (!found) {
+                throw new SQLException("The key column " + keyColumn + " is not one of the columns " + Arrays.toString(columns));
+            }
+        }
+
+        return keys;
+    }
+
+    private static String buildOnConflict(final String tableName, final String[] columns, final boolean[] keys) {
+        StringBuilder builder = new StringBuilder(buildInsert(tableName, columns));
+        StringBuilder assignments = new StringBuilder();
+
+        builder.append(" on conflict (").append(join(columns, keys, true, "")).append(")");
+
+        for (int index = 0; index < columns.length; index++) {
+            if (!keys[index]) {
+                assignments.append(assignments.length() > 0 ? ", " : "")
+                    .append(columns[index]).append(" = excluded.").append(columns[index]);
+            }
+        }
+
+        return builder.append(assignments.length() > 0 ? " do update set " + assignments : " do nothing").toString();
+    }
+
+    private static String buildOnDuplicateKey(final String tableName, final String[] columns, final boolean[] keys) {
+        StringBuilder assignments = new StringBuilder();
+
+        for (int index = 0; index < columns.length; index++) {
+            if (!keys[index]) {
+                assignments.append(assignments.length() > 0 ? ", " : "")
+                    .append(columns[index]).append(" = values(").append(columns[index]).append(")");
+            }
+        }
+
+        if (assignments.length() == 0) {
+            // Assigning a key to itself leaves an existing row as it is
+            for (int index = 0; index < columns.length && assignments.length() == 0; index++) {
+                if (keys[index]) {
+                    assignments.append(columns[index]).append(" = ").append(columns[index]);
+                }
+            }
+        }
+
+        return buildInsert(tableName, columns) + " on duplicate key update " + assignments;
+    }
+
+    private static String buildMerge(final Vendor vendor, final String tableName, final String[] columns, final boolean[] keys) {
+        StringBuilder builder = new StringBuilder("merge into ").append(tableName).append(" target using ");
+
+        if (vendor == Vendor.ORACLE) {
+            builder.append("(select ");
+
+            for (int index = 0; index < columns.length; index++) {
+                builder.append(index > 0 ? ", " : "").append("? ").append(columns[index]);
+            }
+
+            builder.append(" from dual) source");
+        } else {
+            builder.append("(values(");
+
+            for (int index = 0; index < columns.length; index++) {
+                builder.append(index > 0 ? ", ?" : "?");
+            }
+
+            builder.append(")) source(").append(join(columns, null, false, "")).append(")");
+        }
+
+        builder.append(" on (");
+
+        for (int index = 0, count = 0; index < columns.length; index++) {
+            if (keys[index]) {
+                builder.append(count++ > 0 ? " and " : "")
+                    .append("target.").append(columns[index]).append(" = source.").append(columns[index]);
+            }
+        }
+
+        builder.append(")");
+
+        StringBuilder assignments = new StringBuilder();
+
+        for (int index = 0; index < columns.length; index++) {
+            if (!keys[index]) {
+                assignments.append(assignments.length() > 0 ? ", " : "")
+                    .append("target.").append(columns[index]).append(" = source.").append(columns[index]);
+            }
+        }
+
+        if (assignments.length() > 0) {
+            builder.append(" when matched then update set ").append(assignments);
+        }
+
+        return builder.append(" when not matched then insert (").append(join(columns, null, false, ""))
+            .append(") values (").append(join(columns, null, false, "source.")).append(")").toString();
+    }
+
+    private static String buildInsert(final String tableName, final String[] columns) {
+        StringBuilder builder = new StringBuilder("insert into ").append(tableName).append("(")
+            .append(join(columns, null, false, "")).append(") values(");
+
+        for (int index = 0; index < columns.length; index++) {
+            builder.append(index > 0 ? ", ?" : "?");
+        }
+
+        return builder.append(")").toString();
+    }
+
+    /**
+     * Joins the specified columns with commas
+     * @param columns the columns which should be joined
+     * @param keys the key flag of each column, or null to join every column
+     * @param keysOnly true to join only the key columns, when flags are provided
+     * @param prefix prepended to each column
+     * @return the joined columns
+     */
+    private static String join(final String[] columns, final boolean[] keys, final boolean keysOnly, final String prefix) {
+        StringBuilder builder = new StringBuilder();
+
+        for (int index = 0; index < columns.length; index++) {
+            if (keys == null || keys[index] == keysOnly) {
+                builder.append(builder.length() > 0 ? ", " : "").append(prefix).append(columns[index]);
+            }
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,429 @@
+package co.lariat.jdbc.processor;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import co.lariat.jdbc.RowMapperRegistry;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a {@link co.lariat.jdbc.RowMapper} for each class which is annotated with javax.persistence.Entity or
+ * {@link co.lariat.jdbc.JdbcSimpleEntity}. The generated mappers read each column with the typed getter which matches
+ * the argument of the setter and call the setter directly, so neither reflection nor setter lookup is necessary at
+ * runtime. This processor is optional and is not registered as a service. It must be enabled explicitly, for
+ * example with the -processor option of javac or the annotationProcessors option of the maven compiler plugin.
+ * Classes for which a mapper cannot be generated are reported as warnings and are mapped with reflection instead.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 1:15 PM - Created with IntelliJ IDEA.
+ */
+public class RowMapperProcessor extends AbstractProcessor {
+    /**
+     * The annotations which mark a class as an entity
+     */
+    private static final Set<String> ENTITY_ANNOTATIONS = new HashSet<>(Arrays.asList(
+        "javax.persistence.Entity",
+        "co.lariat.jdbc.JdbcSimpleEntity"
+    ));
+
+    /**
+     * The typed getter which should be used to read each boxed type, along with the primitive type it returns
+     */
+    private static final Map<String, String[]> BOXED_GETTERS = new LinkedHashMap<>();
+
+    static {
+        BOXED_GETTERS.put("java.lang.Long", new String[]{"getLong", "long"});
+        BOXED_GETTERS.put("java.lang.Integer", new String[]{"getInt", "int"});
+        BOXED_GETTERS.put("java.lang.Short", new String[]{"getShort", "short"});
+        BOXED_GETTERS.put("java.lang.Byte", new String[]{"getByte", "byte"});
+        BOXED_GETTERS.put("java.lang.Double", new String[]{"getDouble", "double"});
+        BOXED_GETTERS.put("java.lang.Float", new String[]{"getFloat", "float"});
+        BOXED_GETTERS.put("java.lang.Boolean", new String[]{"getBoolean", "boolean"});
+    }
+
+    /**
+     * The typed getter which should be used to read each reference type which can be passed to the setter as is
+     */
+    private static final Map<String, String> REFERENCE_GETTERS = new LinkedHashMap<>();
+
+    static {
+        REFERENCE_GETTERS.put("java.lang.String", "getString");
+        REFERENCE_GETTERS.put("java.math.BigDecimal", "getBigDecimal");
+        REFERENCE_GETTERS.put("java.sql.Timestamp", "getTimestamp");
+        REFERENCE_GETTERS.put("java.sql.Time", "getTime");
+        REFERENCE_GETTERS.put("java.sql.Date", "getDate");
+        REFERENCE_GETTERS.put("byte[]", "getBytes");
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return ENTITY_ANNOTATIONS;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.CLASS) {
+                    generate((TypeElement) element);
+                }
+            }
+        }
+
+        // Don't claim the annotations because other processors, such as JPA metamodel generators, may need them
+        return false;
+    }
+
+    /**
+     * Generates the mapper for the specified entity, if possible
+     * @param entity the entity for which a mapper should be generated
+     */
+    private void generate(final TypeElement entity) {
+        // Entities which are populated through their fields do not use setters, so there is nothing to generate
+        if (usesFieldAccess(entity)) {
+            return;
+        }
+
+        String reason = getUnsupportedReason(entity);
+
+        if (reason != null) {
+            warn(entity, "Cannot generate a row mapper for " + entity.getQualifiedName() + " because " + reason);
+            return;
+        }
+
+        Map<String, ExecutableElement> setters = new LinkedHashMap<>();
+        Set<String> overloaded = new HashSet<>();
+
+        // Collect the setters, including those which are inherited
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(entity))) {
+            String name = method.getSimpleName().toString();
+
+            if (name.length() > 3
+                && name.startsWith("set")
+                && method.getParameters().size() == 1
+                && method.getModifiers().contains(Modifier.PUBLIC)
+                && !method.getModifiers().contains(Modifier.STATIC)) {
+                String property = getPropertyName(name);
+
+                if (setters.put(property, method) != null) {
+                    overloaded.add(property);
+                }
+            }
+        }
+
+        // Overloaded setters are chosen by column type at runtime, which generated code cannot do
+        if (!overloaded.isEmpty()) {
+            warn(entity, "Cannot generate a row mapper for " + entity.getQualifiedName()
+                + " because it has overloaded setters for " + overloaded);
+            return;
+        }
+
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(entity);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(entity).toString();
+        String mapperName = RowMapperRegistry.getGeneratedMapperName(
+            packageName,
+            packageName.length() == 0 ? binaryName : binaryName.substring(packageName.length() + 1)
+        );
+        String simpleMapperName = mapperName.substring(mapperName.lastIndexOf('.') + 1);
+        String entityName = entity.getQualifiedName().toString();
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(mapperName, entity);
+
+            try (Writer writer = file.openWriter()) {
+                writer.write(generateSource(packageName, simpleMapperName, entityName, new ArrayList<>(setters.values())));
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(
+                Diagnostic.Kind.ERROR,
+                "Failed to write row mapper " + mapperName + ": " + e.getMessage(),
+                entity
+            );
+        }
+    }
+
+    /**
+     * Returns true if the specified entity is annotated with {@link co.lariat.jdbc.JdbcSimpleEntity} and uses
+     * {@link co.lariat.jdbc.AccessMode#FIELD}
+     * @param entity the entity which should be checked
+     * @return true if the entity uses field access and false otherwise
+     */
+    private boolean usesFieldAccess(final TypeElement entity) {
+        for (AnnotationMirror annotation : entity.getAnnotationMirrors()) {
+            if (!annotation.getAnnotationType().toString().equals("co.lariat.jdbc.JdbcSimpleEntity")) {
+                continue;
+            }
+
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("access")
+                    && entry.getValue().getValue().toString().equals("FIELD")) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the reason why a mapper cannot be generated for the specified entity or null if one can be
+     * @param entity the entity which should be checked
+     * @return the reason why a mapper cannot be generated or null if one can be
+     */
+    private String getUnsupportedReason(final TypeElement entity) {
+        Set<Modifier> modifiers = entity.getModifiers();
+
+        if (!modifiers.contains(Modifier.PUBLIC)) {
+            return "it is not public";
+        }
+
+        if (modifiers.contains(Modifier.ABSTRACT)) {
+            return "it is abstract";
+        }
+
+        if (!entity.getTypeParameters().isEmpty()) {
+            return "it is generic";
+        }
+
+        if (entity.getNestingKind() == NestingKind.MEMBER && !modifiers.contains(Modifier.STATIC)) {
+            return "it is an inner class";
+        }
+
+        if (entity.getNestingKind() == NestingKind.LOCAL || entity.getNestingKind() == NestingKind.ANONYMOUS) {
+            return "it is a local class";
+        }
+
+        // The generated mapper lives in the same package but must still be able to see through every enclosing class
+        for (Element enclosing = entity.getEnclosingElement(); enclosing instanceof TypeElement; enclosing = enclosing.getEnclosingElement()) {
+            if (!enclosing.getModifiers().contains(Modifier.PUBLIC)) {
+                return "its enclosing class is not public";
+            }
+        }
+
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(entity.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return null;
+            }
+        }
+
+        return "it does not have a public default constructor";
+    }
+
+    /**
+     * Generates the source code of the mapper
+     * @param packageName the package in which the mapper should be generated
+     * @param mapperName the simple name of the mapper
+     * @param entityName the canonical name of the entity
+     * @param setters the setters of the entity
+     * @return the source code of the mapper
+     */
+    private String generateSource(final String packageName, final String mapperName, final String entityName, final List<ExecutableElement> setters) {
+        StringBuilder source = new StringBuilder();
+
+        if (packageName.length() > 0) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+
+        source.append("/**\n")
+            .append(" * Generated by ").append(getClass().getName()).append(". Do not edit.\n")
+            .append(" */\n")
+            .append("public class ").append(mapperName)
+            .append(" implements co.lariat.jdbc.RowMapper<").append(entityName).append("> {\n")
+            .append("    private static final String[] PROPERTY_NAMES = {");
+
+        for (int index = 0; index < setters.size(); index++) {
+            String name = setters.get(index).getSimpleName().toString();
+
+            if (index > 0) {
+                source.append(", ");
+            }
+
+            source.append('"').append(getPropertyName(name)).append('"');
+        }
+
+        source.append("};\n\n")
+            .append("    @Override\n")
+            .append("    public Class<").append(entityName).append("> getEntityClass() {\n")
+            .append("        return ").append(entityName).append(".class;\n")
+            .append("    }\n\n")
+            .append("    @Override\n")
+            .append("    public String[] getPropertyNames() {\n")
+            .append("        return PROPERTY_NAMES.clone();\n")
+            .append("    }\n\n")
+            .append("    @Override\n")
+            .append("    public ").append(entityName).append(" newInstance() {\n")
+            .append("        return new ").append(entityName).append("();\n")
+            .append("    }\n\n")
+            .append("    @Override\n")
+            .append("    public void map(final ").append(entityName)
+            .append(" entity, final co.lariat.jdbc.SimpleResultSet resultSet, final int[] positions)")
+            .append(" throws java.sql.SQLException {\n");
+
+        for (int index = 0; index < setters.size(); index++) {
+            ExecutableElement setter = setters.get(index);
+
+            source.append("        if (positions[").append(index).append("] != 0) {\n");
+            appendAssignment(source, setter, "positions[" + index + "]");
+            source.append("        }\n");
+        }
+
+        source.append("    }\n")
+            .append("}\n");
+
+        return source.toString();
+    }
+
+    /**
+     * Appends the statements which read the column and pass its value to the setter
+     * @param source the source code to which the statements should be appended
+     * @param setter the setter which should be invoked
+     * @param position the expression which evaluates to the position of the column
+     */
+    private void appendAssignment(final StringBuilder source, final ExecutableElement setter, final String position) {
+        TypeMirror type = processingEnv.getTypeUtils().erasure(setter.getParameters().get(0).asType());
+        String typeName = type.toString();
+        String setterName = setter.getSimpleName().toString();
+
+        if (type.getKind().isPrimitive()) {
+            // Leave the property untouched when the column is null because primitives cannot represent it
+            String getter = "get" + Character.toUpperCase(typeName.charAt(0)) + typeName.substring(1);
+
+            if (type.getKind() == TypeKind.INT) {
+                getter = "getInt";
+            } else if (type.getKind() == TypeKind.CHAR) {
+                getter = null;
+            }
+
+            if (getter != null) {
+                source.append("            ").append(typeName).append(" value = resultSet.").append(getter)
+                    .append('(').append(position).append(");\n")
+                    .append("            if (!resultSet.wasNull()) {\n")
+                    .append("                entity.").append(setterName).append("(value);\n")
+                    .append("            }\n");
+                return;
+            }
+        } else if (BOXED_GETTERS.containsKey(typeName)) {
+            String[] getter = BOXED_GETTERS.get(typeName);
+
+            source.append("            ").append(getter[1]).append(" value = resultSet.").append(getter[0])
+                .append('(').append(position).append(");\n")
+                .append("            entity.").append(setterName).append("(resultSet.wasNull() ? null : ")
+                .append(typeName).append(".valueOf(value));\n");
+            return;
+        } else if (REFERENCE_GETTERS.containsKey(typeName)) {
+            source.append("            entity.").append(setterName).append("(resultSet.")
+                .append(REFERENCE_GETTERS.get(typeName)).append('(').append(position).append("));\n");
+            return;
+        } else if (typeName.equals("java.util.Date")) {
+            source.append("            java.sql.Timestamp value = resultSet.getTimestamp(").append(position).append(");\n")
+                .append("            entity.").append(setterName)
+                .append("(value == null ? null : new java.util.Date(value.getTime()));\n");
+            return;
+        }
+
+        // Convert whatever the driver returns for anything else with the registered converters, as reflection does
+        if (type.getKind().isPrimitive()) {
+            String boxedType = boxedName(type);
+
+            source.append("            ").append(boxedType).append(" value = co.lariat.jdbc.TypeConverters.convert(resultSet.getObject(")
+                .append(position).append("), ").append(boxedType).append(".class);\n")
+                .append("            if (value != null) {\n")
+                .append("                entity.").append(setterName).append("(value);\n")
+                .append("            }\n");
+            return;
+        }
+
+        source.append("            entity.").append(setterName).append("(co.lariat.jdbc.TypeConverters.convert(resultSet.getObject(")
+            .append(position).append("), ").append(typeName).append(".class));\n");
+    }
+
+    /**
+     * Returns the name of the property of the specified setter, which follows the java beans convention, as
+     * {@link co.lariat.jdbc.EntityMetadata} does, so that setURL() is the setter of the property URL
+     * @param setterName the name of the setter
+     * @return the name of the property
+     */
+    static String getPropertyName(final String setterName) {
+        String name = setterName.substring(3);
+
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(0)) && Character.isUpperCase(name.charAt(1))) {
+            return name;
+        }
+
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * Returns the name of the boxed type of the specified primitive type
+     * @param type the primitive type
+     * @return the name of the boxed type
+     */
+    private String boxedName(final TypeMirror type) {
+        return processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind()))
+            .getQualifiedName().toString();
+    }
+
+    /**
+     * Reports a warning against the specified element
+     * @param element the element which the warning concerns
+     * @param message the warning
+     */
+    private void warn(final Element element, final String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, message, element);
+    }
+}
@@ -31,9 +31,12 @@ import org.junit.Test;
 import java.math.BigInteger;
 import java.security.SecureRandom;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 
 /**
  * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
@@ -125,6 +128,25 @@ public class AbstractJdbcDaoTest extends AbstractUnitTest {
         );
     }
 
+    @Test
+    public void testBatchRollsBackWithTransaction() throws SQLException {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {10, "batch10", "password10"});
+        rows.add(new Object[] {11, "batch11", "password11"});
+
+        jdbcDao.begin();
+
+        try {
+            assertEquals(2, jdbcDao.insertUsers(rows));
+            assertEquals("password10", jdbcDao.getPasswordByUsername("batch10"));
+        } finally {
+            jdbcDao.rollback();
+        }
+
+        // The batch was part of the transaction, so it was rolled back along with it
+        assertNull(jdbcDao.getPasswordByUsername("batch10"));
+    }
+
     public static class SimpleUserJdbcDao extends AbstractJdbcDao {
         /**
          * Constructor for this object which accepts a reference to the database
@@ -155,5 +177,13 @@ public class AbstractJdbcDaoTest extends AbstractUnitTest {
                 username
             );
         }
+
+        public int insertUsers(final List<Object[]> rows) throws SQLException {
+            int[] updateCounts = getConnection().executeBatch(
+                "insert into users(id, username, password) values(?,?,?)",
+                rows
+            );
+            return updateCounts.length;
+        }
     }
 }
@@ -43,6 +43,8 @@ public class AbstractUnitTest {
         // if a connection already exists
         if (connection != null) {
             connection.execute("drop table users");
+            connection.execute("drop table user_roles");
+            connection.execute("drop table tags");
         }
 
         // Get a connection to the database
@@ -79,5 +81,24 @@ public class AbstractUnitTest {
             "1973-02-02 00:00:00",
             564.77
         );
+
+        // Create a table of roles, which only the first user has
+        connection.execute("create table user_roles(\n" +
+            "   id INTEGER not null,\n" +
+            "   user_id INTEGER not null,\n" +
+            "   name varchar(25),\n" +
+            "   PRIMARY KEY (id)\n" +
+            ");"
+        );
+
+        connection.execute("insert into user_roles(id, user_id, name) values(?,?,?)", 1, 1, "admin");
+        connection.execute("insert into user_roles(id, user_id, name) values(?,?,?)", 2, 1, "editor");
+
+        // Create a table whose ids are generated by the database
+        connection.execute("create table tags(\n" +
+            "   id INTEGER GENERATED BY DEFAULT AS IDENTITY (START WITH 1) PRIMARY KEY,\n" +
+            "   name varchar(25)\n" +
+            ");"
+        );
     }
 }
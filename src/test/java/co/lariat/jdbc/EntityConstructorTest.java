@@ -0,0 +1,101 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import co.lariat.jdbc.entity.BeanUser;
+import co.lariat.jdbc.entity.ImmutableColumnUser;
+import co.lariat.jdbc.entity.ImmutableUser;
+import co.lariat.jdbc.entity.ValueUser;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/17/26 11:50 AM - Created with IntelliJ IDEA.
+ */
+public class EntityConstructorTest extends AbstractUnitTest {
+    @Test
+    public void testFetchAllEntityMethodWithConstructor() throws SQLException {
+        List<ImmutableUser> users = connection.fetchAllEntity(
+            ImmutableUser.class,
+            "select balance, username, id, active from users order by id asc"
+        );
+
+        assertEquals(2, users.size());
+
+        ImmutableUser user = users.get(0);
+        assertEquals(1L, user.getId());
+        assertEquals("admin", user.getUsername());
+        assertTrue(user.isActive());
+        assertEquals(new BigDecimal("1345.23"), user.getBalance());
+
+        // Arguments which are absent from the result set receive null, or zero for primitives
+        user = connection.fetchEntity(ImmutableUser.class, "select username from users where id = ?", 2);
+
+        assertEquals(0L, user.getId());
+        assertEquals("bob.wiley", user.getUsername());
+        assertFalse(user.isActive());
+        assertNull(user.getBalance());
+
+        // Without a row there is nothing to construct the entity from
+        assertNull(connection.fetchEntity(ImmutableUser.class, "select id from users where id = ?", 3));
+    }
+
+    @Test
+    public void testFetchEntityMethodWithConstructorProperties() throws SQLException {
+        // Beans with a default constructor are populated through their setters, even if a constructor is annotated
+        BeanUser bean = connection.fetchEntity(BeanUser.class, "select id, username, password from users where id = ?", 1);
+
+        assertEquals(new Long(1), bean.getId());
+        assertEquals("admin", bean.getUsername());
+        assertNotNull(bean.getPassword());
+
+        // Entities without one are created through the annotated constructor
+        ValueUser value = connection.fetchEntity(ValueUser.class, "select username, id from users where id = ?", 2);
+
+        assertEquals(new Long(2), value.getId());
+        assertEquals("bob.wiley", value.getUsername());
+    }
+
+    @Test
+    public void testFetchEntityMethodWithConstructorAndColumnNames() throws SQLException {
+        // Constructor arguments are matched to columns through their javax.persistence.Column annotations
+        ImmutableColumnUser user = connection.fetchEntity(ImmutableColumnUser.class, "select id, username from users where id = ?", 1);
+
+        assertEquals(new Long(1), user.getIdentifier());
+        assertEquals("admin", user.getLogin());
+    }
+}
@@ -0,0 +1,167 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import co.lariat.jdbc.entity.User;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/17/26 11:50 AM - Created with IntelliJ IDEA.
+ */
+public class ExpandedSqlTest extends AbstractUnitTest {
+    @Test
+    public void testCollectionArgumentsAreExpanded() throws SQLException {
+        List<ExpandedSql> expanded = ExpandedSql.expand(
+            "select * from users where id in (?) and username <> '?' and active = ?",
+            new Object[] {Arrays.asList(1, 2, 3), true},
+            1000
+        );
+        assertEquals(1, expanded.size());
+        assertEquals(
+            "select * from users where id in (?, ?, ?, ?) and username <> '?' and active = ?",
+            expanded.get(0).getSql()
+        );
+        assertArrayEquals(new Object[] {1, 2, 3, 3, true}, expanded.get(0).getArguments());
+
+        // Lists are padded to powers of two, up to the chunk size
+        assertEquals(1, ExpandedSql.getBucketSize(0, 1000));
+        assertEquals(1, ExpandedSql.getBucketSize(1, 1000));
+        assertEquals(8, ExpandedSql.getBucketSize(5, 1000));
+        assertEquals(8, ExpandedSql.getBucketSize(8, 1000));
+        assertEquals(1000, ExpandedSql.getBucketSize(999, 1000));
+
+        List<User> users = connection.fetchAllEntity(User.class, "select * from users where id in (?) order by id", Arrays.asList(2L, 1L, 2L));
+        assertEquals(2, users.size());
+        assertEquals("admin", users.get(0).getUsername());
+        assertEquals(new Long(2), connection.fetchLong("select count(*) from users where id in (?)", new HashSet<>(Arrays.asList(1, 2))));
+        assertEquals(new Long(0), connection.fetchLong("select count(*) from users where id in (?)", Collections.emptyList()));
+
+        MapParameterSource parameters = new MapParameterSource().addValue("ids", Arrays.asList(1, 2));
+        assertEquals(2, connection.fetchAllMap("select * from users where id in (:ids)", parameters).size());
+
+        int chunkSize = connection.getInListChunkSize();
+        connection.setInListChunkSize(2);
+
+        try {
+            // Collections which would need to be split are rejected unless splitting has been enabled
+            try {
+                connection.fetchListLong("select id from users where id in (?) order by id", Arrays.asList(1, 5, 6, 2, 7));
+                fail("A collection which needs to be split should be rejected by default");
+            } catch (SQLException e) {
+                // Expected
+            }
+
+            connection.setSplitInLists(true);
+
+            List<Long> ids = connection.fetchListLong("select id from users where id in (?) order by id", Arrays.asList(1, 5, 6, 2, 7));
+            assertEquals(Arrays.asList(1L, 2L), ids);
+
+            try {
+                connection.fetchLong("select count(*) from users where id in (?)", Arrays.asList(1, 2, 3));
+                fail("A collection which needs to be split should be rejected by single row methods");
+            } catch (SQLException e) {
+                // Expected
+            }
+        } finally {
+            connection.setSplitInLists(false);
+            connection.setInListChunkSize(chunkSize);
+        }
+    }
+
+    @Test
+    public void testLargeCollectionArgumentsAreNotSplitByDefault() throws SQLException {
+        int chunkSize = connection.getInListChunkSize();
+        connection.setInListChunkSize(2);
+
+        try {
+            connection.execute("insert into tags(id, name) values(?, ?)", 300, "red");
+            connection.execute("insert into tags(id, name) values(?, ?)", 301, "green");
+            connection.execute("insert into tags(id, name) values(?, ?)", 302, "blue");
+
+            // Splitting a NOT IN list would delete the rows which each chunk excludes, which is every row
+            try {
+                connection.execute("delete from tags where id not in (?)", Arrays.asList(300, 301, 302, 303));
+                fail("execute() should never split a collection");
+            } catch (SQLException e) {
+                // Expected
+            }
+
+            assertEquals(new Long(3), connection.fetchLong("select count(*) from tags"));
+
+            // Aggregates and ordering would be applied to each chunk separately
+            try {
+                connection.fetchListLong("select count(*) from tags where id in (?)", Arrays.asList(300, 301, 302));
+                fail("A collection which needs to be split should be rejected by default");
+            } catch (SQLException e) {
+                // Expected
+            }
+
+            try {
+                connection.fetchListLong("select limit 0 1 id from tags where id in (?) order by id desc", Arrays.asList(300, 301, 302));
+                fail("A collection which needs to be split should be rejected by default");
+            } catch (SQLException e) {
+                // Expected
+            }
+
+            connection.setSplitInLists(true);
+
+            // Even when splitting is enabled, NOT IN lists are neither split nor allowed to be empty
+            try {
+                connection.fetchListLong("select id from tags where id not in (?)", Arrays.asList(300, 301, 302));
+                fail("A NOT IN list should never be split");
+            } catch (SQLException e) {
+                // Expected
+            }
+
+            try {
+                connection.execute("delete from tags where id NOT  IN\n(?)", Collections.emptyList());
+                fail("An empty NOT IN list should be rejected");
+            } catch (SQLException e) {
+                // Expected
+            }
+
+            assertEquals(new Long(3), connection.fetchLong("select count(*) from tags"));
+            assertEquals(Arrays.asList(302L), connection.fetchListLong("select id from tags where id not in (?)", Arrays.asList(300, 301)));
+            assertEquals(Arrays.asList(300L, 301L, 302L), connection.fetchListLong("select id from tags where id in (?) order by id", Arrays.asList(300, 301, 302)));
+        } finally {
+            connection.setSplitInLists(false);
+            connection.setInListChunkSize(chunkSize);
+            connection.execute("delete from tags");
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import co.lariat.jdbc.entity.UserSummary;
+import co.lariat.jdbc.entity.UserView;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/17/26 11:50 AM - Created with IntelliJ IDEA.
+ */
+public class ProjectionPlanTest extends AbstractUnitTest {
+    @Test
+    public void testFetchAllProjectionMethod() throws ParseException, SQLException {
+        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+        List<UserView> users = connection.fetchAllProjection(
+            UserView.class,
+            "select id, username, active, last_active, balance from users order by id asc"
+        );
+
+        assertEquals(2, users.size());
+
+        UserView user = users.get(0);
+        assertEquals(1L, user.id());
+        assertEquals("admin", user.username());
+        assertTrue(user.isActive());
+        assertEquals(formatter.parse("1970-01-01 00:00:00"), user.getLastActive());
+        assertEquals(new BigDecimal("1345.23"), user.balance());
+        assertEquals("bob.wiley", users.get(1).username());
+
+        // Projections of the same row are equal to each other
+        UserView same = connection.fetchProjection(
+            UserView.class,
+            "select id, username, active, last_active, balance from users where id = ?",
+            1
+        );
+
+        assertEquals(user, same);
+        assertEquals(user.hashCode(), same.hashCode());
+        assertFalse(user.equals(users.get(1)));
+
+        // Methods which return primitives return zero when the column is null
+        user = connection.fetchProjection(
+            UserView.class,
+            "select cast(null as integer) as id, username, active, last_active, balance from users where users.id = ?",
+            2
+        );
+
+        assertEquals(0L, user.id());
+        assertNull(connection.fetchProjection(UserView.class, "select id, username, active, last_active, balance from users where id = ?", 3));
+    }
+
+    @Test
+    public void testProjectionDefaultAndObjectMethods() throws SQLException {
+        List<UserSummary> users = connection.fetchAllProjection(UserSummary.class, "select id, username from users order by id");
+        assertEquals(2, users.size());
+
+        // Default methods are invoked rather than being mapped to columns
+        UserSummary user = users.get(0);
+        assertEquals("admin#1", user.getLabel());
+        assertEquals("user admin#1", user.getLabel("user "));
+
+        // Redeclared methods of Object are answered by the projection
+        UserSummary same = connection.fetchProjection(UserSummary.class, "select id, username from users where id = ?", 1);
+        assertEquals(user, same);
+        assertEquals(user.hashCode(), same.hashCode());
+        assertFalse(user.equals(users.get(1)));
+        assertEquals("UserSummary{getId=1, getUsername=admin}", user.toString());
+
+        // The proxy class and the method lookups are shared by every row of a plan
+        assertSame(user.getClass(), users.get(1).getClass());
+        assertEquals("bob.wiley#2", users.get(1).getLabel());
+    }
+}
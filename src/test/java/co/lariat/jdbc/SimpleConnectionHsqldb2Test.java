@@ -0,0 +1,206 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import co.lariat.jdbc.entity.Tag;
+import co.lariat.jdbc.generic.GenericSimpleConnection;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the statements which are only generated for HSQLDB 2 onwards, such as multi-row inserts and MERGE, against
+ * HSQLDB 2. This test is run by its own surefire execution, which puts HSQLDB 2 on the classpath instead of HSQLDB 1.8.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/17/26 10:10 AM - Created with IntelliJ IDEA.
+ */
+public class SimpleConnectionHsqldb2Test {
+    private static RecordingConnection connection = null;
+
+    @BeforeClass
+    public static void beforeClass() throws SQLException {
+        DB.loadDriverClass("jdbc:hsqldb:mem:hsqldb2");
+        connection = new RecordingConnection(DriverManager.getConnection("jdbc:hsqldb:mem:hsqldb2", "sa", ""));
+        assertEquals(2, connection.getMetaData().getDatabaseMajorVersion());
+
+        // Create a table whose ids are generated by the database
+        connection.execute("create table tags(\n" +
+            "   id INTEGER GENERATED BY DEFAULT AS IDENTITY (START WITH 1) PRIMARY KEY,\n" +
+            "   name varchar(25)\n" +
+            ")"
+        );
+    }
+
+    @AfterClass
+    public static void afterClass() throws SQLException {
+        connection.execute("drop table tags");
+        DB.closeConnection(connection);
+    }
+
+    @After
+    public void after() throws SQLException {
+        connection.execute("delete from tags");
+        connection.preparedSql.clear();
+    }
+
+    @Test
+    public void testExecuteInsertBatchInsertsMultipleRowsPerStatement() throws SQLException {
+        List<Object[]> rows = new ArrayList<>();
+
+        for (int id = 1; id <= 5; id++) {
+            rows.add(new Object[] {id, "tag" + id});
+        }
+
+        int batchSize = connection.getBatchSize();
+        connection.setBatchSize(2);
+
+        try {
+            assertArrayEquals(new int[] {1, 1, 1, 1, 1}, connection.executeInsertBatch("insert into tags(id, name) values(?, ?)", rows));
+        } finally {
+            connection.setBatchSize(batchSize);
+        }
+
+        // Five rows are inserted by two statements of two rows and one of a single row
+        assertEquals(Arrays.asList(
+            "insert into tags(id, name) values(?, ?), (?, ?)",
+            "insert into tags(id, name) values(?, ?), (?, ?)",
+            "insert into tags(id, name) values(?, ?)"
+        ), connection.preparedSql);
+
+        assertEquals(new Long(5), connection.fetchLong("select count(*) from tags"));
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L), connection.fetchListLong("select id from tags order by id"));
+        assertEquals("tag4", connection.fetchString("select name from tags where id = ?", 4));
+    }
+
+    @Test
+    public void testInsertAllMethod() throws SQLException {
+        // Entities which already have ids are inserted with a single multi-row statement
+        Tag red = new Tag("red");
+        red.setId(10L);
+        Tag green = new Tag("green");
+        green.setId(11L);
+        Tag blue = new Tag("blue");
+        blue.setId(12L);
+
+        assertArrayEquals(new int[] {1, 1, 1}, connection.insertAll(Arrays.asList(red, green, blue)));
+        assertEquals(Arrays.asList("insert into tags(id, name) values(?, ?), (?, ?), (?, ?)"), connection.preparedSql);
+        assertEquals(Arrays.asList(10L, 11L, 12L), connection.fetchListLong("select id from tags order by id"));
+        assertEquals("green", connection.fetchString("select name from tags where id = ?", 11));
+
+        // HSQLDB 2 returns generated keys, so they are written back to the entities without the identity query
+        List<Tag> tags = Arrays.asList(new Tag("cyan"), new Tag("magenta"), new Tag("yellow"));
+        assertArrayEquals(new int[] {1, 1, 1}, connection.insertAll(tags));
+
+        for (Tag tag : tags) {
+            assertTrue(tag.getId() != null && tag.getId() > 12L);
+            assertEquals(tag.getName(), connection.fetchString("select name from tags where id = ?", tag.getId()));
+        }
+
+        assertEquals(3, new HashSet<>(Arrays.asList(tags.get(0).getId(), tags.get(1).getId(), tags.get(2).getId())).size());
+        assertEquals(new Long(6), connection.fetchLong("select count(*) from tags"));
+    }
+
+    @Test
+    public void testUpsertAllMethodUsesMerge() throws SQLException {
+        String[] keys = new String[] {"id"};
+        String[] columns = new String[] {"id", "name"};
+
+        // Rows which do not exist yet are inserted
+        assertEquals(2, connection.upsertAll("tags", keys, columns, Arrays.asList(
+            new Object[] {20, "red"},
+            new Object[] {21, "green"}
+        )).length);
+
+        assertEquals(Arrays.asList(UpsertSql.build(Vendor.HSQLDB, "tags", keys, columns)), connection.preparedSql);
+        assertTrue(connection.preparedSql.get(0).startsWith("merge into tags"));
+        assertEquals(Arrays.asList(20L, 21L), connection.fetchListLong("select id from tags order by id"));
+        assertEquals("green", connection.fetchString("select name from tags where id = ?", 21));
+
+        // Rows which already exist are updated
+        connection.upsertAll("tags", keys, columns, Arrays.asList(
+            new Object[] {20, "crimson"},
+            new Object[] {21, "lime"}
+        ));
+
+        assertEquals(new Long(2), connection.fetchLong("select count(*) from tags"));
+        assertEquals("crimson", connection.fetchString("select name from tags where id = ?", 20));
+        assertEquals("lime", connection.fetchString("select name from tags where id = ?", 21));
+
+        // A batch may mix both
+        Tag red = new Tag("scarlet");
+        red.setId(20L);
+        Tag blue = new Tag("blue");
+        blue.setId(22L);
+        connection.upsertAll(Arrays.asList(red, blue));
+
+        assertEquals(Arrays.asList(20L, 21L, 22L), connection.fetchListLong("select id from tags order by id"));
+        assertEquals("scarlet", connection.fetchString("select name from tags where id = ?", 20));
+        assertEquals("lime", connection.fetchString("select name from tags where id = ?", 21));
+        assertEquals("blue", connection.fetchString("select name from tags where id = ?", 22));
+
+        // Every statement was a merge, rather than the update then insert fallback
+        for (String sql : connection.preparedSql) {
+            assertTrue(sql, sql.startsWith("merge"));
+        }
+
+        assertTrue(connection.getAutoCommit());
+    }
+
+    /**
+     * Records the sql of each insert, merge and update which is prepared through the statement cache
+     */
+    private static class RecordingConnection extends GenericSimpleConnection {
+        private final List<String> preparedSql = new ArrayList<>();
+
+        RecordingConnection(final java.sql.Connection connection) {
+            super(connection);
+        }
+
+        @Override
+        protected PreparedStatement prepareCachedStatement(final String sql, final boolean callable) throws SQLException {
+            if (sql.startsWith("insert") || sql.startsWith("merge") || sql.startsWith("update")) {
+                preparedSql.add(sql);
+            }
+
+            return super.prepareCachedStatement(sql, callable);
+        }
+    }
+}
@@ -26,23 +26,46 @@ package co.lariat.jdbc;
  * #L%
  */
 
+import co.lariat.jdbc.entity.ColumnUser;
+import co.lariat.jdbc.entity.FieldUser;
+import co.lariat.jdbc.entity.GraphUser;
+import co.lariat.jdbc.entity.PlainUser;
+import co.lariat.jdbc.entity.PrimitiveTag;
+import co.lariat.jdbc.entity.PrimitiveUser;
+import co.lariat.jdbc.entity.Role;
+import co.lariat.jdbc.entity.TableUser;
+import co.lariat.jdbc.entity.Tag;
 import co.lariat.jdbc.entity.User;
-import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.lang.reflect.InvocationTargetException;
 import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
@@ -310,6 +333,274 @@ public class SimpleConnectionTest extends AbstractUnitTest{
         assertEquals(new Double(user.getBalance().doubleValue()), new Double(new BigDecimal(564.77).doubleValue()));
     }
 
+    @Test
+    public void testMappingPlanIsReusedForTheSameResultSetShape() throws SQLException {
+        SimpleResultSet first = connection.fetch("select id, username from users where id = ?", 1);
+        SimpleResultSet second = connection.fetch("select id, username from users where id = ?", 2);
+        SimpleResultSet third = connection.fetch("select id, password from users where id = ?", 2);
+
+        MappingPlan plan = connection.resolveMappingPlan(User.class, first);
+        assertSame(plan, connection.resolveMappingPlan(User.class, second));
+        assertNotSame(plan, connection.resolveMappingPlan(User.class, third));
+        assertEquals(2, plan.getColumnCount());
+
+        DB.closeResultSet(first);
+        DB.closeResultSet(second);
+        DB.closeResultSet(third);
+    }
+
+    @Test
+    public void testGeneratedRowMapperIsUsedForAnnotatedEntities() throws SQLException {
+        RowMapper<User> rowMapper = RowMapperRegistry.find(User.class);
+        assertNotNull(rowMapper);
+        assertEquals("co.lariat.jdbc.entity.User_RowMapper", rowMapper.getClass().getName());
+        assertNull(RowMapperRegistry.find(PlainUser.class));
+
+        SimpleResultSet resultSet = connection.fetch("select id, username from users where id = ?", 1);
+        assertSame(rowMapper, connection.resolveMappingPlan(User.class, resultSet).getRowMapper());
+        assertNull(connection.resolveMappingPlan(PlainUser.class, resultSet).getRowMapper());
+        DB.closeResultSet(resultSet);
+    }
+
+    @Test
+    public void testMappingPlansRejectIncompatibleColumns() throws SQLException {
+        // A timestamp cannot be read into the Long id, whether the entity has a generated mapper or not
+        SimpleResultSet resultSet = connection.fetch("select last_active as id from users where id = ?", 1);
+
+        try {
+            try {
+                connection.resolveMappingPlan(User.class, resultSet);
+                fail("The generated mapper should not read a timestamp into a Long");
+            } catch (SQLException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("does not match the column type name(java.sql.Timestamp)"));
+            }
+
+            try {
+                connection.resolveMappingPlan(PlainUser.class, resultSet);
+                fail("Reflection should not read a timestamp into a Long");
+            } catch (SQLException e) {
+                assertTrue(e.getCause() instanceof NoSuchMethodException);
+            }
+        } finally {
+            DB.closeResultSet(resultSet);
+        }
+    }
+
+    @Test
+    public void testFetchAllEntityMethodWithReflection() throws ParseException, SQLException {
+        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+        List<PlainUser> users = connection.fetchAllEntity(
+            PlainUser.class,
+            "select id, username, password, active, last_active, balance from users order by id asc"
+        );
+
+        assertEquals(2, users.size());
+
+        PlainUser user = users.get(1);
+        assertEquals(user.getId(), new Long(2));
+        assertEquals(user.getUsername(), "bob.wiley");
+        assertEquals(user.getPassword(), "password2");
+        assertEquals(user.getActive(), true);
+        assertEquals(user.getLastActive(), formatter.parse("1973-02-02 00:00:00"));
+        assertEquals(new Double(user.getBalance().doubleValue()), new Double(new BigDecimal(564.77).doubleValue()));
+    }
+
+    @Test
+    public void testFetchAllEntityMethodWithPrimitiveSetters() throws SQLException {
+        List<PrimitiveUser> users = connection.fetchAllEntity(
+            PrimitiveUser.class,
+            "select id, username, active, cast(balance as double) as balance from users order by id asc"
+        );
+
+        assertEquals(2, users.size());
+
+        PrimitiveUser user = users.get(0);
+        assertEquals(1L, user.getId());
+        assertEquals("admin", user.getUsername());
+        assertTrue(user.isActive());
+        assertEquals(1345.23, user.getBalance(), 0.001);
+
+        // Null values leave primitive properties untouched
+        user = connection.fetchEntity(
+            PrimitiveUser.class,
+            "select id, cast(null as double) as balance from users where id = ?",
+            2
+        );
+
+        assertEquals(2L, user.getId());
+        assertEquals(0.0, user.getBalance(), 0.0);
+    }
+
+    @Test
+    public void testSetterFailures() throws Exception {
+        // Null cannot be passed to a primitive setter, so it is rejected before the invoker tries to unbox it
+        try {
+            new SetterMethod(PrimitiveUser.class.getMethod("setId", long.class)).invoke(new PrimitiveUser(), null);
+            fail("Null should be rejected by a primitive setter");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("setId"));
+        }
+
+        // Exceptions which are thrown by the setter are wrapped, but errors are not
+        SetterMethod setter = new SetterMethod(FailingSetter.class.getMethod("setValue", String.class));
+
+        try {
+            setter.invoke(new FailingSetter(), "exception");
+            fail("The exception of the setter should be wrapped");
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+
+        try {
+            setter.invoke(new FailingSetter(), "error");
+            fail("The error of the setter should be rethrown");
+        } catch (StackOverflowError e) {
+            assertEquals("error", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testSetterInvokersAreSharedBetweenWrappers() throws Exception {
+        SetterMethod first = new SetterMethod(PrimitiveUser.class.getMethod("setId", long.class));
+        SetterMethod second = new SetterMethod(PrimitiveUser.class.getMethod("setId", long.class));
+        assertSame(first.getInvoker(), second.getInvoker());
+
+        PrimitiveUser user = new PrimitiveUser();
+        second.invokeLong(user, 42L);
+        assertEquals(42L, user.getId());
+    }
+
+    @Test
+    public void testEntityMetadata() {
+        EntityMetadata metadata = EntityMetadata.of(ColumnUser.class);
+
+        assertSame(metadata, EntityMetadata.of(ColumnUser.class));
+        assertTrue(metadata.isJpaEntity());
+        assertEquals("users", metadata.getTableName());
+        assertEquals(1, metadata.getIdProperties().size());
+        assertEquals("identifier", metadata.getIdProperties().get(0).getName());
+        assertEquals("identifier", metadata.getPropertyByColumn("ID").getName());
+        assertEquals("login", metadata.getPropertyByColumn("username").getName());
+        assertEquals("password", metadata.getPropertyByColumn("password").getName());
+
+        // Transient properties are described, but never mapped to columns
+        assertEquals(4, metadata.getProperties().size());
+        assertTrue(metadata.getProperties().get(3).isTransient());
+        assertNull(metadata.getProperty("displayName"));
+
+        metadata = EntityMetadata.of(User.class);
+
+        assertEquals("user", metadata.getTableName());
+        assertEquals("lastActive", metadata.getPropertyByColumn("last_active").getName());
+        assertNotNull(metadata.getProperty("lastActive").getSetter());
+        assertTrue(metadata.getIdProperties().isEmpty());
+        assertNull(metadata.getAccessMode());
+        assertEquals(AccessMode.FIELD, EntityMetadata.of(FieldUser.class).getAccessMode());
+    }
+
+    @Test
+    public void testFetchGraphMethod() throws SQLException {
+        // Joining both collections repeats every role once for each privilege
+        List<GraphUser> users = connection.fetchGraph(
+            EntityGraph.of(GraphUser.class, "u_")
+                .join(Role.class, "r_", new EntityGraph.Linker<GraphUser, Role>() {
+                    @Override
+                    public void link(final GraphUser user, final Role role) {
+                        user.getRoles().add(role);
+                    }
+                })
+                .join(Role.class, "p_", new EntityGraph.Linker<GraphUser, Role>() {
+                    @Override
+                    public void link(final GraphUser user, final Role role) {
+                        user.getPrivileges().add(role);
+                    }
+                }),
+            "select u.id as u_id, u.username as u_username,"
+                + " r.id as r_id, r.user_id as r_user_id, r.name as r_name, p.id as p_id, p.name as p_name"
+                + " from users u"
+                + " left join user_roles r on r.user_id = u.id"
+                + " left join user_roles p on p.user_id = u.id"
+                + " order by u.id, r.id, p.id"
+        );
+
+        assertEquals(2, users.size());
+
+        GraphUser user = users.get(0);
+        assertEquals(Long.valueOf(1), user.getId());
+        assertEquals("admin", user.getUsername());
+        assertEquals(2, user.getRoles().size());
+        assertEquals("admin", user.getRoles().get(0).getName());
+        assertEquals(Long.valueOf(1), user.getRoles().get(0).getUserId());
+        assertEquals("editor", user.getRoles().get(1).getName());
+        assertEquals(2, user.getPrivileges().size());
+        assertNull(user.getPrivileges().get(0).getUserId());
+
+        // The second user has no roles, so the outer join produces nulls
+        user = users.get(1);
+        assertEquals("bob.wiley", user.getUsername());
+        assertTrue(user.getRoles().isEmpty());
+        assertTrue(user.getPrivileges().isEmpty());
+    }
+
+    @Test
+    public void testBindersAreResolvedByClass() throws ClassNotFoundException, SQLException {
+        // Timestamps are dates, but they have a binder of their own
+        assertNotSame(Binders.find(Date.class), Binders.find(Timestamp.class));
+        assertSame(Binders.find(Date.class), Binders.find(java.sql.Date.class));
+        assertSame(Binders.find(Object.class), Binders.find(StringBuilder.class));
+        assertNotSame(Binders.find(Object.class), Binders.find(Class.forName("java.time.LocalDate")));
+
+        // Custom binders are used for their own types
+        Binders.register(UUID.class, new Binder<UUID>() {
+            @Override
+            public void bind(final SimpleConnection connection, final PreparedStatement statement, final int position, final UUID value) throws SQLException {
+                statement.setString(position, value.toString());
+            }
+        });
+
+        UUID uuid = UUID.fromString("0b5a7e58-8f55-4f2b-9c1e-6a3bb0b4a7d1");
+        assertEquals("admin", connection.fetchString("select username from users where ? = '0b5a7e58-8f55-4f2b-9c1e-6a3bb0b4a7d1' and id = 1", uuid));
+    }
+
+    @Test
+    public void testFetchAllEntityMethodWithFieldAccess() throws ParseException, SQLException {
+        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+        Map<String, FieldUser> users = connection.fetchAllEntityMap(
+            FieldUser.class,
+            "username",
+            "select id, username, last_active, balance from users order by id asc"
+        );
+
+        assertEquals(2, users.size());
+
+        FieldUser user = users.get("bob.wiley");
+        assertEquals(2L, user.getId());
+        assertEquals("bob.wiley", user.getUsername());
+        assertEquals(formatter.parse("1973-02-02 00:00:00"), user.getLastActive());
+        assertEquals(new Double(user.getBalance().doubleValue()), new Double(new BigDecimal(564.77).doubleValue()));
+    }
+
+    @Test
+    public void testFetchAllEntityMethodWithFieldAccessAndColumnAnnotations() throws SQLException {
+        connection.setAccessMode(AccessMode.FIELD);
+
+        try {
+            List<ColumnUser> users = connection.fetchAllEntity(
+                ColumnUser.class,
+                "select id, username, password from users order by id asc"
+            );
+
+            assertEquals(2, users.size());
+            assertEquals(new Long(1), users.get(0).getIdentifier());
+            assertEquals("admin", users.get(0).getLogin());
+            assertEquals("password", users.get(0).getPassword());
+        } finally {
+            connection.setAccessMode(AccessMode.PROPERTY);
+        }
+    }
+
     @Test
     public void testToCamelCaseMethod() throws SQLException {
         assertEquals("myColumnName", connection.toCamelCase("my_column_name"));
@@ -333,4 +624,671 @@ public class SimpleConnectionTest extends AbstractUnitTest{
         assertTrue(connection.isJpaEntity(user));
         assertFalse(connection.isJpaEntity(this));
     }
+
+    @Test
+    public void testNamedParameters() throws SQLException {
+        MapParameterSource parameters = new MapParameterSource()
+            .addValue("id", 2)
+            .addValue("username", "bob.wiley");
+
+        assertEquals(
+            "bob.wiley",
+            connection.fetchString("select username from users where id = :id and username = :username", parameters)
+        );
+        assertEquals(
+            new Long(1),
+            connection.fetchLong("select count(*) from users where id = :id or id = :id + 10", parameters)
+        );
+
+        // Text in quotes and comments isn't treated as a parameter
+        assertEquals(
+            ":id",
+            connection.fetchString("select ':id' from users where id = :id -- :username", parameters)
+        );
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("admin");
+
+        List<User> users = connection.fetchAllEntity(
+            User.class,
+            "select * from users where id = :id and username = :username",
+            new EntityParameterSource(user)
+        );
+        assertEquals(1, users.size());
+        assertEquals("admin", users.get(0).getUsername());
+        assertTrue(new EntityParameterSource(user).hasValue("last_active"));
+        assertFalse(new EntityParameterSource(user).hasValue("missing"));
+
+        NamedParameterSql parsed = NamedParameterSql.parse("select * from users where id = :id and username = ':x''s' and id = :id");
+        assertEquals("select * from users where id = ? and username = ':x''s' and id = ?", parsed.getSql());
+        assertArrayEquals(new String[] {"id", "id"}, parsed.getParameterNames());
+        assertSame(parsed, NamedParameterSql.parse(parsed.getOriginalSql()));
+
+        try {
+            connection.fetchString("select username from users where id = :missing", parameters);
+            fail("A missing named parameter should be rejected");
+        } catch (SQLException e) {
+            // Expected
+        }
+
+        try {
+            NamedParameterSql.parse("select username from users where id = :id and username = ?");
+            fail("Named and positional parameters should not be mixed");
+        } catch (SQLException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testInsertAndUpdateEntityMethods() throws SQLException {
+        EntityMetadata metadata = EntityMetadata.of(TableUser.class);
+        assertEquals(
+            "insert into users(id, username, password, active, last_active, balance) " +
+                "values(:id, :username, :password, :active, :lastActive, :balance)",
+            metadata.getInsertSql()
+        );
+        assertEquals(
+            "update users set username = :username, password = :password, active = :active, " +
+                "last_active = :lastActive, balance = :balance where id = :id",
+            metadata.getUpdateSql()
+        );
+
+        TableUser user = new TableUser();
+        user.setId(3L);
+        user.setUsername("carol");
+        user.setPassword("password3");
+        user.setActive(false);
+        user.setLastActive(new Date(0));
+        user.setBalance(new BigDecimal("10.50"));
+
+        try {
+            assertEquals(1, connection.insert(user));
+
+            TableUser inserted = connection.fetchEntity(TableUser.class, "select * from users where id = ?", 3);
+            assertEquals("carol", inserted.getUsername());
+            assertEquals(Boolean.FALSE, inserted.getActive());
+            assertEquals(0, new BigDecimal("10.50").compareTo(inserted.getBalance()));
+
+            user.setUsername("caroline");
+            assertEquals(1, connection.update(user));
+            assertEquals("caroline", connection.fetchString("select username from users where id = ?", 3));
+
+            // Parameters may be named after either the property or the column
+            connection.executeEntity("update users set password = :username where id = :id and last_active = :last_active", user);
+            assertEquals("caroline", connection.fetchString("select password from users where id = ?", 3));
+        } finally {
+            connection.execute("delete from users where id = ?", 3);
+        }
+
+        try {
+            connection.executeEntity("update users set password = :missing where id = :id", user);
+            fail("A named parameter without a matching property should be rejected");
+        } catch (SQLException e) {
+            // Expected
+        }
+
+        try {
+            connection.update(new PlainUser());
+            fail("An entity without id properties cannot be updated");
+        } catch (SQLException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testTypedParameters() throws SQLException {
+        String sql = "select username from users where id = ? and balance > ?";
+        PreparedStatement statement = connection.prepareStatement(sql);
+
+        try {
+            int[] types = ParameterTypes.resolve("test", sql, statement);
+            assertArrayEquals(new int[] {Types.INTEGER, Types.NUMERIC}, types);
+            assertSame(types, ParameterTypes.resolve("test", sql, statement));
+        } finally {
+            DB.closeStatement(statement);
+        }
+
+        connection.setTypedParameters(true);
+
+        try {
+            assertEquals("admin", connection.fetchString(sql, 1, 0));
+            assertEquals(new Long(1), connection.fetchLong("select count(*) from users where id = ?", new BigDecimal("2")));
+
+            connection.execute(
+                "insert into users(id, username, password, active, last_active, balance) values(?,?,?,?,?,?)",
+                3, "carol", null, null, null, null
+            );
+            assertNull(connection.fetchDate("select last_active from users where id = ?", 3));
+
+            // Every overload of prepareStatement and prepareCall records the parameter types
+            statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+
+            try {
+                assertArrayEquals(new int[] {Types.INTEGER, Types.NUMERIC}, connection.getParameterTypes(statement));
+            } finally {
+                DB.closeStatement(statement);
+            }
+        } finally {
+            connection.setTypedParameters(false);
+            connection.execute("delete from users where id = ?", 3);
+        }
+    }
+
+    @Test
+    public void testExecuteBatchMethod() throws SQLException {
+        String sql = "insert into users(id, username, password, active, last_active, balance) values(?,?,?,?,?,?)";
+        List<Object[]> rows = new ArrayList<>();
+
+        for (int id = 3; id <= 7; id++) {
+            rows.add(new Object[] {id, "user" + id, "password" + id, true, null, null});
+        }
+
+        int batchSize = connection.getBatchSize();
+        connection.setBatchSize(2);
+
+        try {
+            assertArrayEquals(new int[] {1, 1, 1, 1, 1}, connection.executeBatch(sql, rows));
+            assertEquals(new Long(7), connection.fetchLong("select count(*) from users"));
+            assertTrue(connection.getAutoCommit());
+
+            // The second batch fails, which rolls back the first
+            List<Object[]> duplicates = new ArrayList<>();
+            duplicates.add(new Object[] {8, "user8", "password8", true, null, null});
+            duplicates.add(new Object[] {9, "user9", "password9", true, null, null});
+            duplicates.add(new Object[] {3, "user3", "password3", true, null, null});
+
+            try {
+                connection.executeBatch(sql, duplicates);
+                fail("A duplicate key should fail the batch");
+            } catch (SQLException e) {
+                // Expected
+            }
+
+            assertEquals(new Long(0), connection.fetchLong("select count(*) from users where id in (?)", Arrays.asList(8, 9)));
+            assertTrue(connection.getAutoCommit());
+        } finally {
+            connection.setBatchSize(batchSize);
+            connection.execute("delete from users where id > ?", 2);
+        }
+    }
+
+    @Test
+    public void testInsertAllMethod() throws SQLException {
+        List<Tag> tags = Arrays.asList(new Tag("red"), new Tag("green"), new Tag("blue"));
+
+        try {
+            assertArrayEquals(new int[] {1, 1, 1}, connection.insertAll(tags));
+
+            // HSQLDB 1.8 cannot return generated keys, so they are retrieved with its identity query instead
+            for (Tag tag : tags) {
+                assertNotNull(tag.getId());
+                assertEquals(tag.getName(), connection.fetchString("select name from tags where id = ?", tag.getId()));
+            }
+
+            assertNotSame(tags.get(0).getId(), tags.get(1).getId());
+
+            // Entities which already have ids are inserted with them
+            Tag yellow = new Tag("yellow");
+            yellow.setId(100L);
+            assertArrayEquals(new int[] {1}, connection.insertAll(Collections.singletonList(yellow)));
+            assertEquals("yellow", connection.fetchString("select name from tags where id = ?", 100));
+
+            Tag purple = new Tag("purple");
+            purple.setId(101L);
+
+            try {
+                connection.insertAll(Arrays.asList(purple, new Tag("orange")));
+                fail("Entities whose ids are only partially set should be rejected");
+            } catch (SQLException e) {
+                // Expected
+            }
+
+            // Primitive ids cannot be null, so zero is treated as unset
+            List<PrimitiveTag> primitiveTags = Arrays.asList(new PrimitiveTag("black"), new PrimitiveTag("white"));
+            assertArrayEquals(new int[] {1, 1}, connection.insertAll(primitiveTags));
+
+            for (PrimitiveTag tag : primitiveTags) {
+                assertTrue(tag.getId() > 0);
+                assertEquals(tag.getName(), connection.fetchString("select name from tags where id = ?", tag.getId()));
+            }
+
+            PrimitiveTag grey = new PrimitiveTag("grey");
+            grey.setId(102L);
+            assertArrayEquals(new int[] {1}, connection.insertAll(Collections.singletonList(grey)));
+            assertEquals("grey", connection.fetchString("select name from tags where id = ?", 102));
+        } finally {
+            connection.execute("delete from tags");
+        }
+    }
+
+    @Test
+    public void testExecuteInsertBatchMethod() throws SQLException {
+        MultiRowInsert insert = MultiRowInsert.parse("insert into tags(id, name) values (?, lower(?)) on conflict do nothing");
+        assertNotNull(insert);
+        assertEquals(2, insert.getParameterCount());
+        assertEquals("insert into tags(id, name) values (?, lower(?)), (?, lower(?)), (?, lower(?)) on conflict do nothing", insert.getSql(3));
+        assertSame(insert.getSql(3), insert.getSql(3));
+        assertEquals("insert into tags(id, name) values (?, lower(?)) on conflict do nothing", insert.getSql(1));
+
+        // Parameters outside of the row of values, and inserts without values, cannot be rewritten
+        assertNull(MultiRowInsert.parse("insert into tags(id, name) values(?, ?) on conflict (id) do update set name = ?"));
+        assertNull(MultiRowInsert.parse("insert into tags(id, name) select id, username from users where id = ?"));
+        assertNull(MultiRowInsert.parse("update tags set name = ? where id = ?"));
+        assertNotNull(MultiRowInsert.parse("insert into tags(id, name) values(?, 'values(?)')"));
+        assertEquals(1, MultiRowInsert.parse("insert into tags(id, name) values(?, 'values(?)')").getParameterCount());
+
+        // HSQLDB 1.8 cannot insert multiple rows of values, so this falls back to a batch
+        List<Object[]> rows = new ArrayList<>();
+
+        for (int id = 200; id < 205; id++) {
+            rows.add(new Object[] {id, "tag" + id});
+        }
+
+        try {
+            assertArrayEquals(new int[] {1, 1, 1, 1, 1}, connection.executeInsertBatch("insert into tags(id, name) values(?, ?)", rows));
+            assertEquals(new Long(5), connection.fetchLong("select count(*) from tags where id >= ?", 200));
+        } finally {
+            connection.execute("delete from tags");
+        }
+    }
+
+    @Test
+    public void testUpsertAllMethod() throws SQLException {
+        String[] keys = {"id"};
+        String[] columns = {"id", "name"};
+
+        assertEquals(
+            "insert into tags(id, name) values(?, ?) on conflict (id) do update set name = excluded.name",
+            UpsertSql.build(Vendor.POSTGRESQL, "tags", keys, columns)
+        );
+        assertEquals(
+            "insert into tags(id) values(?) on conflict (id) do nothing",
+            UpsertSql.build(Vendor.POSTGRESQL, "tags", keys, keys)
+        );
+        assertEquals(
+            "insert into tags(id, name) values(?, ?) on duplicate key update name = values(name)",
+            UpsertSql.build(Vendor.MYSQL, "tags", keys, columns)
+        );
+        assertEquals(
+            "insert into tags(id) values(?) on duplicate key update id = id",
+            UpsertSql.build(Vendor.MYSQL, "tags", keys, keys)
+        );
+        assertEquals(
+            "merge into tags target using (values(?, ?)) source(id, name) on (target.id = source.id)" +
+                " when matched then update set target.name = source.name" +
+                " when not matched then insert (id, name) values (source.id, source.name)",
+            UpsertSql.build(Vendor.HSQLDB, "tags", keys, columns)
+        );
+        assertEquals(
+            "merge into tags target using (select ? id, ? name from dual) source on (target.id = source.id)" +
+                " when matched then update set target.name = source.name" +
+                " when not matched then insert (id, name) values (source.id, source.name)",
+            UpsertSql.build(Vendor.ORACLE, "tags", keys, columns)
+        );
+        assertNull(UpsertSql.build(Vendor.GENERIC, "tags", keys, columns));
+
+        try {
+            UpsertSql.build(Vendor.POSTGRESQL, "tags", new String[] {"username"}, columns);
+            fail("Key columns which are not written should be rejected");
+        } catch (SQLException e) {
+            // Expected
+        }
+
+        // HSQLDB 1.8 does not support MERGE, so each row is updated and then inserted if it did not exist
+        try {
+            connection.execute("insert into tags(id, name) values(?, ?)", 300, "red");
+
+            List<Object[]> rows = Arrays.asList(new Object[] {300, "crimson"}, new Object[] {301, "green"});
+            assertArrayEquals(new int[] {1, 1}, connection.upsertAll("tags", keys, columns, rows));
+            assertEquals("crimson", connection.fetchString("select name from tags where id = ?", 300));
+            assertEquals("green", connection.fetchString("select name from tags where id = ?", 301));
+
+            // Rows which only have keys are left alone if they exist
+            assertArrayEquals(new int[] {1}, connection.upsertAll("tags", keys, keys, Collections.singletonList(new Object[] {301})));
+            assertEquals("green", connection.fetchString("select name from tags where id = ?", 301));
+
+            // Entities are upserted by their ids
+            Tag blue = new Tag("blue");
+            blue.setId(301L);
+            Tag yellow = new Tag("yellow");
+            yellow.setId(302L);
+            assertArrayEquals(new int[] {1, 1}, connection.upsertAll(Arrays.asList(blue, yellow)));
+            assertEquals("blue", connection.fetchString("select name from tags where id = ?", 301));
+            assertEquals("yellow", connection.fetchString("select name from tags where id = ?", 302));
+            assertEquals(new Long(3), connection.fetchLong("select count(*) from tags"));
+
+            // Statements which cannot be prepared leave the connection as it was
+            try {
+                connection.upsertAll("tags", keys, new String[] {"id", "missing"}, Collections.singletonList(new Object[] {303, "x"}));
+                fail("Unknown columns should be rejected");
+            } catch (SQLException e) {
+                // Expected
+            }
+
+            assertTrue(connection.getAutoCommit());
+        } finally {
+            connection.execute("delete from tags");
+        }
+    }
+
+    @Test
+    public void testStreamingMethods() throws SQLException {
+        connection.setFetchSize(1);
+
+        try {
+            List<String> usernames = new ArrayList<>();
+
+            try (ResultSetIterator<User> users = connection.streamEntity(User.class, "select * from users order by id")) {
+                for (User user : users) {
+                    usernames.add(user.getUsername());
+                }
+
+                // The results are released as soon as they have been exhausted
+                assertTrue(users.isClosed());
+                assertFalse(users.hasNext());
+            }
+
+            assertEquals(Arrays.asList("admin", "bob.wiley"), usernames);
+
+            // Iterators which are abandoned early are closed explicitly
+            ResultSetIterator<Map<String, Object>> rows = connection.streamMap("select * from users where id >= :id order by id",
+                new MapParameterSource().addValue("id", 1));
+            assertTrue(rows.hasNext());
+            assertEquals("admin", rows.next().get("username"));
+            assertFalse(rows.isClosed());
+            rows.close();
+            assertTrue(rows.isClosed());
+            assertFalse(rows.hasNext());
+            rows.close();
+
+            try (ResultSetIterator<Long> ids = connection.iterate(new ResultSetHandler<Long>() {
+                @Override
+                public Long handle(final SimpleResultSet simpleResultSet) throws SQLException {
+                    return simpleResultSet.getLong(1);
+                }
+            }, "select id from users where id in (?) order by id", Arrays.asList(1, 2))) {
+                assertEquals(new Long(1), ids.next());
+                assertEquals(new Long(2), ids.next());
+                assertFalse(ids.hasNext());
+
+                try {
+                    ids.next();
+                    fail("Reading past the last row should fail");
+                } catch (NoSuchElementException e) {
+                    // Expected
+                }
+            }
+        } finally {
+            connection.setFetchSize(0);
+        }
+    }
+
+    @Test
+    public void testForEachMethods() throws SQLException {
+        final List<String> usernames = new ArrayList<>();
+
+        assertEquals(2, connection.forEachRow("select username from users order by id", new RowCallback<SimpleResultSet>() {
+            @Override
+            public boolean process(final SimpleResultSet row) throws SQLException {
+                usernames.add(row.getString(1).trim());
+                return true;
+            }
+        }));
+        assertEquals(Arrays.asList("admin", "bob.wiley"), usernames);
+
+        // Returning false stops the scan
+        final List<User> users = new ArrayList<>();
+
+        assertEquals(1, connection.forEachEntity(User.class, "select * from users order by id", new RowCallback<User>() {
+            @Override
+            public boolean process(final User user) throws SQLException {
+                users.add(user);
+                return false;
+            }
+        }));
+        assertEquals(1, users.size());
+        assertEquals("admin", users.get(0).getUsername());
+
+        // Scans which are split into several chunks of an IN list also stop early
+        int chunkSize = connection.getInListChunkSize();
+        connection.setInListChunkSize(1);
+        connection.setSplitInLists(true);
+
+        try {
+            final List<Long> ids = new ArrayList<>();
+            RowCallback<User> callback = new RowCallback<User>() {
+                @Override
+                public boolean process(final User user) throws SQLException {
+                    ids.add(user.getId());
+                    return ids.size() < 1;
+                }
+            };
+
+            assertEquals(1, connection.forEachEntity(User.class, "select * from users where id in (:ids)", callback,
+                new MapParameterSource().addValue("ids", Arrays.asList(1, 2))));
+            assertEquals(Collections.singletonList(1L), ids);
+
+            ids.clear();
+            assertEquals(2, connection.forEachEntity(User.class, "select * from users where id in (?)", new RowCallback<User>() {
+                @Override
+                public boolean process(final User user) throws SQLException {
+                    ids.add(user.getId());
+                    return true;
+                }
+            }, Arrays.asList(1, 2)));
+            assertEquals(new HashSet<>(Arrays.asList(1L, 2L)), new HashSet<>(ids));
+        } finally {
+            connection.setSplitInLists(false);
+            connection.setInListChunkSize(chunkSize);
+        }
+    }
+
+    @Test
+    public void testPrimitiveArrayMethods() throws SQLException {
+        assertArrayEquals(new long[] {1, 2}, connection.fetchLongArray("select id from users order by id"));
+        assertArrayEquals(new int[] {2, 1}, connection.fetchIntArray("select id from users order by id desc"));
+        assertArrayEquals(new double[] {1345.23, 564.77}, connection.fetchDoubleArray("select balance from users order by id"), 0.001);
+        assertArrayEquals(new long[0], connection.fetchLongArray("select id from users where id < ?", 0));
+        assertArrayEquals(new long[] {2}, connection.fetchLongArray("select id from users where username = :username",
+            new MapParameterSource().addValue("username", "bob.wiley")));
+
+        // Results which are larger than the initial buffer are grown into
+        List<Object[]> rows = new ArrayList<>();
+
+        for (int id = 1000; id < 1200; id++) {
+            rows.add(new Object[] {id, "tag" + id});
+        }
+
+        try {
+            connection.executeBatch("insert into tags(id, name) values(?, ?)", rows);
+            long[] ids = connection.fetchLongArray("select id from tags order by id");
+            assertEquals(200, ids.length);
+            assertEquals(1000, ids[0]);
+            assertEquals(1199, ids[199]);
+        } finally {
+            connection.execute("delete from tags");
+        }
+
+        LongHashSet userIds = connection.fetchLongSet("select user_id from user_roles");
+        assertEquals(1, userIds.size());
+        assertTrue(userIds.contains(1));
+        assertFalse(userIds.contains(2));
+
+        LongHashSet set = new LongHashSet();
+        assertTrue(set.isEmpty());
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+
+        for (long value = -500; value < 500; value++) {
+            set.add(value * 7919);
+        }
+
+        assertEquals(1000, set.size());
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(-500L * 7919));
+        assertTrue(set.contains(499L * 7919));
+        assertFalse(set.contains(1));
+        assertEquals(1000, set.toArray().length);
+
+        LongHashSet small = new LongHashSet(2);
+        small.add(15838);
+        small.add(0);
+        small.add(7919);
+        assertEquals("[0, 7919, 15838]", small.toString());
+    }
+
+    @Test
+    public void testFetchColumnarMethod() throws SQLException {
+        ColumnarResult users = connection.fetchColumnar("select id, username, active, balance, last_active from users order by id");
+        assertEquals(2, users.getRowCount());
+        assertEquals(5, users.getColumnCount());
+        assertEquals("username", users.getColumnName(1));
+        assertEquals(3, users.getColumnIndex("BALANCE"));
+        assertEquals(-1, users.getColumnIndex("missing"));
+        assertEquals(ColumnarResult.Type.LONG, users.getType(0));
+        assertEquals(ColumnarResult.Type.STRING, users.getType(1));
+        assertEquals(ColumnarResult.Type.BOOLEAN, users.getType(2));
+        assertEquals(ColumnarResult.Type.DOUBLE, users.getType(3));
+        assertEquals(ColumnarResult.Type.OBJECT, users.getType(4));
+        assertArrayEquals(new long[] {1, 2}, users.toLongArray(0));
+        assertArrayEquals(new double[] {1345.23, 564.77}, users.toDoubleArray(3), 0.001);
+        assertArrayEquals(new double[] {1, 2}, users.toDoubleArray(0), 0);
+        assertEquals("bob.wiley", users.getString(1, 1));
+        assertTrue(users.getBoolean(2, 0));
+        assertEquals(new Long(2), users.getObject(0, 1));
+        assertTrue(users.getObject(4, 0) instanceof Timestamp);
+
+        try {
+            users.toLongArray(1);
+            fail("Text columns cannot be read as longs");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        // Repeated text is dictionary encoded and nulls are recorded in a bitmap
+        List<Object[]> rows = new ArrayList<>();
+
+        for (int id = 1; id <= 150; id++) {
+            rows.add(new Object[] {id, id % 10 == 0 ? null : id % 2 == 0 ? "even" : "odd"});
+        }
+
+        try {
+            connection.executeBatch("insert into tags(id, name) values(?, ?)", rows);
+            ColumnarResult tags = connection.fetchColumnar("select id, name from tags where id > :id order by id",
+                new MapParameterSource().addValue("id", 0));
+            assertEquals(150, tags.getRowCount());
+            assertArrayEquals(new String[] {"odd", "even"}, tags.getDictionary(1));
+            assertEquals(15, tags.getNullCount(1));
+            assertEquals(0, tags.getNullCount(0));
+            assertTrue(tags.isNull(1, 9));
+            assertNull(tags.getString(1, 9));
+            assertEquals(-1, tags.getStringCode(1, 9));
+            assertEquals("even", tags.getString(1, 137));
+            assertTrue(tags.getNullMask(1).get(149));
+
+            // Slices share the columns but are indexed from their first row
+            ColumnarResult slice = tags.slice(95, 105);
+            assertEquals(10, slice.getRowCount());
+            assertEquals(96, slice.getLong(0, 0));
+            assertEquals(1, slice.getNullCount(1));
+            assertTrue(slice.isNull(1, 4));
+            assertEquals(4, slice.getNullMask(1).nextSetBit(0));
+            assertArrayEquals(new int[] {1, 0, 1, 0, -1, 0, 1, 0, 1, 0}, slice.toStringCodeArray(1));
+            assertEquals(2, slice.slice(2, 4).getRowCount());
+            assertEquals(98, slice.slice(2, 4).getLong(0, 0));
+
+            try {
+                slice.getLong(0, 10);
+                fail("Rows outside of a slice should be rejected");
+            } catch (IndexOutOfBoundsException e) {
+                // Expected
+            }
+        } finally {
+            connection.execute("delete from tags");
+        }
+    }
+
+    @Test
+    public void testAggregates() throws SQLException {
+        List<Object[]> rows = new ArrayList<>();
+
+        for (int id = 1; id <= 150; id++) {
+            rows.add(new Object[] {id, id % 10 == 0 ? null : id % 2 == 0 ? "even" : "odd"});
+        }
+
+        try {
+            connection.executeBatch("insert into tags(id, name) values(?, ?)", rows);
+            ColumnarResult tags = connection.fetchColumnar("select id, name, mod(id, 3) as remainder, id * 0.5 as half from tags order by id");
+
+            assertEquals(150, Aggregates.count(tags, 0));
+            assertEquals(135, Aggregates.count(tags, 1));
+            assertEquals(11325, Aggregates.sumLong(tags, 0));
+            assertEquals(11325, Aggregates.sumDouble(tags, 0), 0);
+            assertEquals(5662.5, Aggregates.sumDouble(tags, 3), 0.0001);
+            assertEquals(new Long(1), Aggregates.minLong(tags, 0));
+            assertEquals(new Long(150), Aggregates.maxLong(tags, 0));
+            assertEquals(0.5, Aggregates.minDouble(tags, 3), 0);
+            assertEquals(75.0, Aggregates.maxDouble(tags, 3), 0);
+
+            // Slices only aggregate their own rows
+            ColumnarResult slice = tags.slice(60, 70);
+            assertEquals(10, Aggregates.count(slice, 0));
+            assertEquals(9, Aggregates.count(slice, 1));
+            assertEquals(655, Aggregates.sumLong(slice, 0));
+            assertEquals(new Long(61), Aggregates.minLong(slice, 0));
+            assertEquals(new Long(70), Aggregates.maxLong(slice, 0));
+            assertNull(Aggregates.minLong(tags.slice(0, 0), 0));
+
+            try {
+                Aggregates.sumLong(tags, 1);
+                fail("Text columns cannot be summed");
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+
+            // Group by a dictionary encoded column, with the nulls in a group of their own
+            Aggregates.Groups byName = Aggregates.groupBy(tags, 1);
+            assertEquals(3, byName.getGroupCount());
+            assertEquals("odd", byName.getKey(0));
+            assertEquals("even", byName.getKey(1));
+            assertNull(byName.getKey(2));
+            assertEquals(2, byName.getGroup(9));
+            assertArrayEquals(new long[] {75, 60, 15}, byName.count());
+            assertArrayEquals(new long[] {75, 60, 0}, byName.count(1));
+            assertArrayEquals(new long[] {5625, 4500, 1200}, byName.sumLong(0));
+            assertArrayEquals(new double[] {2812.5, 2250, 600}, byName.sumDouble(3), 0.0001);
+            assertArrayEquals(new double[] {1, 2, 10}, byName.min(0), 0);
+            assertArrayEquals(new double[] {149, 148, 150}, byName.max(0), 0);
+
+            // Group by an integral column
+            Aggregates.Groups byRemainder = Aggregates.groupBy(tags, 2);
+            assertEquals(3, byRemainder.getGroupCount());
+            assertEquals(1L, byRemainder.getKey(0));
+            assertEquals(2L, byRemainder.getKey(1));
+            assertEquals(0L, byRemainder.getKey(2));
+            assertArrayEquals(new long[] {50, 50, 50}, byRemainder.count());
+            assertArrayEquals(new long[] {3725, 3775, 3825}, byRemainder.sumLong(0));
+
+            Aggregates.Groups byActive = Aggregates.groupBy(connection.fetchColumnar("select active, balance from users"), 0);
+            assertEquals(1, byActive.getGroupCount());
+            assertEquals(true, byActive.getKey(0));
+            assertArrayEquals(new double[] {1910}, byActive.sumDouble(1), 0.001);
+        } finally {
+            connection.execute("delete from tags");
+        }
+    }
+
+    /**
+     * An entity whose setter throws whatever it is told to
+     */
+    public static class FailingSetter {
+        public void setValue(String value) {
+            if (value.equals("error")) {
+                throw new StackOverflowError(value);
+            }
+
+            throw new IllegalStateException(value);
+        }
+    }
 }
@@ -0,0 +1,90 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import co.lariat.jdbc.entity.User;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/17/26 11:50 AM - Created with IntelliJ IDEA.
+ */
+public class StatementCacheTest extends AbstractUnitTest {
+    @Test
+    public void testStatementCache() throws SQLException {
+        StatementCache cache = connection.getStatementCache();
+        connection.setStatementCacheSize(2);
+
+        try {
+            long hits = cache.getHits();
+            long misses = cache.getMisses();
+
+            assertEquals("admin", connection.fetchString("select username from users where id = ?", 1));
+            assertEquals("bob.wiley", connection.fetchString("select username from users where id = ?", 2));
+            assertEquals(2, connection.fetchAllEntity(User.class, "select * from users where id in (?)", Arrays.asList(1, 2)).size());
+            assertEquals(2, connection.fetchAllEntity(User.class, "select * from users where id in (?)", Arrays.asList(1, 2)).size());
+
+            assertEquals(hits + 2, cache.getHits());
+            assertEquals(misses + 2, cache.getMisses());
+            assertEquals(2, cache.size());
+
+            // The least recently used statement is evicted to make room
+            long evictions = cache.getEvictions();
+            assertEquals(new Long(2), connection.fetchLong("select count(*) from users"));
+            assertEquals(evictions + 1, cache.getEvictions());
+            assertEquals(2, cache.size());
+
+            // Parameters are cleared, so a reused statement never sees the arguments of its previous use
+            assertEquals(new Long(1), connection.fetchLong("select count(*) from users where id = ?", 1));
+            assertEquals(new Long(1), connection.fetchLong("select count(*) from users where id = ?", 2));
+
+            // Statements are returned to the cache even when their execution fails
+            String sql = "select username from users where id = ? and username = ?";
+
+            try {
+                connection.fetchString(sql, 1, "admin", 3);
+                fail("Binding more arguments than the statement has parameters should fail");
+            } catch (SQLException e) {
+                // Expected
+            }
+
+            hits = cache.getHits();
+            assertEquals("admin", connection.fetchString(sql, 1, "admin"));
+            assertEquals(hits + 1, cache.getHits());
+        } finally {
+            connection.setStatementCacheSize(0);
+        }
+
+        assertEquals(0, cache.size());
+    }
+}
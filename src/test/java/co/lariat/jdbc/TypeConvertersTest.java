@@ -0,0 +1,83 @@
+package co.lariat.jdbc;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import co.lariat.jdbc.entity.ConvertedUser;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/17/26 11:50 AM - Created with IntelliJ IDEA.
+ */
+public class TypeConvertersTest extends AbstractUnitTest {
+    @Test
+    public void testTypeConvertersResolveChains() throws ClassNotFoundException, SQLException {
+        Class<?> localDateClass = Class.forName("java.time.LocalDate");
+
+        // There is no direct converter from timestamps to dates, but there are converters through date times
+        @SuppressWarnings("unchecked")
+        TypeConverter<Object, Object> converter = (TypeConverter<Object, Object>) TypeConverters.find(Timestamp.class, localDateClass);
+
+        assertNotNull(converter);
+        assertSame(converter, TypeConverters.find(Timestamp.class, localDateClass));
+        assertEquals("2016-11-08", converter.convert(Timestamp.valueOf("2016-11-08 21:40:00")).toString());
+
+        assertNull(TypeConverters.find(Timestamp.class, Timestamp.class));
+        assertNull(TypeConverters.find(String.class, BigDecimal.class));
+        assertTrue(TypeConverters.canConvert(Integer.class, long.class));
+    }
+
+    @Test
+    public void testFetchAllEntityMethodWithTypeConverters() throws SQLException {
+        List<ConvertedUser> users = connection.fetchAllEntity(
+            ConvertedUser.class,
+            "select id, balance, '0b5a7e58-8f55-4f2b-9c1e-6a3bb0b4a7d1' as token,"
+                + " case when id = 1 then 'ACTIVE' else 'INACTIVE' end as status from users order by id asc"
+        );
+
+        assertEquals(2, users.size());
+
+        ConvertedUser user = users.get(0);
+        assertEquals(BigDecimal.ONE, user.getId());
+        assertEquals(Long.valueOf(1345), user.getBalance());
+        assertEquals(UUID.fromString("0b5a7e58-8f55-4f2b-9c1e-6a3bb0b4a7d1"), user.getToken());
+        assertEquals(ConvertedUser.Status.ACTIVE, user.getStatus());
+        assertEquals(ConvertedUser.Status.INACTIVE, users.get(1).getStatus());
+    }
+}
@@ -0,0 +1,182 @@
+package co.lariat.jdbc.benchmark;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import co.lariat.jdbc.DB;
+import co.lariat.jdbc.SimpleConnection;
+
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Measures the cost of binding an argument with {@link SimpleConnection#bindArguments(PreparedStatement, Object...)},
+ * which resolves a binder per argument class, and with the chain of instanceof checks which it used to perform. The
+ * statement does nothing, so that only the cost of choosing how to bind each argument is measured. This is not a unit
+ * test and is not run by the build. Run it manually after the tests have been compiled, for example:
+ * <pre>
+ * mvn test-compile
+ * java -cp target/classes:target/test-classes:$HOME/.m2/repository/hsqldb/hsqldb/1.8.0.10/hsqldb-1.8.0.10.jar co.lariat.jdbc.benchmark.BindArgumentsBenchmark
+ * </pre>
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 9:55 PM - Created with IntelliJ IDEA.
+ */
+public class BindArgumentsBenchmark {
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 10;
+    private static final int INVOCATIONS = 1000000;
+
+    public static void main(String[] args) throws Exception {
+        SimpleConnection connection = DB.getConnection("jdbc:hsqldb:mem:benchmark", "sa", "");
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(
+            BindArgumentsBenchmark.class.getClassLoader(),
+            new Class<?>[] {PreparedStatement.class},
+            new InvocationHandler() {
+                @Override
+                public Object invoke(final Object proxy, final Method method, final Object[] arguments) {
+                    return null;
+                }
+            }
+        );
+
+        // A wide row, including types which were near the end of the instanceof chain or fell off the end of it
+        Object[] arguments = new Object[] {
+            "admin", 1, 2L, new BigDecimal("1345.23"), new Timestamp(0), new Date(0), true, new byte[0], 1.5d, UUID.randomUUID()
+        };
+
+        for (int iteration = 0; iteration < WARMUP_ITERATIONS; iteration++) {
+            instanceOfChain(statement, arguments);
+            binders(connection, statement, arguments);
+        }
+
+        long instanceOfNanos = 0;
+        long binderNanos = 0;
+
+        for (int iteration = 0; iteration < MEASURED_ITERATIONS; iteration++) {
+            instanceOfNanos += instanceOfChain(statement, arguments);
+            binderNanos += binders(connection, statement, arguments);
+        }
+
+        long bound = (long) arguments.length * INVOCATIONS * MEASURED_ITERATIONS;
+
+        System.out.println("instanceof chain: " + ((double) instanceOfNanos / bound) + " ns/argument");
+        System.out.println("Binders:          " + ((double) binderNanos / bound) + " ns/argument");
+
+        DB.closeConnection(connection);
+    }
+
+    private static long binders(final SimpleConnection connection, final PreparedStatement statement, final Object[] arguments) throws SQLException {
+        long start = System.nanoTime();
+
+        for (int index = 0; index < INVOCATIONS; index++) {
+            connection.bindArguments(statement, arguments);
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    private static long instanceOfChain(final PreparedStatement statement, final Object[] arguments) throws SQLException {
+        long start = System.nanoTime();
+
+        for (int index = 0; index < INVOCATIONS; index++) {
+            int position = 1;
+
+            for (Object value : arguments) {
+                bindObject(statement, position++, value);
+            }
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * The dispatch which SimpleConnection.bindObject() used to perform
+     */
+    private static void bindObject(final PreparedStatement statement, final int position, final Object value) throws SQLException {
+        if (value == null) {
+            statement.setNull(position, Types.NULL);
+        } else if (value instanceof String) {
+            statement.setString(position, (String) value);
+        } else if (value instanceof Integer) {
+            statement.setInt(position, (Integer) value);
+        } else if (value instanceof Long) {
+            statement.setLong(position, (Long) value);
+        } else if (value instanceof Float) {
+            statement.setFloat(position, (Float) value);
+        } else if (value instanceof Double) {
+            statement.setDouble(position, (Double) value);
+        } else if (value instanceof Boolean) {
+            statement.setBoolean(position, (Boolean) value);
+        } else if (value instanceof Time) {
+            statement.setTime(position, (Time) value);
+        } else if (value instanceof Timestamp) {
+            statement.setTimestamp(position, (Timestamp) value);
+        } else if (value instanceof Date) {
+            statement.setDate(position, new java.sql.Date(((Date) value).getTime()));
+        } else if (value instanceof BigDecimal) {
+            statement.setBigDecimal(position, (BigDecimal) value);
+        } else if (value instanceof Short) {
+            statement.setShort(position, (Short) value);
+        } else if (value instanceof Byte) {
+            statement.setByte(position, (Byte) value);
+        } else if (value instanceof Array) {
+            statement.setArray(position, (Array) value);
+        } else if (value instanceof Blob) {
+            statement.setBlob(position, (Blob) value);
+        } else if (value instanceof NClob) {
+            statement.setNClob(position, (NClob) value);
+        } else if (value instanceof Clob) {
+            statement.setClob(position, (Clob) value);
+        } else if (value instanceof InputStream) {
+            statement.setBinaryStream(position, (InputStream) value);
+        } else if (value instanceof SQLXML) {
+            statement.setSQLXML(position, (SQLXML) value);
+        } else if (value instanceof Ref) {
+            statement.setRef(position, (Ref) value);
+        } else if (value instanceof byte[]) {
+            statement.setBytes(position, (byte[]) value);
+        } else {
+            statement.setObject(position, value);
+        }
+    }
+}
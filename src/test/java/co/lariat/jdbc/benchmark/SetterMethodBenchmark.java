@@ -0,0 +1,102 @@
+package co.lariat.jdbc.benchmark;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import co.lariat.jdbc.SetterMethod;
+import co.lariat.jdbc.entity.User;
+
+import java.lang.reflect.Method;
+
+/**
+ * Compares the cost of invoking a setter through {@link java.lang.reflect.Method#invoke(Object, Object...)}, which
+ * is what {@link SetterMethod} used to do, with the invoker which it generates now. This is not a unit test and is
+ * not run by the build. Run it manually after the tests have been compiled, for example:
+ * <pre>
+ * mvn test-compile
+ * java -cp target/classes:target/test-classes co.lariat.jdbc.benchmark.SetterMethodBenchmark
+ * </pre>
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/16/26 11:02 AM - Created with IntelliJ IDEA.
+ */
+public class SetterMethodBenchmark {
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 10;
+    private static final int INVOCATIONS = 5000000;
+
+    public static void main(String[] args) throws Exception {
+        Method idMethod = User.class.getMethod("setId", Long.class);
+        Method usernameMethod = User.class.getMethod("setUsername", String.class);
+        SetterMethod idSetter = new SetterMethod(idMethod);
+        SetterMethod usernameSetter = new SetterMethod(usernameMethod);
+
+        User user = new User();
+        Long id = 42L;
+        String username = "admin";
+
+        for (int iteration = 0; iteration < WARMUP_ITERATIONS; iteration++) {
+            reflection(user, idMethod, usernameMethod, id, username);
+            methodHandle(user, idSetter, usernameSetter, id, username);
+        }
+
+        long reflectionNanos = 0;
+        long methodHandleNanos = 0;
+
+        for (int iteration = 0; iteration < MEASURED_ITERATIONS; iteration++) {
+            reflectionNanos += reflection(user, idMethod, usernameMethod, id, username);
+            methodHandleNanos += methodHandle(user, idSetter, usernameSetter, id, username);
+        }
+
+        long invocations = 2L * INVOCATIONS * MEASURED_ITERATIONS;
+
+        System.out.println("Method.invoke():       " + ((double) reflectionNanos / invocations) + " ns/invocation");
+        System.out.println("SetterMethod.invoke(): " + ((double) methodHandleNanos / invocations) + " ns/invocation");
+        System.out.println(user);
+    }
+
+    private static long reflection(final User user, final Method idMethod, final Method usernameMethod, final Long id, final String username) throws Exception {
+        long start = System.nanoTime();
+
+        for (int index = 0; index < INVOCATIONS; index++) {
+            idMethod.invoke(user, id);
+            usernameMethod.invoke(user, username);
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    private static long methodHandle(final User user, final SetterMethod idSetter, final SetterMethod usernameSetter, final Long id, final String username) throws Exception {
+        long start = System.nanoTime();
+
+        for (int index = 0; index < INVOCATIONS; index++) {
+            idSetter.invoke(user, id);
+            usernameSetter.invoke(user, username);
+        }
+
+        return System.nanoTime() - start;
+    }
+}
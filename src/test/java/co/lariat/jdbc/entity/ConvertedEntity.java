@@ -0,0 +1,87 @@
+package co.lariat.jdbc.entity;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import co.lariat.jdbc.JdbcSimpleEntity;
+
+import java.util.UUID;
+
+/**
+ * An entity with a generated row mapper whose properties can only be populated with the type converters.
+ *
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/17/26 9:10 AM - Created with IntelliJ IDEA.
+ */
+@JdbcSimpleEntity
+public class ConvertedEntity {
+    private Long id;
+    private UUID token;
+    private ConvertedUser.Status status;
+    private char initial;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public UUID getToken() {
+        return token;
+    }
+
+    public void setToken(UUID token) {
+        this.token = token;
+    }
+
+    public ConvertedUser.Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(ConvertedUser.Status status) {
+        this.status = status;
+    }
+
+    public char getInitial() {
+        return initial;
+    }
+
+    public void setInitial(char initial) {
+        this.initial = initial;
+    }
+
+    @Override
+    public String toString() {
+        return "ConvertedEntity{" +
+                "id=" + id +
+                ", token=" + token +
+                ", status=" + status +
+                ", initial=" + initial +
+                '}';
+    }
+}
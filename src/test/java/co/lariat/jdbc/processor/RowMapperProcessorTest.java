@@ -0,0 +1,98 @@
+package co.lariat.jdbc.processor;
+
+/*-
+ * #%L
+ * jdbc-simple
+ * %%
+ * Copyright (C) 2013 - 2016 Lariat
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import co.lariat.jdbc.AbstractUnitTest;
+import co.lariat.jdbc.RowMapperRegistry;
+import co.lariat.jdbc.entity.ConvertedEntity;
+import co.lariat.jdbc.entity.ConvertedUser;
+import co.lariat.jdbc.entity.MappedColumnUser;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+/**
+ * @author <a href="mailto:john@lariat.co">John D. Dunlap</a>
+ * @since 10/17/26 11:50 AM - Created with IntelliJ IDEA.
+ */
+public class RowMapperProcessorTest extends AbstractUnitTest {
+    @Test
+    public void testGeneratedRowMapperHonoursColumnAnnotations() throws SQLException {
+        assertNotNull(RowMapperRegistry.find(MappedColumnUser.class));
+
+        List<MappedColumnUser> users = connection.fetchAllEntity(
+            MappedColumnUser.class,
+            "select id, username, password from users order by id asc"
+        );
+
+        assertEquals(2, users.size());
+        assertEquals(new Long(2), users.get(1).getIdentifier());
+        assertEquals("bob.wiley", users.get(1).getLogin());
+        assertEquals("password2", users.get(1).getPassword());
+
+        // Columns which are named after the properties still match
+        MappedColumnUser user = connection.fetchEntity(MappedColumnUser.class, "select id as identifier from users where id = ?", 1);
+        assertEquals(new Long(1), user.getIdentifier());
+    }
+
+    @Test
+    public void testGeneratedRowMapperUsesTypeConverters() throws SQLException {
+        assertNotNull(RowMapperRegistry.find(ConvertedEntity.class));
+
+        List<ConvertedEntity> entities = connection.fetchAllEntity(
+            ConvertedEntity.class,
+            "select id, '0b5a7e58-8f55-4f2b-9c1e-6a3bb0b4a7d1' as token,"
+                + " case when id = 1 then 'ACTIVE' else 'INACTIVE' end as status from users order by id asc"
+        );
+
+        assertEquals(2, entities.size());
+        assertEquals(UUID.fromString("0b5a7e58-8f55-4f2b-9c1e-6a3bb0b4a7d1"), entities.get(0).getToken());
+        assertEquals(ConvertedUser.Status.ACTIVE, entities.get(0).getStatus());
+        assertEquals(ConvertedUser.Status.INACTIVE, entities.get(1).getStatus());
+
+        // Values which cannot be converted are reported as SQLExceptions rather than ClassCastExceptions
+        try {
+            connection.fetchEntity(ConvertedEntity.class, "select 'not a uuid' as token from users where id = ?", 1);
+            fail("Values which cannot be converted should be rejected");
+        } catch (SQLException e) {
+            // Expected
+        }
+
+        try {
+            connection.fetchEntity(ConvertedEntity.class, "select balance as initial from users where id = ?", 1);
+            fail("Values without a converter should be rejected");
+        } catch (SQLException e) {
+            // Expected
+        }
+    }
+}